@@ -0,0 +1,21 @@
+package com.fastfood.order.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Orders taken offline on a POS terminal, sent together on reconnect. Each order is validated
+ * individually so one bad order does not block the rest of the sync.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+
+    @NotEmpty(message = "Orders are required")
+    private List<OrderRequest> orders;
+}
@@ -0,0 +1,42 @@
+package com.fastfood.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponse {
+
+    private int received;
+    private int created;
+    private int duplicates;
+    private int failed;
+    @Builder.Default
+    private List<OrderBatchResult> results = new ArrayList<>();
+
+    public enum Status {
+        CREATED, DUPLICATE, FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderBatchResult {
+        private UUID clientUuid;
+        private Status status;
+        private Long orderId;
+        private String orderNumber;
+        private BigDecimal totalAmount;
+        private String error;
+    }
+}
@@ -9,7 +9,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -40,5 +42,11 @@ public class OrderRequest {
     private String voucherCode;
 
     private String notes;
+
+    /** Terminal-generated order id; required for batch sync, optional for single orders */
+    private UUID clientUuid;
+
+    /** When the order was taken on the terminal (offline orders are synced later) */
+    private LocalDateTime clientCreatedAt;
 }
 
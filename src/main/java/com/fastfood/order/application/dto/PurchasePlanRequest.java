@@ -0,0 +1,62 @@
+package com.fastfood.order.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Forecast sales to plan purchases for: expected quantities per branch over the whole horizon.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasePlanRequest {
+
+    @NotNull
+    @Min(1)
+    @Max(90)
+    private Integer horizonDays;
+
+    @NotEmpty
+    @Valid
+    private List<BranchSales> branches;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BranchSales {
+        @NotNull
+        private Long branchId;
+
+        @NotEmpty
+        @Valid
+        private List<SalesLine> sales;
+    }
+
+    /** Either menuItemId (with an optional sizeCode) or comboId */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SalesLine {
+        private Long menuItemId;
+        private String sizeCode;
+        private Long comboId;
+
+        @NotNull
+        @PositiveOrZero
+        private BigDecimal quantity;
+    }
+}
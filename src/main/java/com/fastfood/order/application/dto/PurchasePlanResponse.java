@@ -0,0 +1,60 @@
+package com.fastfood.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasePlanResponse {
+
+    private Integer horizonDays;
+    private Integer lookbackDays; // null when planned from supplied sales
+    private LocalDateTime generatedAt;
+    private List<BranchRequirement> branches;
+    private List<PurchaseLine> purchaseList;
+    private Integer salesLinesWithoutRecipe;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BranchRequirement {
+        private Long branchId;
+        private String branchName;
+        private List<RequirementLine> requirements;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RequirementLine {
+        private Long stockItemId;
+        private String stockItemNameEn;
+        private String unit;
+        private BigDecimal requiredQuantity;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PurchaseLine {
+        private Long stockItemId;
+        private String stockItemNameEn;
+        private String stockItemNameUr;
+        private String unit;
+        private BigDecimal requiredQuantity;
+        private BigDecimal currentQuantity;
+        private BigDecimal minThreshold;
+        private BigDecimal purchaseQuantity; // rounded up to whole scan packs when the item has one
+    }
+}
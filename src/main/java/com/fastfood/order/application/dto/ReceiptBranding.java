@@ -0,0 +1,21 @@
+package com.fastfood.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Brand details printed on a shop's receipts, with the configured defaults already applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptBranding {
+
+    private Long shopId;
+    private String brandName;
+    private String location;
+    private String logoUrl;
+}
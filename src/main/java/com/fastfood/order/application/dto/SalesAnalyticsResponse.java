@@ -59,9 +59,12 @@ public class SalesAnalyticsResponse {
     @AllArgsConstructor
     public static class PopularItemData {
         private Long itemId;
+        private String itemType;
         private String itemName;
+        private String sizeCode;
         private Long quantitySold;
         private BigDecimal revenue;
+        private BigDecimal addOnRevenue;
     }
 
     @Data
@@ -74,4 +77,15 @@ public class SalesAnalyticsResponse {
         private Long orders;
         private BigDecimal revenue;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlySalesData {
+        private Integer dayOfWeek; // ISO: 1 = Monday ... 7 = Sunday
+        private Integer hour;
+        private Long quantitySold;
+        private BigDecimal revenue;
+    }
 }
@@ -0,0 +1,26 @@
+package com.fastfood.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockForecastResponse {
+
+    private Long stockItemId;
+    private String stockItemNameEn;
+    private String stockItemNameUr;
+    private String unit;
+    private BigDecimal currentQuantity;
+    private BigDecimal averageDailyConsumption;
+    private BigDecimal daysOfCover; // null when there is no consumption to project
+    private LocalDateTime projectedStockOutAt; // null when not expected within a year
+    private Integer observedDays;
+}
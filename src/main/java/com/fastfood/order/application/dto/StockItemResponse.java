@@ -26,6 +26,8 @@ public class StockItemResponse {
     private Boolean isLowStock;
     private String barcode;
     private BigDecimal scanPackQty;
+    private BigDecimal daysOfCover;
+    private LocalDateTime projectedStockOutAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
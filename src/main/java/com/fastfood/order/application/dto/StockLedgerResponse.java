@@ -0,0 +1,25 @@
+package com.fastfood.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerResponse {
+
+    private Long stockItemId;
+    private String unit;
+    /** Quantity on hand at {@code to} */
+    private BigDecimal quantity;
+    /** Sale consumption between {@code from} and {@code to}; null for point-in-time queries */
+    private BigDecimal consumed;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
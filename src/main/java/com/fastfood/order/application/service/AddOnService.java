@@ -4,11 +4,12 @@ import com.fastfood.order.application.dto.AddOnRequest;
 import com.fastfood.order.application.dto.AddOnResponse;
 import com.fastfood.order.domain.entity.AddOn;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.AddOnRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,12 +20,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class AddOnService {
+public class AddOnService implements CacheReloader {
 
     private final AddOnRepository addOnRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
 
-    @CacheEvict(value = CacheConfig.ADD_ONS, allEntries = true)
     public AddOnResponse createAddOn(AddOnRequest request) {
         log.info("Creating add-on: {}", request.getNameEn());
 
@@ -40,10 +41,10 @@ public class AddOnService {
                 .build();
 
         addOn = addOnRepository.save(addOn);
+        evictAddOnLists(shopIdOf(addOn));
         return mapToResponse(addOn);
     }
 
-    @CacheEvict(value = CacheConfig.ADD_ONS, allEntries = true)
     public AddOnResponse updateAddOn(Long id, AddOnRequest request) {
         log.info("Updating add-on with ID: {}", id);
 
@@ -65,6 +66,10 @@ public class AddOnService {
         }
 
         addOn = addOnRepository.save(addOn);
+        Long shopId = shopIdOf(addOn);
+        evictAddOnLists(shopId);
+        // Menu item responses embed their add-ons
+        catalogCache.evictShop(CacheConfig.MENU_ITEMS, shopId);
         return mapToResponse(addOn);
     }
 
@@ -89,31 +94,69 @@ public class AddOnService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.ADD_ONS, key = "'all-' + @shopContextService.requireCurrentShopId()")
     public List<AddOnResponse> getAllAddOns() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return addOnRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.ADD_ONS, CacheKeys.shopKey(CacheKeys.ALL, shopId),
+                () -> loadAddOns(shopId, false));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.ADD_ONS, key = "'available-' + @shopContextService.requireCurrentShopId()")
     public List<AddOnResponse> getAvailableAddOns() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return addOnRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .filter(a -> Boolean.TRUE.equals(a.getIsAvailable()))
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.ADD_ONS, CacheKeys.shopKey(CacheKeys.AVAILABLE, shopId),
+                () -> loadAddOns(shopId, true));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.ADD_ONS;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.ALL, CacheKeys.AVAILABLE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null) {
+            return null;
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.ALL)) {
+            return loadAddOns(shopId, false);
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.AVAILABLE)) {
+            return loadAddOns(shopId, true);
+        }
+        return null;
     }
 
-    @CacheEvict(value = CacheConfig.ADD_ONS, allEntries = true)
     public void deleteAddOn(Long id) {
         log.info("Deleting add-on with ID: {}", id);
-        if (!addOnRepository.existsById(id)) {
-            throw new RuntimeException("Add-on not found with ID: " + id);
-        }
+        AddOn addOn = addOnRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Add-on not found with ID: " + id));
+        Long shopId = shopIdOf(addOn);
         addOnRepository.deleteById(id);
+        evictAddOnLists(shopId);
+        catalogCache.evictShop(CacheConfig.MENU_ITEMS, shopId);
+    }
+
+    private Long shopIdOf(AddOn addOn) {
+        return addOn.getShop() != null ? addOn.getShop().getId() : shopContextService.requireCurrentShopId();
+    }
+
+    private void evictAddOnLists(Long shopId) {
+        catalogCache.evict(CacheConfig.ADD_ONS,
+                CacheKeys.shopKey(CacheKeys.ALL, shopId), CacheKeys.shopKey(CacheKeys.AVAILABLE, shopId));
+    }
+
+    private List<AddOnResponse> loadAddOns(Long shopId, boolean availableOnly) {
+        return addOnRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
+                .filter(a -> !availableOnly || Boolean.TRUE.equals(a.getIsAvailable()))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
     }
 
     private AddOnResponse mapToResponse(AddOn addOn) {
@@ -5,10 +5,13 @@ import com.fastfood.order.domain.entity.Order;
 import com.fastfood.order.infrastructure.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
@@ -20,7 +23,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnalyticsService {
 
+    private static final int DEFAULT_TOP_ITEMS = 10;
+
     private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShopContextService shopContextService;
 
     @Transactional(readOnly = true)
     public SalesAnalyticsResponse getSalesAnalytics(Long branchId, LocalDateTime startDate, LocalDateTime endDate) {
@@ -66,9 +73,141 @@ public class AnalyticsService {
                 .lastThreeMonths(lastThreeMonths)
                 .lastTwelveMonths(lastTwelveMonths)
                 .monthlySales(monthlySales)
+                .categorySales(getCategoryMix(branchId, startDate, endDate))
+                .popularItems(getTopItems(branchId, startDate, endDate, DEFAULT_TOP_ITEMS, "quantity", false))
                 .build();
     }
 
+    /**
+     * Best sellers from the hourly item rollup, ranked by quantity or revenue. With {@code bySize}
+     * each size of an item is ranked separately.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesAnalyticsResponse.PopularItemData> getTopItems(Long branchId, LocalDateTime startDate,
+                                                                    LocalDateTime endDate, int limit,
+                                                                    String sortBy, boolean bySize) {
+        if (limit < 1 || limit > 500) {
+            throw new RuntimeException("limit must be between 1 and 500");
+        }
+        String orderBy = switch (sortBy == null ? "quantity" : sortBy.toLowerCase()) {
+            case "quantity" -> "SUM(quantity)";
+            case "revenue" -> "SUM(revenue)";
+            default -> throw new RuntimeException("sortBy must be quantity or revenue");
+        };
+        RollupRange range = rollupRange(branchId, startDate, endDate);
+        String sizeColumn = bySize ? "size_code" : "''";
+        String sql = "SELECT item_type, item_id, " + sizeColumn + " AS size_code, MAX(item_name) AS item_name, "
+                + "SUM(quantity) AS quantity, SUM(revenue) AS revenue, SUM(add_on_revenue) AS add_on_revenue "
+                + "FROM sales_item_hourly WHERE " + range.where()
+                + " GROUP BY item_type, item_id" + (bySize ? ", size_code" : "")
+                + " HAVING SUM(quantity) > 0 ORDER BY " + orderBy + " DESC, item_id LIMIT ?";
+        List<Object> params = new ArrayList<>(range.params());
+        params.add(limit);
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> SalesAnalyticsResponse.PopularItemData.builder()
+                .itemType(rs.getString("item_type"))
+                .itemId(rs.getLong("item_id"))
+                .sizeCode(bySize && !rs.getString("size_code").isEmpty() ? rs.getString("size_code") : null)
+                .itemName(rs.getString("item_name"))
+                .quantitySold(rs.getLong("quantity"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .addOnRevenue(rs.getBigDecimal("add_on_revenue"))
+                .build(), params.toArray());
+    }
+
+    /**
+     * Revenue share per menu category; combos are reported as one "Combos" category. {@code orders}
+     * counts orders per item, so an order with two items of a category counts twice.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesAnalyticsResponse.CategorySalesData> getCategoryMix(Long branchId, LocalDateTime startDate,
+                                                                         LocalDateTime endDate) {
+        RollupRange range = rollupRange(branchId, startDate, endDate);
+        String sql = """
+                SELECT CASE WHEN r.item_type = 'COMBO' THEN 'Combos' ELSE COALESCE(c.name_en, 'Uncategorized') END AS category,
+                       SUM(r.revenue) AS revenue,
+                       SUM(r.order_count) AS orders
+                FROM (
+                    SELECT item_type, category_id, SUM(revenue) AS revenue, SUM(order_count) AS order_count
+                    FROM sales_item_hourly
+                    WHERE %s
+                    GROUP BY item_type, category_id
+                ) r
+                LEFT JOIN menu_categories c ON c.id = r.category_id
+                GROUP BY 1
+                HAVING SUM(r.revenue) <> 0
+                ORDER BY revenue DESC
+                """.formatted(range.where());
+
+        List<SalesAnalyticsResponse.CategorySalesData> mix = jdbcTemplate.query(sql, (rs, rowNum) ->
+                SalesAnalyticsResponse.CategorySalesData.builder()
+                        .categoryName(rs.getString("category"))
+                        .sales(rs.getBigDecimal("revenue"))
+                        .orders(rs.getLong("orders"))
+                        .build(), range.params().toArray());
+
+        BigDecimal total = mix.stream().map(SalesAnalyticsResponse.CategorySalesData::getSales)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        mix.forEach(category -> category.setPercentage(total.signum() > 0
+                ? category.getSales().multiply(BigDecimal.valueOf(100)).divide(total, 2, RoundingMode.HALF_UP).doubleValue()
+                : 0.0));
+        return mix;
+    }
+
+    /**
+     * Sales by ISO day of week and hour of day, for staffing and prep planning. Hours without
+     * sales are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesAnalyticsResponse.HourlySalesData> getHourlyHeatmap(Long branchId, LocalDateTime startDate,
+                                                                         LocalDateTime endDate) {
+        RollupRange range = rollupRange(branchId, startDate, endDate);
+        String sql = """
+                SELECT CAST(EXTRACT(ISODOW FROM bucket_hour) AS INTEGER) AS day_of_week,
+                       CAST(EXTRACT(HOUR FROM bucket_hour) AS INTEGER) AS hour_of_day,
+                       SUM(quantity) AS quantity,
+                       SUM(revenue) AS revenue
+                FROM sales_item_hourly
+                WHERE %s
+                GROUP BY 1, 2
+                HAVING SUM(quantity) > 0
+                ORDER BY 1, 2
+                """.formatted(range.where());
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> SalesAnalyticsResponse.HourlySalesData.builder()
+                .dayOfWeek(rs.getInt("day_of_week"))
+                .hour(rs.getInt("hour_of_day"))
+                .quantitySold(rs.getLong("quantity"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build(), range.params().toArray());
+    }
+
+    /**
+     * Rollup filter for the current shop. The range is widened to whole hours: the hour containing
+     * {@code startDate} through the hour containing {@code endDate}. Defaults to the last 30 days.
+     */
+    private RollupRange rollupRange(Long branchId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now();
+        LocalDateTime start = startDate != null ? startDate : end.minusDays(30);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("startDate must not be after endDate");
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder("shop_id = ?");
+        params.add(shopContextService.requireCurrentShopId());
+        if (branchId != null) {
+            where.append(" AND branch_id = ?");
+            params.add(branchId);
+        }
+        where.append(" AND bucket_hour >= date_trunc('hour', CAST(? AS TIMESTAMP)) AND bucket_hour <= ?");
+        params.add(Timestamp.valueOf(start));
+        params.add(Timestamp.valueOf(end));
+        return new RollupRange(where.toString(), params);
+    }
+
+    private record RollupRange(String where, List<Object> params) {
+    }
+
     private SalesAnalyticsResponse.SalesSummary calculateSummary(List<Order> orders) {
         BigDecimal totalSales = orders.stream()
                 .map(Order::getTotalAmount)
@@ -3,11 +3,12 @@ package com.fastfood.order.application.service;
 import com.fastfood.order.application.dto.*;
 import com.fastfood.order.domain.entity.*;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,25 +19,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class ComboService {
+public class ComboService implements CacheReloader {
 
     private final ComboRepository comboRepository;
     private final ComboItemRepository comboItemRepository;
     private final MenuItemRepository menuItemRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
 
-    @CacheEvict(value = CacheConfig.COMBOS, allEntries = true)
     public ComboResponse createCombo(ComboRequest request) {
         log.info("Creating combo: {}", request.getNameEn());
         
         Combo combo = buildCombo(request);
         combo = comboRepository.save(combo);
         saveComboItems(combo, request.getItems());
+        evictComboLists(shopIdOf(combo));
         
         return getComboById(combo.getId());
     }
 
-    @CacheEvict(value = CacheConfig.COMBOS, allEntries = true)
     public ComboResponse updateCombo(Long id, ComboRequest request) {
         log.info("Updating combo with ID: {}", id);
         
@@ -44,6 +45,7 @@ public class ComboService {
         updateComboFields(combo, request);
         combo = comboRepository.save(combo);
         updateComboItems(id, combo, request.getItems());
+        evictComboLists(shopIdOf(combo));
         
         return getComboById(id);
     }
@@ -68,43 +70,75 @@ public class ComboService {
         return getAllCombos();
     }
 
-    @Cacheable(value = CacheConfig.COMBOS, key = "'all-' + @shopContextService.requireCurrentShopId()")
+    @Transactional(readOnly = true)
     public List<ComboResponse> getAllCombos() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return comboRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .map(combo -> getComboById(combo.getId()))
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.COMBOS, CacheKeys.shopKey(CacheKeys.ALL, shopId),
+                () -> loadCombos(shopId, false));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.COMBOS, key = "'available-' + @shopContextService.requireCurrentShopId()")
     public List<ComboResponse> getAvailableCombos() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return comboRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .filter(c -> Boolean.TRUE.equals(c.getIsAvailable()))
-                .map(combo -> getComboById(combo.getId()))
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.COMBOS, CacheKeys.shopKey(CacheKeys.AVAILABLE, shopId),
+                () -> loadCombos(shopId, true));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.COMBOS;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.ALL, CacheKeys.AVAILABLE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null) {
+            return null;
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.ALL)) {
+            return loadCombos(shopId, false);
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.AVAILABLE)) {
+            return loadCombos(shopId, true);
+        }
+        return null;
     }
 
-    @CacheEvict(value = CacheConfig.COMBOS, allEntries = true)
     public void deleteCombo(Long id) {
         log.info("Deleting combo with ID: {}", id);
-        validateComboExists(id);
+        Long shopId = shopIdOf(findComboById(id));
         comboItemRepository.deleteByComboId(id);
         comboRepository.deleteById(id);
+        evictComboLists(shopId);
     }
 
     // Private helper methods
+
+    private List<ComboResponse> loadCombos(Long shopId, boolean availableOnly) {
+        return comboRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
+                .filter(c -> !availableOnly || Boolean.TRUE.equals(c.getIsAvailable()))
+                .map(combo -> getComboById(combo.getId()))
+                .collect(Collectors.toList());
+    }
     
     private Combo findComboById(Long id) {
         return comboRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Combo not found with ID: " + id));
     }
 
-    private void validateComboExists(Long id) {
-        if (!comboRepository.existsById(id)) {
-            throw new RuntimeException("Combo not found with ID: " + id);
-        }
+    private Long shopIdOf(Combo combo) {
+        return combo.getShop() != null ? combo.getShop().getId() : shopContextService.requireCurrentShopId();
+    }
+
+    private void evictComboLists(Long shopId) {
+        catalogCache.evict(CacheConfig.COMBOS,
+                CacheKeys.shopKey(CacheKeys.ALL, shopId), CacheKeys.shopKey(CacheKeys.AVAILABLE, shopId));
     }
 
     private Combo buildCombo(ComboRequest request) {
@@ -0,0 +1,169 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fastfood.order.application.dto.OrderRequest;
+import com.fastfood.order.application.dto.OrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key handling for order creation.
+ *
+ * <p>The first request with a key claims it by inserting into {@code idempotency_keys} inside the
+ * order transaction, and stores the serialized response in the same row before committing. A
+ * retry either finds the response in the in-memory LRU or, when the first request is still running,
+ * waits on the unique index until it commits and then reads the stored response. Nothing of the
+ * order flow (pricing, vouchers, stock, printing) runs twice.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (shop_id, idempotency_key, request_hash)
+            VALUES (?, ?, ?)
+            ON CONFLICT (shop_id, idempotency_key) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.order.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.order.idempotency.retention-hours:48}")
+    private long retentionHours;
+
+    private Cache<String, StoredResponse> recentResponses;
+
+    @PostConstruct
+    void init() {
+        recentResponses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofHours(retentionHours))
+                .build();
+    }
+
+    /**
+     * Claims the key for this request, or returns the response of the request that already used it.
+     * Must run inside the transaction that creates the order, so the claim is rolled back with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<OrderResponse> claim(Long shopId, String key, OrderRequest request) {
+        validateKey(key);
+        String requestHash = hash(request);
+
+        StoredResponse cached = recentResponses.getIfPresent(cacheKey(shopId, key));
+        if (cached != null) {
+            return Optional.of(replay(key, requestHash, cached));
+        }
+
+        // Blocks while another transaction holds the same key, then sees its committed row
+        if (jdbcTemplate.update(CLAIM_SQL, shopId, key, requestHash) == 1) {
+            return Optional.empty();
+        }
+        List<StoredResponse> stored = jdbcTemplate.query(
+                "SELECT request_hash, response_body FROM idempotency_keys WHERE shop_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getString(2)),
+                shopId, key);
+        if (stored.isEmpty() || stored.get(0).body() == null) {
+            throw new RuntimeException("Request with this Idempotency-Key is still being processed");
+        }
+        recentResponses.put(cacheKey(shopId, key), stored.get(0));
+        return Optional.of(replay(key, requestHash, stored.get(0)));
+    }
+
+    /**
+     * Stores the response of a claimed key. It becomes visible to retries when the order commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Long shopId, String key, Long orderId, OrderResponse response) {
+        StoredResponse stored;
+        try {
+            String body = objectMapper.writeValueAsString(response);
+            String requestHash = jdbcTemplate.queryForObject(
+                    "UPDATE idempotency_keys SET order_id = ?, response_body = ? "
+                            + "WHERE shop_id = ? AND idempotency_key = ? RETURNING request_hash",
+                    String.class, orderId, body, shopId, key);
+            stored = new StoredResponse(requestHash, body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not store response for Idempotency-Key: " + e.getMessage(), e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentResponses.put(cacheKey(shopId, key), stored);
+            }
+        });
+    }
+
+    @Transactional
+    public void purgeExpiredKeys() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private OrderResponse replay(String key, String requestHash, StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different order");
+        }
+        log.info("Replaying stored response for Idempotency-Key {}", key);
+        try {
+            return objectMapper.readValue(stored.body(), OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored response for Idempotency-Key is unreadable: " + e.getMessage(), e);
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (!StandardCharsets.US_ASCII.newEncoder().canEncode(key)) {
+            throw new RuntimeException("Idempotency-Key must be ASCII");
+        }
+    }
+
+    private static String cacheKey(Long shopId, String key) {
+        return shopId + ":" + key;
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
@@ -4,11 +4,12 @@ import com.fastfood.order.application.dto.MenuCategoryRequest;
 import com.fastfood.order.application.dto.MenuCategoryResponse;
 import com.fastfood.order.domain.entity.MenuCategory;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.MenuCategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,12 +20,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class MenuCategoryService {
+public class MenuCategoryService implements CacheReloader {
 
     private final MenuCategoryRepository categoryRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
 
-    @CacheEvict(value = CacheConfig.MENU_CATEGORIES, allEntries = true)
     public MenuCategoryResponse createCategory(MenuCategoryRequest request) {
         log.info("Creating menu category: {}", request.getNameEn());
 
@@ -40,10 +41,10 @@ public class MenuCategoryService {
                 .build();
 
         category = categoryRepository.save(category);
+        evictCategoryLists(shopIdOf(category));
         return mapToResponse(category);
     }
 
-    @CacheEvict(value = CacheConfig.MENU_CATEGORIES, allEntries = true)
     public MenuCategoryResponse updateCategory(Long id, MenuCategoryRequest request) {
         log.info("Updating menu category with ID: {}", id);
 
@@ -65,6 +66,10 @@ public class MenuCategoryService {
         }
 
         category = categoryRepository.save(category);
+        Long shopId = shopIdOf(category);
+        evictCategoryLists(shopId);
+        // Menu item responses carry the category name
+        catalogCache.evictShop(CacheConfig.MENU_ITEMS, shopId);
         return mapToResponse(category);
     }
 
@@ -84,30 +89,74 @@ public class MenuCategoryService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.MENU_CATEGORIES, key = "'all-' + @shopContextService.requireCurrentShopId()")
     public List<MenuCategoryResponse> getAllCategories() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return categoryRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.MENU_CATEGORIES, CacheKeys.shopKey(CacheKeys.ALL, shopId),
+                () -> loadAllCategories(shopId));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.MENU_CATEGORIES, key = "'active-' + @shopContextService.requireCurrentShopId()")
     public List<MenuCategoryResponse> getActiveCategories() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return categoryRepository.findByShopIdAndIsActiveTrueOrderByDisplayOrderAsc(shopId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.MENU_CATEGORIES, CacheKeys.shopKey(CacheKeys.ACTIVE, shopId),
+                () -> loadActiveCategories(shopId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.MENU_CATEGORIES;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.ALL, CacheKeys.ACTIVE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null) {
+            return null;
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.ALL)) {
+            return loadAllCategories(shopId);
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.ACTIVE)) {
+            return loadActiveCategories(shopId);
+        }
+        return null;
     }
 
-    @CacheEvict(value = CacheConfig.MENU_CATEGORIES, allEntries = true)
     public void deleteCategory(Long id) {
         log.info("Deleting menu category with ID: {}", id);
-        if (!categoryRepository.existsById(id)) {
-            throw new RuntimeException("Menu category not found with ID: " + id);
-        }
+        MenuCategory category = categoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Menu category not found with ID: " + id));
+        Long shopId = shopIdOf(category);
         categoryRepository.deleteById(id);
+        evictCategoryLists(shopId);
+        catalogCache.evictShop(CacheConfig.MENU_ITEMS, shopId);
+    }
+
+    private Long shopIdOf(MenuCategory category) {
+        return category.getShop() != null ? category.getShop().getId() : shopContextService.requireCurrentShopId();
+    }
+
+    private void evictCategoryLists(Long shopId) {
+        catalogCache.evict(CacheConfig.MENU_CATEGORIES,
+                CacheKeys.shopKey(CacheKeys.ALL, shopId), CacheKeys.shopKey(CacheKeys.ACTIVE, shopId));
+    }
+
+    private List<MenuCategoryResponse> loadAllCategories(Long shopId) {
+        return categoryRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private List<MenuCategoryResponse> loadActiveCategories(Long shopId) {
+        return categoryRepository.findByShopIdAndIsActiveTrueOrderByDisplayOrderAsc(shopId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
     }
 
     private MenuCategoryResponse mapToResponse(MenuCategory category) {
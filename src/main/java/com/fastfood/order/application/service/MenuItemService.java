@@ -3,23 +3,26 @@ package com.fastfood.order.application.service;
 import com.fastfood.order.application.dto.*;
 import com.fastfood.order.domain.entity.*;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class MenuItemService {
+public class MenuItemService implements CacheReloader {
 
     private final MenuItemRepository menuItemRepository;
     private final MenuCategoryRepository categoryRepository;
@@ -27,8 +30,8 @@ public class MenuItemService {
     private final MenuItemAddOnRepository menuItemAddOnRepository;
     private final AddOnRepository addOnRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
 
-    @CacheEvict(value = CacheConfig.MENU_ITEMS, allEntries = true)
     public MenuItemResponse createMenuItem(MenuItemRequest request) {
         log.info("Creating menu item: {}", request.getNameEn());
         
@@ -38,11 +41,11 @@ public class MenuItemService {
         
         saveMenuItemSizes(savedMenuItem, request.getSizes());
         saveMenuItemAddOns(savedMenuItem, request.getAddOnIds());
+        evictMenuItemEntries(shopIdOf(savedMenuItem), category.getId());
         
         return getMenuItemById(savedMenuItem.getId());
     }
 
-    @CacheEvict(value = CacheConfig.MENU_ITEMS, allEntries = true)
     public MenuItemResponse updateMenuItem(Long id, MenuItemRequest request) {
         log.info("Updating menu item with ID: {}", id);
         log.info("Received request - sizes: {}, addOnIds: {}", 
@@ -50,22 +53,26 @@ public class MenuItemService {
                 request.getAddOnIds() != null ? request.getAddOnIds().size() : "null");
         
         MenuItem menuItem = findMenuItemById(id);
+        Long previousCategoryId = menuItem.getCategory().getId();
         updateMenuItemFields(menuItem, request);
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
         
         updateMenuItemSizes(id, savedMenuItem, request.getSizes());
         updateMenuItemAddOns(id, savedMenuItem, request.getAddOnIds());
+
+        Long shopId = shopIdOf(savedMenuItem);
+        evictMenuItemEntries(shopId, previousCategoryId, savedMenuItem.getCategory().getId());
+        // Combo responses embed their items' names
+        catalogCache.evictShop(CacheConfig.COMBOS, shopId);
         
         return getMenuItemById(id);
     }
 
     @Transactional(readOnly = true)
     public MenuItemResponse getMenuItemById(Long id) {
-        MenuItem menuItem = findMenuItemById(id);
-        List<MenuItemSize> sizes = sizeRepository.findByMenuItemIdOrderByDisplayOrderAsc(id);
-        List<AddOn> availableAddOns = getAvailableAddOnsForMenuItem(id);
-        
-        return buildMenuItemResponse(menuItem, sizes, availableAddOns);
+        MenuItem menuItem = menuItemRepository.findCatalogById(id)
+                .orElseThrow(() -> new RuntimeException("Menu item not found with ID: " + id));
+        return loadMenuItems(List.of(menuItem)).get(0);
     }
 
     @Transactional(readOnly = true)
@@ -81,34 +88,104 @@ public class MenuItemService {
         return getAllMenuItems();
     }
 
-    @Cacheable(value = CacheConfig.MENU_ITEMS, key = "'all-' + @shopContextService.requireCurrentShopId()")
+    @Transactional(readOnly = true)
     public List<MenuItemResponse> getAllMenuItems() {
         Long shopId = shopContextService.requireCurrentShopId();
-        return menuItemRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
-                .map(item -> {
-                    List<MenuItemSize> sizes = sizeRepository.findByMenuItemIdOrderByDisplayOrderAsc(item.getId());
-                    List<AddOn> availableAddOns = getAvailableAddOnsForMenuItem(item.getId());
-                    return buildMenuItemResponse(item, sizes, availableAddOns);
-                })
-                .collect(Collectors.toList());
+        return catalogCache.get(CacheConfig.MENU_ITEMS, CacheKeys.shopKey(CacheKeys.ALL, shopId),
+                () -> loadAllMenuItems(shopId));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.MENU_ITEMS, key = "'cat-' + #categoryId + '-' + @shopContextService.requireCurrentShopId()")
     public List<MenuItemResponse> getMenuItemsByCategory(Long categoryId) {
         Long shopId = shopContextService.requireCurrentShopId();
-        return menuItemRepository.findByShopIdAndCategoryIdOrderByDisplayOrderAsc(shopId, categoryId).stream()
-                .map(item -> getMenuItemById(item.getId()))
+        return catalogCache.get(CacheConfig.MENU_ITEMS, CacheKeys.scopedKey(CacheKeys.CATEGORY, categoryId, shopId),
+                () -> loadMenuItemsByCategory(categoryId, shopId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.MENU_ITEMS;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null) {
+            return null;
+        }
+        if (CacheKeys.hasPrefix(key, CacheKeys.ALL)) {
+            return loadAllMenuItems(shopId);
+        }
+        Long categoryId = CacheKeys.scopeId(key);
+        if (CacheKeys.hasPrefix(key, CacheKeys.CATEGORY) && categoryId != null) {
+            return loadMenuItemsByCategory(categoryId, shopId);
+        }
+        return null;
+    }
+
+    /**
+     * The shop's whole menu in three queries (items with their category, sizes, add-on links with
+     * their add-on) whatever its size, instead of three per item.
+     */
+    private List<MenuItemResponse> loadAllMenuItems(Long shopId) {
+        return assembleCatalog(menuItemRepository.findCatalogByShopId(shopId),
+                sizeRepository.findByMenuItemShopIdOrderByDisplayOrderAsc(shopId),
+                menuItemAddOnRepository.findWithAddOnByShopId(shopId));
+    }
+
+    private List<MenuItemResponse> loadMenuItemsByCategory(Long categoryId, Long shopId) {
+        return loadMenuItems(menuItemRepository.findCatalogByShopIdAndCategoryId(shopId, categoryId));
+    }
+
+    /**
+     * Sizes and add-ons of the given items, fetched for all of them at once. The items must have
+     * their category loaded.
+     */
+    private List<MenuItemResponse> loadMenuItems(List<MenuItem> menuItems) {
+        if (menuItems.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> menuItemIds = menuItems.stream().map(MenuItem::getId).toList();
+        return assembleCatalog(menuItems,
+                sizeRepository.findByMenuItemIdInOrderByDisplayOrderAsc(menuItemIds),
+                menuItemAddOnRepository.findWithAddOnByMenuItemIdIn(menuItemIds));
+    }
+
+    /**
+     * Groups sizes and add-on links by item in memory, keeping the order they were queried in.
+     */
+    private List<MenuItemResponse> assembleCatalog(List<MenuItem> menuItems, List<MenuItemSize> sizes,
+                                                   List<MenuItemAddOn> addOnLinks) {
+        // The owning item's id comes from the foreign key; reading it does not initialize the proxy
+        Map<Long, List<MenuItemSize>> sizesByItem = sizes.stream()
+                .collect(Collectors.groupingBy(size -> size.getMenuItem().getId()));
+        Map<Long, List<AddOn>> addOnsByItem = addOnLinks.stream()
+                .collect(Collectors.groupingBy(link -> link.getMenuItem().getId(),
+                        Collectors.mapping(MenuItemAddOn::getAddOn, Collectors.toList())));
+        return menuItems.stream()
+                .map(item -> buildMenuItemResponse(item,
+                        sizesByItem.getOrDefault(item.getId(), List.of()),
+                        addOnsByItem.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
-    @CacheEvict(value = CacheConfig.MENU_ITEMS, allEntries = true)
     public void deleteMenuItem(Long id) {
         log.info("Deleting menu item with ID: {}", id);
-        validateMenuItemExists(id);
+        MenuItem menuItem = findMenuItemById(id);
+        Long shopId = shopIdOf(menuItem);
+        Long categoryId = menuItem.getCategory().getId();
         sizeRepository.deleteByMenuItemId(id);
         menuItemAddOnRepository.deleteByMenuItemId(id);
         menuItemRepository.deleteById(id);
+
+        evictMenuItemEntries(shopId, categoryId);
+        catalogCache.evictShop(CacheConfig.COMBOS, shopId);
     }
 
     // Private helper methods
@@ -123,10 +200,20 @@ public class MenuItemService {
                 .orElseThrow(() -> new RuntimeException("Menu item not found with ID: " + id));
     }
 
-    private void validateMenuItemExists(Long id) {
-        if (!menuItemRepository.existsById(id)) {
-            throw new RuntimeException("Menu item not found with ID: " + id);
+    private Long shopIdOf(MenuItem menuItem) {
+        return menuItem.getShop() != null ? menuItem.getShop().getId() : shopContextService.requireCurrentShopId();
+    }
+
+    /**
+     * Drops the shop's full menu and the affected category lists; other shops keep their entries.
+     */
+    private void evictMenuItemEntries(Long shopId, Long... categoryIds) {
+        List<String> keys = new ArrayList<>();
+        keys.add(CacheKeys.shopKey(CacheKeys.ALL, shopId));
+        for (Long categoryId : categoryIds) {
+            keys.add(CacheKeys.scopedKey(CacheKeys.CATEGORY, categoryId, shopId));
         }
+        catalogCache.evict(CacheConfig.MENU_ITEMS, keys.toArray(String[]::new));
     }
 
     private MenuItem buildMenuItem(MenuItemRequest request, MenuCategory category) {
@@ -291,13 +378,6 @@ public class MenuItemService {
         }
     }
 
-    private List<AddOn> getAvailableAddOnsForMenuItem(Long menuItemId) {
-        List<MenuItemAddOn> menuItemAddOns = menuItemAddOnRepository.findByMenuItemId(menuItemId);
-        return menuItemAddOns.stream()
-                .map(MenuItemAddOn::getAddOn)
-                .collect(Collectors.toList());
-    }
-
     private MenuItemResponse buildMenuItemResponse(MenuItem menuItem, List<MenuItemSize> sizes, List<AddOn> availableAddOns) {
         return MenuItemResponse.builder()
                 .id(menuItem.getId())
@@ -0,0 +1,428 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fastfood.order.application.dto.OrderResponse;
+import com.fastfood.order.domain.entity.Order;
+import com.fastfood.order.infrastructure.repository.OrderRepository;
+import com.fastfood.order.infrastructure.storage.StorageService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold archive of completed and cancelled orders.
+ *
+ * <p>Orders older than {@code app.order.archive.after-months} are written, one calendar month per
+ * segment, as gzip-compressed NDJSON of their {@link OrderResponse} to private storage and then
+ * deleted from the hot tables. A segment is a run of independently compressed blocks; its sidecar
+ * index holds, per block, the byte range, date range, order number range and a bloom filter of
+ * order numbers and phone numbers. Archive searches read only the blocks the index cannot rule out.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private static final List<String> ARCHIVED_STATUSES = List.of(
+            Order.OrderStatus.COMPLETED.name(), Order.OrderStatus.CANCELLED.name());
+    private static final String ARCHIVE_FOLDER = StorageService.PRIVATE_PREFIX + "order-archive";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final StorageService storageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ShopContextService shopContextService;
+
+    /** Parsed segment indexes; segments are immutable, so entries never go stale */
+    private final Cache<String, SegmentIndex> segmentIndexes = Caffeine.newBuilder().maximumSize(2_000).build();
+
+    @Value("${app.order.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order.archive.after-months:12}")
+    private int afterMonths;
+
+    @Value("${app.order.archive.segment-orders:5000}")
+    private int segmentOrders;
+
+    @Value("${app.order.archive.block-orders:256}")
+    private int blockOrders;
+
+    @Value("${app.order.archive.max-search-results:1000}")
+    private int maxSearchResults;
+
+    /**
+     * Moves archivable orders of every shop and month before the cutoff into segments.
+     */
+    public void archiveOldOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(afterMonths).atStartOfDay();
+        List<Map<String, Object>> months = jdbcTemplate.queryForList("""
+                SELECT DISTINCT shop_id, CAST(date_trunc('month', order_date) AS DATE) AS period_month
+                FROM orders
+                WHERE order_date < ? AND order_status IN (?, ?)
+                ORDER BY shop_id, period_month
+                """, Timestamp.valueOf(cutoff), ARCHIVED_STATUSES.get(0), ARCHIVED_STATUSES.get(1));
+
+        int archived = 0;
+        for (Map<String, Object> row : months) {
+            Long shopId = ((Number) row.get("shop_id")).longValue();
+            LocalDate month = ((Date) row.get("period_month")).toLocalDate();
+            try {
+                Integer moved;
+                do {
+                    moved = transactionTemplate.execute(status -> archiveSegment(shopId, month));
+                    archived += moved != null ? moved : 0;
+                } while (moved != null && moved > 0);
+            } catch (Exception e) {
+                log.error("Archiving orders of shop {} for {} failed: {}", shopId, month.format(MONTH), e.getMessage(), e);
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders older than {}", archived, cutoff.toLocalDate());
+        }
+    }
+
+    /**
+     * Order search over hot and archived orders: hot results first (newest first), then archived
+     * ones. Archived orders match on exact order number and phone, and on name substring.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> searchOrders(String orderNumber, String customerName, String customerPhone,
+                                            LocalDate startDate, LocalDate endDate, Long branchId, Pageable pageable) {
+        Page<OrderResponse> hot = orderService.searchOrders(
+                orderNumber, customerName, customerPhone, startDate, endDate, branchId, pageable);
+        List<OrderResponse> archived = searchArchive(shopContextService.requireCurrentShopId(),
+                new ArchiveQuery(orderNumber, customerName, customerPhone,
+                        startDate != null ? startDate.atStartOfDay() : null,
+                        endDate != null ? endDate.atTime(23, 59, 59) : null,
+                        branchId));
+
+        long offset = pageable.getOffset();
+        List<OrderResponse> content = new ArrayList<>(hot.getContent());
+        int archiveFrom = (int) Math.max(0, offset - hot.getTotalElements());
+        for (int i = archiveFrom; i < archived.size() && content.size() < pageable.getPageSize(); i++) {
+            content.add(archived.get(i));
+        }
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived.size());
+    }
+
+    private Integer archiveSegment(Long shopId, LocalDate month) {
+        LocalDateTime monthStart = month.atStartOfDay();
+        LocalDateTime monthEnd = month.plusMonths(1).atStartOfDay();
+        List<Long> ids = jdbcTemplate.queryForList("""
+                SELECT id FROM orders
+                WHERE shop_id = ? AND order_date >= ? AND order_date < ? AND order_status IN (?, ?)
+                ORDER BY order_date, id
+                LIMIT ?
+                """, Long.class, shopId, Timestamp.valueOf(monthStart), Timestamp.valueOf(monthEnd),
+                ARCHIVED_STATUSES.get(0), ARCHIVED_STATUSES.get(1), segmentOrders);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Order> byId = new HashMap<>();
+        orderRepository.findAllById(ids).forEach(order -> byId.put(order.getId(), order));
+        List<OrderResponse> orders = ids.stream().map(byId::get).filter(Objects::nonNull)
+                .map(orderService::mapToOrderResponse).toList();
+
+        String base = ARCHIVE_FOLDER + "/shop-" + shopId + "/" + month.format(MONTH)
+                + "/orders-" + ids.get(0) + "-" + ids.get(ids.size() - 1);
+        WrittenSegment written = writeSegment(orders, base + ".ndjson.gz");
+        byte[] segment = written.content();
+        SegmentIndex index = written.index();
+        storageService.storeBytes(index.segmentPath(), segment);
+        storageService.storeBytes(base + ".idx.json", toJson(index));
+
+        jdbcTemplate.update("""
+                INSERT INTO order_archive_segments (shop_id, period_month, segment_path, index_path, order_count,
+                    first_order_id, last_order_id, min_order_date, max_order_date, compressed_bytes)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, shopId, Date.valueOf(month), index.segmentPath(), base + ".idx.json", orders.size(),
+                ids.get(0), ids.get(ids.size() - 1), Timestamp.valueOf(index.minOrderDate()),
+                Timestamp.valueOf(index.maxOrderDate()), segment.length);
+
+        // Deleting through the partition key touches only this month's partitions; lines cascade
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> params = new ArrayList<>(List.of(shopId, Timestamp.valueOf(monthStart), Timestamp.valueOf(monthEnd)));
+        params.addAll(ids);
+        jdbcTemplate.update("DELETE FROM orders WHERE shop_id = ? AND order_date >= ? AND order_date < ? AND id IN ("
+                + placeholders + ")", params.toArray());
+
+        log.info("Archived {} orders of shop {} for {} into {} ({} bytes)",
+                orders.size(), shopId, month.format(MONTH), index.segmentPath(), segment.length);
+        return orders.size();
+    }
+
+    private WrittenSegment writeSegment(List<OrderResponse> orders, String segmentPath) {
+        ByteArrayOutputStream segment = new ByteArrayOutputStream();
+        List<BlockIndex> blocks = new ArrayList<>();
+        for (int from = 0; from < orders.size(); from += blockOrders) {
+            List<OrderResponse> block = orders.subList(from, Math.min(from + blockOrders, orders.size()));
+            BloomFilter bloom = new BloomFilter();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                for (OrderResponse order : block) {
+                    gzip.write(objectMapper.writeValueAsBytes(order));
+                    gzip.write('\n');
+                    bloom.add(orderNumberKey(order.getOrderNumber()));
+                    bloom.add(phoneKey(order.getCustomerPhone()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            blocks.add(new BlockIndex(segment.size(), compressed.size(), block.size(),
+                    block.get(0).getOrderDate(), block.get(block.size() - 1).getOrderDate(),
+                    block.stream().map(OrderResponse::getOrderNumber).min(Comparator.naturalOrder()).orElse(null),
+                    block.stream().map(OrderResponse::getOrderNumber).max(Comparator.naturalOrder()).orElse(null),
+                    bloom.toBase64()));
+            segment.writeBytes(compressed.toByteArray());
+        }
+        return new WrittenSegment(segment.toByteArray(), new SegmentIndex(segmentPath, orders.size(),
+                orders.get(0).getOrderDate(), orders.get(orders.size() - 1).getOrderDate(), blocks));
+    }
+
+    List<OrderResponse> searchArchive(Long shopId, ArchiveQuery query) {
+        List<String> indexPaths = jdbcTemplate.queryForList("""
+                SELECT index_path FROM order_archive_segments
+                WHERE shop_id = ?
+                  AND (CAST(? AS TIMESTAMP) IS NULL OR max_order_date >= ?)
+                  AND (CAST(? AS TIMESTAMP) IS NULL OR min_order_date <= ?)
+                ORDER BY max_order_date DESC
+                """, String.class, shopId, query.fromTimestamp(), query.fromTimestamp(),
+                query.toTimestamp(), query.toTimestamp());
+
+        List<OrderResponse> matches = new ArrayList<>();
+        int blocksRead = 0;
+        for (String indexPath : indexPaths) {
+            SegmentIndex index = segmentIndexes.get(indexPath, this::readIndex);
+            List<BlockIndex> candidates = index.blocks().stream().filter(query::mayMatch).toList();
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            Resource segment = storageService.loadAsResource(index.segmentPath())
+                    .orElseThrow(() -> new RuntimeException("Archive segment not found: " + index.segmentPath()));
+            for (BlockIndex block : candidates) {
+                blocksRead++;
+                for (OrderResponse order : readBlock(segment, block)) {
+                    if (query.matches(order)) {
+                        matches.add(order);
+                    }
+                }
+            }
+            if (matches.size() >= maxSearchResults) {
+                break;
+            }
+        }
+        matches.sort(Comparator.comparing(OrderResponse::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        log.debug("Archive search read {} blocks of {} segments, {} matches", blocksRead, indexPaths.size(), matches.size());
+        return matches.size() > maxSearchResults ? matches.subList(0, maxSearchResults) : matches;
+    }
+
+    private List<OrderResponse> readBlock(Resource segment, BlockIndex block) {
+        List<OrderResponse> orders = new ArrayList<>(block.count());
+        try (InputStream in = segment.getInputStream()) {
+            in.skipNBytes(block.offset());
+            byte[] compressed = in.readNBytes(block.length());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(compressed)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        orders.add(objectMapper.readValue(line, OrderResponse.class));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read archive segment " + segment.getFilename() + ": " + e.getMessage(), e);
+        }
+        return orders;
+    }
+
+    private SegmentIndex readIndex(String indexPath) {
+        Resource resource = storageService.loadAsResource(indexPath)
+                .orElseThrow(() -> new RuntimeException("Archive index not found: " + indexPath));
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, SegmentIndex.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read archive index " + indexPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] toJson(SegmentIndex index) {
+        try {
+            return objectMapper.writeValueAsBytes(index);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize archive index", e);
+        }
+    }
+
+    private static String orderNumberKey(String orderNumber) {
+        return "n:" + (orderNumber == null ? "" : orderNumber.toLowerCase(Locale.ROOT));
+    }
+
+    private static String phoneKey(String phone) {
+        return "p:" + (phone == null ? "" : phone.trim());
+    }
+
+    private record WrittenSegment(byte[] content, SegmentIndex index) {
+    }
+
+    /** Sidecar index of one segment file. */
+    record SegmentIndex(String segmentPath, int orderCount, LocalDateTime minOrderDate, LocalDateTime maxOrderDate,
+                        List<BlockIndex> blocks) {
+    }
+
+    /** One independently gzip-compressed block: byte range in the segment plus what it may contain. */
+    record BlockIndex(long offset, int length, int count, LocalDateTime minOrderDate, LocalDateTime maxOrderDate,
+                      String minOrderNumber, String maxOrderNumber, String bloom) {
+    }
+
+    record ArchiveQuery(String orderNumber, String customerName, String customerPhone,
+                        LocalDateTime from, LocalDateTime to, Long branchId) {
+
+        Timestamp fromTimestamp() {
+            return from != null ? Timestamp.valueOf(from) : null;
+        }
+
+        Timestamp toTimestamp() {
+            return to != null ? Timestamp.valueOf(to) : null;
+        }
+
+        boolean mayMatch(BlockIndex block) {
+            if (from != null && block.maxOrderDate().isBefore(from)) {
+                return false;
+            }
+            if (to != null && block.minOrderDate().isAfter(to)) {
+                return false;
+            }
+            BloomFilter bloom = null;
+            if (hasText(orderNumber)) {
+                String number = orderNumber.trim();
+                if (block.minOrderNumber() != null
+                        && (number.compareToIgnoreCase(block.minOrderNumber()) < 0
+                        || number.compareToIgnoreCase(block.maxOrderNumber()) > 0)) {
+                    return false;
+                }
+                bloom = BloomFilter.fromBase64(block.bloom());
+                if (!bloom.mightContain(orderNumberKey(number))) {
+                    return false;
+                }
+            }
+            if (hasText(customerPhone)) {
+                bloom = bloom != null ? bloom : BloomFilter.fromBase64(block.bloom());
+                return bloom.mightContain(phoneKey(customerPhone));
+            }
+            return true;
+        }
+
+        boolean matches(OrderResponse order) {
+            if (hasText(orderNumber) && !orderNumber.trim().equalsIgnoreCase(order.getOrderNumber())) {
+                return false;
+            }
+            if (hasText(customerPhone) && !customerPhone.trim().equals(order.getCustomerPhone())) {
+                return false;
+            }
+            if (hasText(customerName) && (order.getCustomerName() == null
+                    || !order.getCustomerName().toLowerCase(Locale.ROOT).contains(customerName.toLowerCase(Locale.ROOT)))) {
+                return false;
+            }
+            if (branchId != null && !branchId.equals(order.getBranchId())) {
+                return false;
+            }
+            LocalDateTime date = order.getOrderDate();
+            return date == null || ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to)));
+        }
+
+        private static boolean hasText(String value) {
+            return value != null && !value.isBlank();
+        }
+    }
+
+    /** Fixed 4096-bit bloom filter with three probes, about 1% false positives at 512 keys. */
+    static final class BloomFilter {
+
+        private static final int BITS = 4096;
+        private static final int PROBES = 3;
+
+        private final BitSet bits;
+
+        BloomFilter() {
+            this(new BitSet(BITS));
+        }
+
+        private BloomFilter(BitSet bits) {
+            this.bits = bits;
+        }
+
+        static BloomFilter fromBase64(String encoded) {
+            return new BloomFilter(BitSet.valueOf(Base64.getDecoder().decode(encoded)));
+        }
+
+        void add(String key) {
+            int h1 = key.hashCode();
+            int h2 = secondHash(key);
+            for (int i = 0; i < PROBES; i++) {
+                bits.set(Math.floorMod(h1 + i * h2, BITS));
+            }
+        }
+
+        boolean mightContain(String key) {
+            int h1 = key.hashCode();
+            int h2 = secondHash(key);
+            for (int i = 0; i < PROBES; i++) {
+                if (!bits.get(Math.floorMod(h1 + i * h2, BITS))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String toBase64() {
+            return Base64.getEncoder().encodeToString(bits.toByteArray());
+        }
+
+        private static int secondHash(String key) {
+            // FNV-1a, forced odd so the probes stay distinct
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams orders with their items and add-ons straight from a forward-only JDBC cursor. Only the
+ * order being written is held in memory, so exports of any range use constant memory.
+ *
+ * <p>The query filters order lines on their own {@code order_date} as well, so all three
+ * partitioned tables are pruned to the requested months.</p>
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.order_number, o.order_date, o.branch_id, b.name AS branch_name,
+                   o.order_type, o.table_number, o.customer_name, o.customer_phone,
+                   o.payment_method, o.payment_status, o.order_status,
+                   o.subtotal, o.discount_amount, o.voucher_code, o.total_amount,
+                   i.id AS item_id, i.item_name_en, i.size_code, i.quantity AS item_quantity,
+                   i.unit_price, i.total_price,
+                   a.add_on_name_en, a.quantity AS add_on_quantity, a.price AS add_on_price
+            FROM orders o
+            JOIN branches b ON b.id = o.branch_id
+            LEFT JOIN order_items i
+                   ON i.order_id = o.id AND i.order_date = o.order_date
+                  AND i.order_date >= ? AND i.order_date < ?
+            LEFT JOIN order_item_add_ons a
+                   ON a.order_item_id = i.id AND a.order_date = i.order_date
+                  AND a.order_date >= ? AND a.order_date < ?
+            WHERE o.shop_id = ?
+              AND o.order_date >= ? AND o.order_date < ?
+              AND (CAST(? AS BIGINT) IS NULL OR o.branch_id = ?)
+            ORDER BY o.order_date, o.id, i.id, a.id
+            """;
+
+    private static final String CSV_HEADER = String.join(",",
+            "order_number", "order_date", "branch", "order_type", "table_number", "customer_name",
+            "customer_phone", "payment_method", "payment_status", "order_status", "subtotal",
+            "discount_amount", "voucher_code", "total_amount", "item_name", "size_code",
+            "item_quantity", "unit_price", "item_total", "add_ons");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ShopContextService shopContextService;
+
+    @Value("${app.order.export.fetch-size:500}")
+    private int fetchSize;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, ShopContextService shopContextService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.shopContextService = shopContextService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // PostgreSQL only streams with a fetch size inside a transaction; read-only also routes to the replica
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Export of the current shop's orders dated {@code startDate} to {@code endDate} inclusive. The
+     * shop is resolved now, on the request thread; rows are read when the body is written, on the
+     * MVC task executor, bound to the request's workload class by {@code WorkloadAsyncInterceptor}
+     * and still holding its bulkhead permit.
+     */
+    public StreamingResponseBody streamOrders(Long branchId, LocalDate startDate, LocalDate endDate,
+                                              Format format, boolean gzip) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        Long shopId = shopContextService.requireCurrentShopId();
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        return out -> export(shopId, branchId, from, to, format, gzip, out);
+    }
+
+    /**
+     * Writes the orders of {@code [from, to)} to {@code out}. Runs on the response thread of a
+     * streaming body, so the shop is resolved by the caller.
+     */
+    public void export(Long shopId, Long branchId, LocalDateTime from, LocalDateTime to,
+                       Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        OrderSink sink = format == Format.CSV ? new CsvSink(writer) : new NdjsonSink(writer, objectMapper);
+        long started = System.currentTimeMillis();
+        int[] orders = {0};
+
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        try {
+            sink.begin();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                ExportedOrder[] current = {null};
+                jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(EXPORT_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    Object[] params = {start, end, start, end, shopId, start, end, branchId, branchId};
+                    for (int i = 0; i < params.length; i++) {
+                        statement.setObject(i + 1, params[i]);
+                    }
+                    return statement;
+                }, rs -> {
+                    long orderId = rs.getLong("id");
+                    if (current[0] == null || current[0].id() != orderId) {
+                        if (current[0] != null) {
+                            write(sink, current[0]);
+                            orders[0]++;
+                        }
+                        current[0] = readOrder(rs);
+                    }
+                    addLine(current[0], rs);
+                });
+                if (current[0] != null) {
+                    write(sink, current[0]);
+                    orders[0]++;
+                }
+            });
+            sink.end();
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download
+            throw e.getCause();
+        }
+        log.info("Exported {} orders of shop {} ({} to {}) as {} in {} ms",
+                orders[0], shopId, from, to, format, System.currentTimeMillis() - started);
+    }
+
+    private static void write(OrderSink sink, ExportedOrder order) {
+        try {
+            sink.write(order);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExportedOrder readOrder(ResultSet rs) throws SQLException {
+        return new ExportedOrder(
+                rs.getLong("id"),
+                rs.getString("order_number"),
+                rs.getTimestamp("order_date").toLocalDateTime(),
+                rs.getLong("branch_id"),
+                rs.getString("branch_name"),
+                rs.getString("order_type"),
+                rs.getString("table_number"),
+                rs.getString("customer_name"),
+                rs.getString("customer_phone"),
+                rs.getString("payment_method"),
+                rs.getString("payment_status"),
+                rs.getString("order_status"),
+                rs.getBigDecimal("subtotal"),
+                rs.getBigDecimal("discount_amount"),
+                rs.getString("voucher_code"),
+                rs.getBigDecimal("total_amount"),
+                new ArrayList<>());
+    }
+
+    private static void addLine(ExportedOrder order, ResultSet rs) throws SQLException {
+        long itemId = rs.getLong("item_id");
+        if (rs.wasNull()) {
+            return;
+        }
+        List<ExportedItem> items = order.items();
+        ExportedItem item = items.isEmpty() ? null : items.get(items.size() - 1);
+        if (item == null || item.id() != itemId) {
+            item = new ExportedItem(itemId, rs.getString("item_name_en"), rs.getString("size_code"),
+                    rs.getInt("item_quantity"), rs.getBigDecimal("unit_price"), rs.getBigDecimal("total_price"),
+                    new ArrayList<>());
+            items.add(item);
+        }
+        String addOnName = rs.getString("add_on_name_en");
+        if (addOnName != null) {
+            item.addOns().add(new ExportedAddOn(addOnName, rs.getInt("add_on_quantity"), rs.getBigDecimal("add_on_price")));
+        }
+    }
+
+    record ExportedOrder(long id, String orderNumber, LocalDateTime orderDate, long branchId, String branchName,
+                         String orderType, String tableNumber, String customerName, String customerPhone,
+                         String paymentMethod, String paymentStatus, String orderStatus,
+                         BigDecimal subtotal, BigDecimal discountAmount, String voucherCode, BigDecimal totalAmount,
+                         List<ExportedItem> items) {
+    }
+
+    record ExportedItem(long id, String name, String sizeCode, int quantity, BigDecimal unitPrice,
+                        BigDecimal totalPrice, List<ExportedAddOn> addOns) {
+    }
+
+    record ExportedAddOn(String name, int quantity, BigDecimal price) {
+    }
+
+    private interface OrderSink {
+        default void begin() throws IOException {
+        }
+
+        void write(ExportedOrder order) throws IOException;
+
+        default void end() throws IOException {
+        }
+    }
+
+    /** One line per order item (order columns repeated); orders without items get one line. */
+    private record CsvSink(Writer writer) implements OrderSink {
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ExportedOrder order) throws IOException {
+            if (order.items().isEmpty()) {
+                writeLine(order, null);
+            }
+            for (ExportedItem item : order.items()) {
+                writeLine(order, item);
+            }
+        }
+
+        private void writeLine(ExportedOrder order, ExportedItem item) throws IOException {
+            Object[] fields = {
+                    order.orderNumber(), order.orderDate(), order.branchName(), order.orderType(),
+                    order.tableNumber(), order.customerName(), order.customerPhone(), order.paymentMethod(),
+                    order.paymentStatus(), order.orderStatus(), order.subtotal(), order.discountAmount(),
+                    order.voucherCode(), order.totalAmount(),
+                    item != null ? item.name() : null,
+                    item != null ? item.sizeCode() : null,
+                    item != null ? item.quantity() : null,
+                    item != null ? item.unitPrice() : null,
+                    item != null ? item.totalPrice() : null,
+                    item != null ? addOnSummary(item.addOns()) : null
+            };
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(fields[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String addOnSummary(List<ExportedAddOn> addOns) {
+            StringBuilder summary = new StringBuilder();
+            for (ExportedAddOn addOn : addOns) {
+                if (!summary.isEmpty()) {
+                    summary.append("; ");
+                }
+                summary.append(addOn.name()).append(" x").append(addOn.quantity()).append(" @ ").append(addOn.price());
+            }
+            return summary.toString();
+        }
+
+        private static String csvField(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            // Keep spreadsheet apps from evaluating customer-entered text as a formula
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+
+    /** One JSON object per order, items and add-ons nested. */
+    private record NdjsonSink(Writer writer, ObjectMapper objectMapper) implements OrderSink {
+
+        @Override
+        public void write(ExportedOrder order) throws IOException {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.fastfood.order.application.service;
 
 import com.fastfood.order.application.dto.AddOnResponse;
+import com.fastfood.order.application.dto.OrderBatchRequest;
+import com.fastfood.order.application.dto.OrderBatchResponse;
 import com.fastfood.order.application.dto.OrderItemRequest;
 import com.fastfood.order.application.dto.OrderItemResponse;
 import com.fastfood.order.application.dto.OrderRequest;
@@ -9,8 +11,11 @@ import com.fastfood.order.application.mapper.OrderItemMapper;
 import com.fastfood.order.application.mapper.OrderMapper;
 import com.fastfood.order.domain.entity.*;
 import com.fastfood.order.infrastructure.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,14 +23,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -48,17 +54,50 @@ public class OrderService {
     private final ShopContextService shopContextService;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyService idempotencyService;
+    private final SalesRollupService salesRollupService;
+    private final Validator validator;
+
+    @Value("${app.order.batch.chunk-size:50}")
+    private int batchChunkSize;
+
+    @Value("${app.order.batch.max-orders:500}")
+    private int batchMaxOrders;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request, Long userId) {
+        return createOrder(request, userId, null);
+    }
+
+    /**
+     * Creates an order. With an idempotency key, a retry of the same request returns the original
+     * response without pricing, deducting stock or printing again.
+     */
+    @Transactional
+    public OrderResponse createOrder(OrderRequest request, Long userId, String idempotencyKey) {
         log.info("Creating order for branch ID: {}", request.getBranchId());
 
         Shop shop = shopContextService.requireCurrentShop();
+        if (idempotencyKey != null) {
+            Optional<OrderResponse> original = idempotencyService.claim(shop.getId(), idempotencyKey, request);
+            if (original.isPresent()) {
+                return original.get();
+            }
+        }
+        if (request.getClientUuid() != null) {
+            Optional<Order> existing = orderRepository.findByShopIdAndClientUuid(shop.getId(), request.getClientUuid());
+            if (existing.isPresent()) {
+                log.info("Order {} already received as {}", request.getClientUuid(), existing.get().getOrderNumber());
+                return mapToOrderResponse(existing.get());
+            }
+        }
         Branch branch = findBranchById(request.getBranchId());
         String orderNumber = generateOrderNumber();
         Order order = buildOrder(request, branch, orderNumber, shop);
+        order.setClientUuid(request.getClientUuid());
 
-        List<OrderItem> orderItems = buildOrderItems(request.getItems(), order);
+        List<OrderItem> orderItems = buildOrderItems(request.getItems(), order, new RepositoryCatalog());
         BigDecimal subtotal = calculateSubtotal(orderItems);
         order.setSubtotal(subtotal);
 
@@ -68,18 +107,20 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(order);
         saveOrderItems(savedOrder, orderItems);
+        salesRollupService.recordOrders(List.of(savedOrder));
 
         log.info("Order created successfully: {}", savedOrder.getOrderNumber());
 
+        Set<Long> deductedStockItemIds = Set.of();
         try {
-            stockManagementService.deductStockForOrder(savedOrder);
+            deductedStockItemIds = stockManagementService.deductStockForOrder(savedOrder);
         } catch (Exception e) {
             log.error("Error deducting stock for order: {}", savedOrder.getOrderNumber(), e);
         }
 
         List<com.fastfood.order.application.dto.StockWarningResponse> stockWarnings = null;
         try {
-            stockWarnings = stockWarningService.checkStockWarningsOnOrder();
+            stockWarnings = stockWarningService.checkStockWarningsOnOrder(shop.getId(), deductedStockItemIds);
             if (!stockWarnings.isEmpty()) {
                 log.warn("Low stock warnings detected after order placement: {}", stockWarnings.size());
             }
@@ -89,9 +130,12 @@ public class OrderService {
 
         OrderResponse response = mapToOrderResponse(savedOrder);
         response.setStockWarnings(stockWarnings);
+        if (idempotencyKey != null) {
+            idempotencyService.complete(shop.getId(), idempotencyKey, savedOrder.getId(), response);
+        }
 
         try {
-            receiptPrintService.printReceipt(response);
+            receiptPrintService.printReceipt(response, shop.getId());
         } catch (Exception e) {
             log.error("Error printing receipt for order: {}", savedOrder.getOrderNumber(), e);
         }
@@ -99,6 +143,213 @@ public class OrderService {
         return response;
     }
 
+    /**
+     * Syncs orders taken offline on a terminal. Orders are written in chunks, one transaction per
+     * chunk, and each chunk loads the catalog it needs in a few bulk queries instead of per line.
+     * Orders whose clientUuid is already stored come back as DUPLICATE, so a terminal can resend
+     * the whole batch after a dropped connection. Receipts are not printed for synced orders.
+     */
+    public OrderBatchResponse createOrderBatch(OrderBatchRequest request, Long userId) {
+        List<OrderRequest> requests = request.getOrders();
+        if (requests.size() > batchMaxOrders) {
+            throw new RuntimeException("At most " + batchMaxOrders + " orders can be synced per batch");
+        }
+        log.info("Syncing batch of {} orders", requests.size());
+
+        OrderBatchResponse.OrderBatchResult[] results = new OrderBatchResponse.OrderBatchResult[requests.size()];
+        Set<Long> deductedStockItemIds = new HashSet<>();
+        Set<UUID> seen = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            OrderRequest orderRequest = requests.get(i);
+            String error = validateBatchOrder(orderRequest);
+            if (error != null) {
+                results[i] = batchFailure(orderRequest.getClientUuid(), error);
+            } else if (!seen.add(orderRequest.getClientUuid())) {
+                results[i] = OrderBatchResponse.OrderBatchResult.builder()
+                        .clientUuid(orderRequest.getClientUuid())
+                        .status(OrderBatchResponse.Status.DUPLICATE)
+                        .build();
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += batchChunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + batchChunkSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> createOrderChunk(chunk, requests, results, deductedStockItemIds));
+            } catch (Exception e) {
+                // e.g. the same orders arriving concurrently from a second sync; isolate the bad ones
+                log.warn("Order batch chunk failed, retrying its {} orders one by one: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> createOrderChunk(List.of(index), requests, results, deductedStockItemIds));
+                    } catch (Exception single) {
+                        results[index] = batchFailure(requests.get(index).getClientUuid(), single.getMessage());
+                    }
+                }
+            }
+        }
+
+        OrderBatchResponse response = OrderBatchResponse.builder()
+                .received(requests.size())
+                .results(Arrays.asList(results))
+                .build();
+        for (OrderBatchResponse.OrderBatchResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> response.setCreated(response.getCreated() + 1);
+                case DUPLICATE -> response.setDuplicates(response.getDuplicates() + 1);
+                case FAILED -> response.setFailed(response.getFailed() + 1);
+            }
+        }
+
+        if (response.getCreated() > 0) {
+            try {
+                stockWarningService.checkStockWarningsOnOrder(shopContextService.requireCurrentShopId(), deductedStockItemIds);
+            } catch (Exception e) {
+                log.error("Error checking stock warnings after order batch", e);
+            }
+        }
+        log.info("Order batch synced: {} created, {} duplicates, {} failed",
+                response.getCreated(), response.getDuplicates(), response.getFailed());
+        return response;
+    }
+
+    private void createOrderChunk(List<Integer> indexes, List<OrderRequest> requests,
+                                  OrderBatchResponse.OrderBatchResult[] results, Set<Long> deductedStockItemIds) {
+        Shop shop = shopContextService.requireCurrentShop();
+        List<OrderRequest> chunk = indexes.stream().map(requests::get).toList();
+
+        Map<UUID, Order> alreadySynced = orderRepository.findByShopIdAndClientUuidIn(shop.getId(),
+                        chunk.stream().map(OrderRequest::getClientUuid).toList()).stream()
+                .collect(Collectors.toMap(Order::getClientUuid, Function.identity()));
+        Map<Long, Branch> branches = branchRepository.findAllById(
+                        chunk.stream().map(OrderRequest::getBranchId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Branch::getId, Function.identity()));
+        OrderCatalog catalog = preloadCatalog(chunk);
+
+        List<Order> created = new ArrayList<>();
+        for (Integer index : indexes) {
+            OrderRequest orderRequest = requests.get(index);
+            Order existing = alreadySynced.get(orderRequest.getClientUuid());
+            if (existing != null) {
+                results[index] = batchResult(OrderBatchResponse.Status.DUPLICATE, orderRequest.getClientUuid(), existing);
+                continue;
+            }
+            try {
+                Branch branch = branches.get(orderRequest.getBranchId());
+                if (branch == null) {
+                    throw new RuntimeException("Branch not found");
+                }
+                LocalDateTime orderDate = clientOrderDate(orderRequest);
+                Order order = buildOrder(orderRequest, branch, syncedOrderNumber(orderRequest, orderDate), shop);
+                order.setClientUuid(orderRequest.getClientUuid());
+                order.setOrderDate(orderDate);
+
+                List<OrderItem> orderItems = buildOrderItems(orderRequest.getItems(), order, catalog);
+                BigDecimal subtotal = calculateSubtotal(orderItems);
+                order.setSubtotal(subtotal);
+                BigDecimal discountAmount = applyVoucherDiscount(orderRequest.getVoucherCode(), subtotal, order, shop.getId());
+                order.setDiscountAmount(discountAmount);
+                order.setTotalAmount(subtotal.subtract(discountAmount));
+
+                Order savedOrder = orderRepository.save(order);
+                saveOrderItems(savedOrder, orderItems);
+                created.add(savedOrder);
+                results[index] = batchResult(OrderBatchResponse.Status.CREATED, orderRequest.getClientUuid(), savedOrder);
+            } catch (RuntimeException e) {
+                // Pricing errors (unknown item, size, add-on) only reject this order
+                results[index] = batchFailure(orderRequest.getClientUuid(), e.getMessage());
+            }
+        }
+        salesRollupService.recordOrders(created);
+
+        for (Order savedOrder : created) {
+            try {
+                deductedStockItemIds.addAll(stockManagementService.deductStockForOrder(savedOrder));
+            } catch (Exception e) {
+                log.error("Error deducting stock for order: {}", savedOrder.getOrderNumber(), e);
+            }
+        }
+    }
+
+    private String validateBatchOrder(OrderRequest orderRequest) {
+        if (orderRequest.getClientUuid() == null) {
+            return "clientUuid is required";
+        }
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private OrderCatalog preloadCatalog(List<OrderRequest> orders) {
+        Set<Long> menuItemIds = new HashSet<>();
+        Set<Long> comboIds = new HashSet<>();
+        Set<Long> addOnIds = new HashSet<>();
+        for (OrderRequest orderRequest : orders) {
+            for (OrderItemRequest item : orderRequest.getItems()) {
+                if (item.getMenuItemId() != null) {
+                    menuItemIds.add(item.getMenuItemId());
+                }
+                if (item.getComboId() != null) {
+                    comboIds.add(item.getComboId());
+                }
+                if (item.getAddOnIds() != null) {
+                    addOnIds.addAll(item.getAddOnIds());
+                }
+            }
+        }
+        Map<String, MenuItemSize> sizes = menuItemIds.isEmpty() ? Map.of()
+                : menuItemSizeRepository.findByMenuItemIdIn(menuItemIds).stream()
+                        .collect(Collectors.toMap(size -> sizeKey(size.getMenuItem().getId(), size.getSizeCode()),
+                                Function.identity(), (a, b) -> a));
+        return new PreloadedCatalog(
+                menuItemRepository.findAllById(menuItemIds).stream()
+                        .collect(Collectors.toMap(MenuItem::getId, Function.identity())),
+                comboRepository.findAllById(comboIds).stream()
+                        .collect(Collectors.toMap(Combo::getId, Function.identity())),
+                sizes,
+                addOnRepository.findAllById(addOnIds).stream()
+                        .collect(Collectors.toMap(AddOn::getId, Function.identity())));
+    }
+
+    private static LocalDateTime clientOrderDate(OrderRequest orderRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime clientTime = orderRequest.getClientCreatedAt();
+        // Terminal clocks drift; never store an order in the future
+        return clientTime != null && clientTime.isBefore(now) ? clientTime : now;
+    }
+
+    /** Derived from the client id so numbers within one batch cannot collide */
+    private static String syncedOrderNumber(OrderRequest orderRequest, LocalDateTime orderDate) {
+        String suffix = orderRequest.getClientUuid().toString().replace("-", "").substring(0, 8).toUpperCase(Locale.ROOT);
+        return "ORD-" + orderDate.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + "-" + suffix;
+    }
+
+    private static OrderBatchResponse.OrderBatchResult batchResult(OrderBatchResponse.Status status, UUID clientUuid, Order order) {
+        return OrderBatchResponse.OrderBatchResult.builder()
+                .clientUuid(clientUuid)
+                .status(status)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .totalAmount(order.getTotalAmount())
+                .build();
+    }
+
+    private static OrderBatchResponse.OrderBatchResult batchFailure(UUID clientUuid, String error) {
+        return OrderBatchResponse.OrderBatchResult.builder()
+                .clientUuid(clientUuid)
+                .status(OrderBatchResponse.Status.FAILED)
+                .error(error)
+                .build();
+    }
+
     private Branch findBranchById(Long branchId) {
         return branchRepository.findById(branchId)
                 .orElseThrow(() -> new RuntimeException("Branch not found"));
@@ -127,22 +378,20 @@ public class OrderService {
                 .build();
     }
 
-    private List<OrderItem> buildOrderItems(List<OrderItemRequest> itemRequests, Order order) {
+    private List<OrderItem> buildOrderItems(List<OrderItemRequest> itemRequests, Order order, OrderCatalog catalog) {
         return itemRequests.stream()
-                .map(itemRequest -> createOrderItem(itemRequest, order))
+                .map(itemRequest -> createOrderItem(itemRequest, order, catalog))
                 .collect(Collectors.toList());
     }
 
-    private OrderItem createOrderItem(OrderItemRequest itemRequest, Order order) {
-        ItemDetails itemDetails = getItemDetails(itemRequest);
+    private OrderItem createOrderItem(OrderItemRequest itemRequest, Order order, OrderCatalog catalog) {
+        ItemDetails itemDetails = getItemDetails(itemRequest, catalog);
         BigDecimal unitPrice = itemDetails.getUnitPrice();
         String sizeNameEn = null;
         String sizeNameUr = null;
 
         if (itemRequest.getSizeCode() != null && itemDetails.getMenuItem() != null) {
-            MenuItemSize size = menuItemSizeRepository
-                    .findByMenuItemIdAndSizeCode(itemDetails.getMenuItem().getId(), itemRequest.getSizeCode())
-                    .orElseThrow(() -> new RuntimeException("Size not found: " + itemRequest.getSizeCode()));
+            MenuItemSize size = catalog.size(itemDetails.getMenuItem().getId(), itemRequest.getSizeCode());
             unitPrice = unitPrice.add(size.getPriceModifier() != null ? size.getPriceModifier() : BigDecimal.ZERO);
             sizeNameEn = size.getSizeNameEn();
             sizeNameUr = size.getSizeNameUr();
@@ -152,8 +401,7 @@ public class OrderService {
         BigDecimal addOnUnitTotal = BigDecimal.ZERO;
         if (itemRequest.getAddOnIds() != null && !itemRequest.getAddOnIds().isEmpty()) {
             for (Long addOnId : itemRequest.getAddOnIds()) {
-                AddOn addOn = addOnRepository.findById(addOnId)
-                        .orElseThrow(() -> new RuntimeException("Add-on not found: " + addOnId));
+                AddOn addOn = catalog.addOn(addOnId);
                 BigDecimal addOnPrice = addOn.getPrice() != null ? addOn.getPrice() : BigDecimal.ZERO;
                 addOnUnitTotal = addOnUnitTotal.add(addOnPrice);
                 pendingAddOns.add(OrderItemAddOn.builder()
@@ -193,10 +441,9 @@ public class OrderService {
         return orderItem;
     }
 
-    private ItemDetails getItemDetails(OrderItemRequest itemRequest) {
+    private ItemDetails getItemDetails(OrderItemRequest itemRequest, OrderCatalog catalog) {
         if (itemRequest.getMenuItemId() != null) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+            MenuItem menuItem = catalog.menuItem(itemRequest.getMenuItemId());
             return new ItemDetails(
                     menuItem.getNameEn(),
                     menuItem.getNameUr(),
@@ -205,8 +452,7 @@ public class OrderService {
                     null
             );
         } else if (itemRequest.getComboId() != null) {
-            Combo combo = comboRepository.findById(itemRequest.getComboId())
-                    .orElseThrow(() -> new RuntimeException("Combo not found"));
+            Combo combo = catalog.combo(itemRequest.getComboId());
             return new ItemDetails(
                     combo.getNameEn(),
                     combo.getNameUr(),
@@ -270,6 +516,79 @@ public class OrderService {
         }
     }
 
+    /**
+     * Prices a throwaway order built from the shop's first menu items and combo, {@code passes}
+     * times, and maps it to a response. Nothing is saved. Used by the startup warm-up to compile
+     * the pricing path and the mappers and to prepare the catalog queries; null for an empty menu.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse priceSyntheticOrder(Long shopId, int maxItems, int passes) {
+        List<MenuItem> menuItems = menuItemRepository.findByShopIdOrderByDisplayOrderAsc(shopId).stream()
+                .limit(maxItems)
+                .toList();
+        List<Combo> combos = comboRepository.findByShopIdOrderByDisplayOrderAsc(shopId);
+        List<AddOn> addOns = addOnRepository.findByShopIdOrderByDisplayOrderAsc(shopId);
+        if (menuItems.isEmpty() && combos.isEmpty()) {
+            return null;
+        }
+        Map<Long, MenuItemSize> firstSizes = new HashMap<>();
+        if (!menuItems.isEmpty()) {
+            menuItemSizeRepository.findByMenuItemIdIn(menuItems.stream().map(MenuItem::getId).toList())
+                    .forEach(size -> firstSizes.putIfAbsent(size.getMenuItem().getId(), size));
+        }
+
+        List<OrderItemRequest> itemRequests = new ArrayList<>();
+        for (MenuItem menuItem : menuItems) {
+            OrderItemRequest itemRequest = new OrderItemRequest();
+            itemRequest.setMenuItemId(menuItem.getId());
+            itemRequest.setQuantity(1 + itemRequests.size() % 3);
+            MenuItemSize size = firstSizes.get(menuItem.getId());
+            itemRequest.setSizeCode(size != null ? size.getSizeCode() : null);
+            itemRequest.setAddOnIds(addOns.isEmpty() ? null : List.of(addOns.get(itemRequests.size() % addOns.size()).getId()));
+            itemRequests.add(itemRequest);
+        }
+        if (!combos.isEmpty()) {
+            OrderItemRequest comboRequest = new OrderItemRequest();
+            comboRequest.setComboId(combos.get(0).getId());
+            comboRequest.setQuantity(1);
+            itemRequests.add(comboRequest);
+        }
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setItems(itemRequests);
+
+        Order order = Order.builder()
+                .orderNumber("WARMUP")
+                .orderType(Order.OrderType.TAKEAWAY)
+                .paymentMethod(Order.PaymentMethod.CASH_ON_SPOT)
+                .build();
+        // The first pass reads through the repositories like a single order, the rest like a batch chunk
+        List<OrderItem> orderItems = buildOrderItems(itemRequests, order, new RepositoryCatalog());
+        OrderCatalog preloaded = preloadCatalog(List.of(orderRequest));
+        for (int pass = 1; pass < passes; pass++) {
+            orderItems = buildOrderItems(itemRequests, order, preloaded);
+        }
+        BigDecimal subtotal = calculateSubtotal(orderItems);
+        order.setSubtotal(subtotal);
+        order.setTotalAmount(subtotal);
+
+        OrderResponse response = orderMapper.toResponse(order);
+        response.setItems(orderItems.stream()
+                .map(item -> {
+                    OrderItemResponse itemResponse = orderItemMapper.toResponse(item);
+                    itemResponse.setAddOns(item.getAddOns().stream()
+                            .map(ao -> AddOnResponse.builder()
+                                    .id(ao.getAddOn().getId())
+                                    .nameEn(ao.getAddOnNameEn())
+                                    .nameUr(ao.getAddOnNameUr())
+                                    .price(ao.getPrice())
+                                    .build())
+                            .collect(Collectors.toList()));
+                    return itemResponse;
+                })
+                .collect(Collectors.toList()));
+        return response;
+    }
+
     private void saveOrderItems(Order savedOrder, List<OrderItem> orderItems) {
         orderItems.forEach(orderItem -> {
             orderItem.setOrder(savedOrder);
@@ -310,11 +629,13 @@ public class OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        salesRollupService.recordStatusChange(updatedOrder, oldStatus, newStatus);
         log.info("Order {} status updated from {} to {}", orderId, oldStatus, newStatus);
 
         return mapToOrderResponse(updatedOrder);
     }
 
+    @Transactional(readOnly = true)
     public Page<OrderResponse> searchOrders(String orderNumber, String customerName, String customerPhone,
                                            LocalDate startDate, LocalDate endDate, Long branchId, Pageable pageable) {
         log.info("Searching orders with filters: orderNumber={}, customerName={}, customerPhone={}, startDate={}, endDate={}, branchId={}",
@@ -386,7 +707,7 @@ public class OrderService {
         return orders.map(this::mapToOrderResponse);
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
+    OrderResponse mapToOrderResponse(Order order) {
         OrderResponse response = orderMapper.toResponse(order);
 
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
@@ -410,6 +731,76 @@ public class OrderService {
         return response;
     }
 
+    private static String sizeKey(Long menuItemId, String sizeCode) {
+        return menuItemId + "|" + sizeCode;
+    }
+
+    /**
+     * Catalog lookups used while pricing order lines. Single orders read through the repositories;
+     * batches use maps loaded once per chunk.
+     */
+    private interface OrderCatalog {
+        MenuItem menuItem(Long id);
+        Combo combo(Long id);
+        MenuItemSize size(Long menuItemId, String sizeCode);
+        AddOn addOn(Long id);
+    }
+
+    private class RepositoryCatalog implements OrderCatalog {
+        @Override
+        public MenuItem menuItem(Long id) {
+            return menuItemRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+        }
+
+        @Override
+        public Combo combo(Long id) {
+            return comboRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Combo not found"));
+        }
+
+        @Override
+        public MenuItemSize size(Long menuItemId, String sizeCode) {
+            return menuItemSizeRepository.findByMenuItemIdAndSizeCode(menuItemId, sizeCode)
+                    .orElseThrow(() -> new RuntimeException("Size not found: " + sizeCode));
+        }
+
+        @Override
+        public AddOn addOn(Long id) {
+            return addOnRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Add-on not found: " + id));
+        }
+    }
+
+    private record PreloadedCatalog(Map<Long, MenuItem> menuItems,
+                                    Map<Long, Combo> combos,
+                                    Map<String, MenuItemSize> sizes,
+                                    Map<Long, AddOn> addOns) implements OrderCatalog {
+        @Override
+        public MenuItem menuItem(Long id) {
+            return Optional.ofNullable(menuItems.get(id))
+                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+        }
+
+        @Override
+        public Combo combo(Long id) {
+            return Optional.ofNullable(combos.get(id))
+                    .orElseThrow(() -> new RuntimeException("Combo not found"));
+        }
+
+        @Override
+        public MenuItemSize size(Long menuItemId, String sizeCode) {
+            return Optional.ofNullable(sizes.get(sizeKey(menuItemId, sizeCode)))
+                    .orElseThrow(() -> new RuntimeException("Size not found: " + sizeCode));
+        }
+
+        @Override
+        public AddOn addOn(Long id) {
+            return Optional.ofNullable(addOns.get(id))
+                    .orElseThrow(() -> new RuntimeException("Add-on not found: " + id));
+        }
+    }
+
     private static class ItemDetails {
         private final String itemNameEn;
         private final String itemNameUr;
@@ -0,0 +1,54 @@
+package com.fastfood.order.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of the order and stock history tables created ahead of time, so new rows
+ * never fall into the DEFAULT partition. Partitions are created by the
+ * {@code create_monthly_partitions} function from migration V9.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    static final List<String> PARTITIONED_TABLES = List.of(
+            "orders", "order_items", "order_item_add_ons", "stock_transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureFuturePartitions();
+    }
+
+    public void ensureFuturePartitions() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        Date from = Date.valueOf(thisMonth);
+        Date to = Date.valueOf(thisMonth.plusMonths(monthsAhead));
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT create_monthly_partitions(?, ?, ?)", Integer.class, table, from, to);
+                if (created != null && created > 0) {
+                    log.info("Created {} monthly partitions of {}", created, table);
+                }
+            } catch (Exception e) {
+                log.error("Could not create partitions of {}: {}", table, e.getMessage());
+            }
+        }
+    }
+}
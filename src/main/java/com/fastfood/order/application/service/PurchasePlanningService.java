@@ -0,0 +1,389 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.dto.PurchasePlanRequest;
+import com.fastfood.order.application.dto.PurchasePlanResponse;
+import com.fastfood.order.domain.entity.StockItem;
+import com.fastfood.order.domain.entity.StockItemConsumption;
+import com.fastfood.order.infrastructure.repository.StockItemConsumptionRepository;
+import com.fastfood.order.infrastructure.repository.StockItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Ingredient requirements and purchase lists from sales plans.
+ *
+ * <p>A shop's {@code stock_item_consumptions} are compiled into a sparse recipe matrix in CSR form:
+ * one row per sellable (menu item and size, or combo), one column per active stock item. Size rows
+ * already merge the any-size rates, and combo rows already expand their {@code ComboItem}s, exactly as
+ * order deductions resolve them. Planning is then one sparse matrix-vector product per branch, run in
+ * parallel, with sales either supplied by the caller or projected from the hourly sales rollup.</p>
+ */
+@Slf4j
+@Service
+public class PurchasePlanningService {
+
+    private static final String HISTORICAL_SALES_SQL = """
+            SELECT branch_id, item_type, item_id, size_code, SUM(quantity) AS quantity
+            FROM sales_item_hourly
+            WHERE shop_id = ? AND bucket_hour >= ?
+            GROUP BY branch_id, item_type, item_id, size_code
+            HAVING SUM(quantity) > 0
+            """;
+
+    private final StockItemConsumptionRepository stockItemConsumptionRepository;
+    private final StockItemRepository stockItemRepository;
+    private final StockManagementService stockManagementService;
+    private final ShopContextService shopContextService;
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Compiled matrices per shop; recipe edits show up after the TTL */
+    private final Cache<Long, RecipeMatrix> matrices;
+
+    public PurchasePlanningService(StockItemConsumptionRepository stockItemConsumptionRepository,
+                                   StockItemRepository stockItemRepository,
+                                   StockManagementService stockManagementService,
+                                   ShopContextService shopContextService,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${app.stock.planning.matrix-ttl-seconds:60}") long matrixTtlSeconds) {
+        this.stockItemConsumptionRepository = stockItemConsumptionRepository;
+        this.stockItemRepository = stockItemRepository;
+        this.stockManagementService = stockManagementService;
+        this.shopContextService = shopContextService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.matrices = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(matrixTtlSeconds))
+                .maximumSize(100)
+                .build();
+    }
+
+    /**
+     * Plans from the last {@code lookbackDays} of sales, scaled to {@code horizonDays}.
+     */
+    @Transactional(readOnly = true)
+    public PurchasePlanResponse planFromHistory(int horizonDays, int lookbackDays, Long branchId) {
+        if (horizonDays < 1 || horizonDays > 90) {
+            throw new RuntimeException("horizonDays must be between 1 and 90");
+        }
+        if (lookbackDays < 1 || lookbackDays > 365) {
+            throw new RuntimeException("lookbackDays must be between 1 and 365");
+        }
+        Long shopId = shopContextService.requireCurrentShopId();
+        RecipeMatrix matrix = matrix(shopId);
+        double scale = (double) horizonDays / lookbackDays;
+
+        Map<Long, SalesVector.Builder> vectors = new LinkedHashMap<>();
+        int[] unmatched = {0};
+        jdbcTemplate.query(HISTORICAL_SALES_SQL, rs -> {
+            long saleBranchId = rs.getLong("branch_id");
+            if (branchId != null && branchId != saleBranchId) {
+                return;
+            }
+            long itemId = rs.getLong("item_id");
+            int row = "COMBO".equals(rs.getString("item_type"))
+                    ? matrix.comboRow(itemId)
+                    : matrix.itemRow(itemId, rs.getString("size_code"));
+            if (row < 0) {
+                unmatched[0]++;
+                return;
+            }
+            vectors.computeIfAbsent(saleBranchId, SalesVector.Builder::new).add(row, rs.getDouble("quantity") * scale);
+        }, shopId, Timestamp.valueOf(LocalDateTime.now().minusDays(lookbackDays)));
+
+        return plan(shopId, matrix, vectors.values().stream().map(SalesVector.Builder::build).toList(),
+                horizonDays, lookbackDays, unmatched[0]);
+    }
+
+    /**
+     * Plans from forecast sales supplied by the caller.
+     */
+    @Transactional(readOnly = true)
+    public PurchasePlanResponse planFromSales(PurchasePlanRequest request) {
+        Long shopId = shopContextService.requireCurrentShopId();
+        RecipeMatrix matrix = matrix(shopId);
+
+        int unmatched = 0;
+        List<SalesVector> vectors = new ArrayList<>();
+        for (PurchasePlanRequest.BranchSales branch : request.getBranches()) {
+            SalesVector.Builder vector = new SalesVector.Builder(branch.getBranchId());
+            for (PurchasePlanRequest.SalesLine line : branch.getSales()) {
+                int row = line.getComboId() != null
+                        ? matrix.comboRow(line.getComboId())
+                        : line.getMenuItemId() != null ? matrix.itemRow(line.getMenuItemId(), line.getSizeCode()) : -1;
+                if (row < 0) {
+                    unmatched++;
+                    continue;
+                }
+                vector.add(row, line.getQuantity().doubleValue());
+            }
+            vectors.add(vector.build());
+        }
+        return plan(shopId, matrix, vectors, request.getHorizonDays(), null, unmatched);
+    }
+
+    private PurchasePlanResponse plan(Long shopId, RecipeMatrix matrix, List<SalesVector> vectors,
+                                      int horizonDays, Integer lookbackDays, int unmatched) {
+        long started = System.nanoTime();
+        List<double[]> requirements = vectors.parallelStream().map(matrix::multiply).toList();
+
+        double[] total = new double[matrix.columns()];
+        for (double[] requirement : requirements) {
+            for (int c = 0; c < total.length; c++) {
+                total[c] += requirement[c];
+            }
+        }
+
+        Map<Long, String> branchNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM branches WHERE shop_id = ?",
+                rs -> { branchNames.put(rs.getLong("id"), rs.getString("name")); }, shopId);
+
+        List<PurchasePlanResponse.BranchRequirement> branches = new ArrayList<>(vectors.size());
+        for (int b = 0; b < vectors.size(); b++) {
+            double[] requirement = requirements.get(b);
+            List<PurchasePlanResponse.RequirementLine> lines = new ArrayList<>();
+            for (int c = 0; c < requirement.length; c++) {
+                if (requirement[c] > 0) {
+                    lines.add(PurchasePlanResponse.RequirementLine.builder()
+                            .stockItemId(matrix.stockItemIds()[c])
+                            .stockItemNameEn(matrix.stockItemNames()[c])
+                            .unit(matrix.stockItemUnits()[c])
+                            .requiredQuantity(quantity(requirement[c]))
+                            .build());
+                }
+            }
+            Long branchId = vectors.get(b).branchId();
+            branches.add(PurchasePlanResponse.BranchRequirement.builder()
+                    .branchId(branchId)
+                    .branchName(branchNames.get(branchId))
+                    .requirements(lines)
+                    .build());
+        }
+
+        List<PurchasePlanResponse.PurchaseLine> purchaseList = new ArrayList<>();
+        for (StockItem stockItem : stockItemRepository.findByShopIdOrderByNameEnAsc(shopId)) {
+            int column = matrix.column(stockItem.getId());
+            if (column < 0 || !Boolean.TRUE.equals(stockItem.getIsActive())) {
+                continue;
+            }
+            BigDecimal required = quantity(total[column]);
+            BigDecimal onHand = stockManagementService.effectiveQuantity(stockItem);
+            BigDecimal minThreshold = stockItem.getMinThreshold() != null ? stockItem.getMinThreshold() : BigDecimal.ZERO;
+            BigDecimal purchase = required.add(minThreshold).subtract(onHand).max(BigDecimal.ZERO);
+            BigDecimal pack = stockItem.getScanPackQty();
+            if (purchase.signum() > 0 && pack != null && pack.compareTo(BigDecimal.ONE) > 0) {
+                purchase = purchase.divide(pack, 0, RoundingMode.CEILING).multiply(pack);
+            }
+            if (required.signum() > 0 || purchase.signum() > 0) {
+                purchaseList.add(PurchasePlanResponse.PurchaseLine.builder()
+                        .stockItemId(stockItem.getId())
+                        .stockItemNameEn(stockItem.getNameEn())
+                        .stockItemNameUr(stockItem.getNameUr())
+                        .unit(stockItem.getUnit())
+                        .requiredQuantity(required)
+                        .currentQuantity(onHand)
+                        .minThreshold(minThreshold)
+                        .purchaseQuantity(purchase)
+                        .build());
+            }
+        }
+        purchaseList.sort(Comparator.comparing(PurchasePlanResponse.PurchaseLine::getPurchaseQuantity).reversed()
+                .thenComparing(PurchasePlanResponse.PurchaseLine::getStockItemNameEn, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        log.info("Purchase plan for shop {}: {} branches, {} stock items, {} sales lines without recipe in {} ms",
+                shopId, vectors.size(), matrix.columns(), unmatched, (System.nanoTime() - started) / 1_000_000);
+        return PurchasePlanResponse.builder()
+                .horizonDays(horizonDays)
+                .lookbackDays(lookbackDays)
+                .generatedAt(LocalDateTime.now())
+                .branches(branches)
+                .purchaseList(purchaseList)
+                .salesLinesWithoutRecipe(unmatched)
+                .build();
+    }
+
+    /**
+     * Compiles the shop's recipe matrix ahead of the first plan (startup warm-up).
+     */
+    @Transactional(readOnly = true)
+    public int preloadRecipes(Long shopId) {
+        return matrix(shopId).stockItemIds().length;
+    }
+
+    private RecipeMatrix matrix(Long shopId) {
+        return matrices.get(shopId, this::compile);
+    }
+
+    private RecipeMatrix compile(Long shopId) {
+        List<StockItemConsumption> rates = stockItemConsumptionRepository.findActiveByShopId(shopId);
+
+        Map<Long, Integer> columns = new LinkedHashMap<>();
+        List<StockItem> stockItems = new ArrayList<>();
+        // menuItemId -> sizeCode ("" = any size) -> column -> quantity per serving
+        Map<Long, Map<String, Map<Integer, Double>>> recipes = new HashMap<>();
+        for (StockItemConsumption rate : rates) {
+            StockItem stockItem = rate.getStockItem();
+            Integer column = columns.get(stockItem.getId());
+            if (column == null) {
+                column = stockItems.size();
+                columns.put(stockItem.getId(), column);
+                stockItems.add(stockItem);
+            }
+            recipes.computeIfAbsent(rate.getMenuItem().getId(), k -> new HashMap<>())
+                    .computeIfAbsent(normalizeSize(rate.getSizeCode()), k -> new HashMap<>())
+                    .put(column, rate.getQuantityPerServing().doubleValue());
+        }
+
+        Map<String, Integer> rowIndex = new HashMap<>();
+        List<Map<Integer, Double>> rows = new ArrayList<>();
+        recipes.forEach((menuItemId, bySize) -> {
+            Map<Integer, Double> anySize = bySize.getOrDefault("", Map.of());
+            bySize.forEach((size, exact) -> {
+                // Exact size rates override the any-size rate of the same stock item
+                Map<Integer, Double> merged = new HashMap<>(anySize);
+                merged.putAll(exact);
+                rowIndex.put(itemKey(menuItemId, size), rows.size());
+                rows.add(merged);
+            });
+        });
+
+        // Combo components deduct with their any-size rates
+        Map<Long, Map<Integer, Double>> comboRows = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT ci.combo_id, ci.menu_item_id, ci.quantity
+                FROM combo_items ci
+                JOIN combos c ON c.id = ci.combo_id
+                WHERE c.shop_id = ?
+                """, rs -> {
+            Map<Integer, Double> component = recipes.getOrDefault(rs.getLong("menu_item_id"), Map.of()).get("");
+            Map<Integer, Double> comboRow = comboRows.computeIfAbsent(rs.getLong("combo_id"), k -> new HashMap<>());
+            if (component != null) {
+                int componentQty = Math.max(rs.getInt("quantity"), 1);
+                component.forEach((column, perServing) -> comboRow.merge(column, perServing * componentQty, Double::sum));
+            }
+        }, shopId);
+        comboRows.forEach((comboId, row) -> {
+            if (!row.isEmpty()) {
+                rowIndex.put(comboKey(comboId), rows.size());
+                rows.add(row);
+            }
+        });
+
+        int[] rowPointers = new int[rows.size() + 1];
+        int nonZeros = rows.stream().mapToInt(Map::size).sum();
+        int[] columnIndexes = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        int k = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            rowPointers[r] = k;
+            for (Map.Entry<Integer, Double> entry : new TreeMap<>(rows.get(r)).entrySet()) {
+                columnIndexes[k] = entry.getKey();
+                values[k] = entry.getValue();
+                k++;
+            }
+        }
+        rowPointers[rows.size()] = k;
+
+        long[] stockItemIds = stockItems.stream().mapToLong(StockItem::getId).toArray();
+        String[] names = stockItems.stream().map(StockItem::getNameEn).toArray(String[]::new);
+        String[] units = stockItems.stream().map(StockItem::getUnit).toArray(String[]::new);
+        log.debug("Compiled recipe matrix for shop {}: {} rows x {} stock items, {} non-zeros",
+                shopId, rows.size(), stockItems.size(), nonZeros);
+        return new RecipeMatrix(rowIndex, columns, rowPointers, columnIndexes, values, stockItemIds, names, units);
+    }
+
+    private static String normalizeSize(String sizeCode) {
+        return sizeCode == null || sizeCode.isBlank() ? "" : sizeCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String itemKey(Long menuItemId, String normalizedSize) {
+        return "I|" + menuItemId + "|" + normalizedSize;
+    }
+
+    private static String comboKey(Long comboId) {
+        return "C|" + comboId;
+    }
+
+    private static BigDecimal quantity(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /** Immutable CSR recipe matrix: sellable rows x stock item columns, quantity per serving. */
+    record RecipeMatrix(Map<String, Integer> rowIndex, Map<Long, Integer> columnIndex,
+                        int[] rowPointers, int[] columnIndexes, double[] values,
+                        long[] stockItemIds, String[] stockItemNames, String[] stockItemUnits) {
+
+        int columns() {
+            return stockItemIds.length;
+        }
+
+        int column(Long stockItemId) {
+            return columnIndex.getOrDefault(stockItemId, -1);
+        }
+
+        /** Exact size row, else the any-size row, else -1 */
+        int itemRow(long menuItemId, String sizeCode) {
+            Integer row = rowIndex.get(itemKey(menuItemId, normalizeSize(sizeCode)));
+            if (row == null) {
+                row = rowIndex.get(itemKey(menuItemId, ""));
+            }
+            return row != null ? row : -1;
+        }
+
+        int comboRow(long comboId) {
+            return rowIndex.getOrDefault(comboKey(comboId), -1);
+        }
+
+        double[] multiply(SalesVector sales) {
+            double[] result = new double[columns()];
+            int[] rows = sales.rows();
+            double[] quantities = sales.quantities();
+            for (int i = 0; i < rows.length; i++) {
+                double quantity = quantities[i];
+                for (int k = rowPointers[rows[i]]; k < rowPointers[rows[i] + 1]; k++) {
+                    result[columnIndexes[k]] += values[k] * quantity;
+                }
+            }
+            return result;
+        }
+    }
+
+    /** Sparse sales of one branch: matrix rows and quantities. */
+    record SalesVector(Long branchId, int[] rows, double[] quantities) {
+
+        static final class Builder {
+            private final Long branchId;
+            private int[] rows = new int[16];
+            private double[] quantities = new double[16];
+            private int size;
+
+            Builder(Long branchId) {
+                this.branchId = branchId;
+            }
+
+            void add(int row, double quantity) {
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, size * 2);
+                    quantities = Arrays.copyOf(quantities, size * 2);
+                }
+                rows[size] = row;
+                quantities[size] = quantity;
+                size++;
+            }
+
+            SalesVector build() {
+                return new SalesVector(branchId, Arrays.copyOf(rows, size), Arrays.copyOf(quantities, size));
+            }
+        }
+    }
+}
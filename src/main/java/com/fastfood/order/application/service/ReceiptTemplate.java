@@ -0,0 +1,265 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.dto.OrderItemResponse;
+import com.fastfood.order.application.dto.OrderResponse;
+import com.fastfood.order.application.dto.ReceiptBranding;
+import com.fastfood.order.infrastructure.printing.EscPosWriter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Receipt layout for one shop's branding, compiled once: the stylesheet, the HTML header and the
+ * ESC/POS header bytes are rendered up front, so rendering an order only appends the order's own
+ * fields into a buffer sized for it. Immutable and shared between threads.
+ */
+public final class ReceiptTemplate {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String HTML_PROLOGUE = "<!DOCTYPE html>\n"
+            + "<html>\n<head>\n"
+            + "<meta charset='UTF-8'>\n"
+            + "<style>\n"
+            + "@page { size: 80mm auto; margin: 5mm; }\n"
+            + "body { font-family: Arial, sans-serif; margin: 0; padding: 10px; width: 70mm; font-size: 12px; }\n"
+            + ".header { text-align: center; margin-bottom: 15px; }\n"
+            + ".logo-img { max-width: 60mm; max-height: 30mm; margin-bottom: 8px; display: block; margin-left: auto; margin-right: auto; }\n"
+            + ".logo { font-size: 18px; font-weight: bold; margin-bottom: 3px; }\n"
+            + ".location { font-size: 11px; color: #666; }\n"
+            + ".section { margin: 10px 0; font-size: 11px; }\n"
+            + ".items { width: 100%; border-collapse: collapse; margin: 10px 0; font-size: 11px; }\n"
+            + ".items th, .items td { padding: 4px 2px; text-align: left; border-bottom: 1px solid #ddd; }\n"
+            + ".items th { background-color: #f5f5f5; font-size: 10px; }\n"
+            + ".items td { font-size: 10px; }\n"
+            + ".total { font-weight: bold; font-size: 12px; margin-top: 8px; }\n"
+            + ".footer { text-align: center; margin-top: 15px; color: #666; font-size: 10px; }\n"
+            + "@media print { body { margin: 0; padding: 5mm; } .no-print { display: none; } }\n"
+            + "@media screen { body { margin: 10px auto; } }\n"
+            + "</style>\n"
+            + "</head>\n<body>\n";
+
+    private static final String HTML_EPILOGUE = "</div>\n"
+            + "<div class='footer'>\n"
+            + "Thank you for your order!\n"
+            + "</div>\n"
+            + "</body>\n</html>\n";
+
+    /** Rough size of the order details and totals, and of one item row, for sizing the buffer */
+    private static final int HTML_ORDER_CHARS = 768;
+    private static final int HTML_ITEM_CHARS = 96;
+
+    private final ReceiptBranding branding;
+    private final String htmlHeader;
+    private final byte[] escPosHeader;
+
+    private ReceiptTemplate(ReceiptBranding branding, String htmlHeader, byte[] escPosHeader) {
+        this.branding = branding;
+        this.htmlHeader = htmlHeader;
+        this.escPosHeader = escPosHeader;
+    }
+
+    public static ReceiptTemplate compile(ReceiptBranding branding) {
+        StringBuilder html = new StringBuilder(HTML_PROLOGUE.length() + 512).append(HTML_PROLOGUE);
+        html.append("<div class='header'>\n");
+        if (branding.getLogoUrl() != null && !branding.getLogoUrl().isEmpty()) {
+            escapeHtml(html.append("<img src='"), branding.getLogoUrl()).append("' alt='Logo' class='logo-img' />\n");
+        }
+        escapeHtml(html.append("<div class='logo'>"), branding.getBrandName()).append("</div>\n");
+        escapeHtml(html.append("<div class='location'>"), branding.getLocation()).append("</div>\n");
+        html.append("</div>\n");
+
+        byte[] escPosHeader = new EscPosWriter(0)
+                .initialize()
+                .align(EscPosWriter.Align.CENTER)
+                .bold(true).doubleSize(true).line(branding.getBrandName()).doubleSize(false).bold(false)
+                .line(branding.getLocation())
+                .toByteArray();
+        return new ReceiptTemplate(branding, html.toString(), escPosHeader);
+    }
+
+    public ReceiptBranding branding() {
+        return branding;
+    }
+
+    public String renderHtml(OrderResponse order) {
+        int itemCount = order.getItems() != null ? order.getItems().size() : 0;
+        StringBuilder html = new StringBuilder(htmlHeader.length() + HTML_EPILOGUE.length()
+                + HTML_ORDER_CHARS + itemCount * HTML_ITEM_CHARS);
+        html.append(htmlHeader);
+
+        html.append("<div class='section'>\n");
+        field(html, "Order Number", order.getOrderNumber());
+        dateTime(html.append("<strong>Date:</strong> "), order.getOrderDate()).append("<br>\n");
+        html.append("<strong>Type:</strong> ").append(order.getOrderType()).append("<br>\n");
+        optionalField(html, "Customer", order.getCustomerName());
+        optionalField(html, "Phone", order.getCustomerPhone());
+        optionalField(html, "Table", order.getTableNumber());
+        optionalField(html, "Address", order.getDeliveryAddress());
+        html.append("</div>\n");
+
+        html.append("<table class='items'>\n");
+        html.append("<tr><th>Item</th><th>Qty</th><th>Price</th></tr>\n");
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                escapeHtml(html.append("<tr><td>"), item.getItemNameEn()).append("</td>");
+                html.append("<td>").append(item.getQuantity()).append("</td>");
+                money(html.append("<td>"), item.getTotalPrice()).append("</td></tr>\n");
+            }
+        }
+        html.append("</table>\n");
+
+        html.append("<div class='section'>\n");
+        money(html.append("<strong>Subtotal:</strong> "), order.getSubtotal()).append("<br>\n");
+        if (order.getDiscountAmount() != null && order.getDiscountAmount().signum() > 0) {
+            money(html.append("<strong>Discount:</strong> "), order.getDiscountAmount()).append("<br>\n");
+            if (order.getVoucherCode() != null) {
+                field(html, "Voucher", order.getVoucherCode());
+            }
+        }
+        money(html.append("<div class='total'>Total: "), order.getTotalAmount()).append("</div>\n");
+        html.append("<strong>Payment:</strong> ").append(order.getPaymentMethod()).append("<br>\n");
+        html.append("<strong>Status:</strong> ").append(order.getOrderStatus()).append("<br>\n");
+        return html.append(HTML_EPILOGUE).toString();
+    }
+
+    public void renderReceipt(EscPosWriter writer, OrderResponse order) {
+        writer.bytes(escPosHeader)
+                .align(EscPosWriter.Align.LEFT)
+                .rule('=');
+
+        writer.columns("Order:", order.getOrderNumber())
+                .columns("Date:", formatDateTime(order.getOrderDate()))
+                .columns("Type:", String.valueOf(order.getOrderType()));
+        if (order.getCustomerName() != null && !order.getCustomerName().isEmpty()) {
+            writer.columns("Customer:", order.getCustomerName());
+        }
+        if (order.getCustomerPhone() != null && !order.getCustomerPhone().isEmpty()) {
+            writer.columns("Phone:", order.getCustomerPhone());
+        }
+        if (order.getTableNumber() != null && !order.getTableNumber().isEmpty()) {
+            writer.columns("Table:", order.getTableNumber());
+        }
+        if (order.getDeliveryAddress() != null && !order.getDeliveryAddress().isEmpty()) {
+            writer.text("Address: ").line(order.getDeliveryAddress());
+        }
+        writer.rule('-');
+
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                writer.columns(item.getQuantity() + "x " + itemLabel(item), money(item.getTotalPrice()));
+                if (item.getAddOns() != null) {
+                    for (var addOn : item.getAddOns()) {
+                        writer.text("   + ").line(addOn.getNameEn());
+                    }
+                }
+            }
+        }
+        writer.rule('-');
+
+        writer.columns("Subtotal", money(order.getSubtotal()));
+        if (order.getDiscountAmount() != null && order.getDiscountAmount().signum() > 0) {
+            writer.columns(order.getVoucherCode() != null ? "Discount (" + order.getVoucherCode() + ")" : "Discount",
+                    "-" + money(order.getDiscountAmount()));
+        }
+        writer.bold(true).columns("TOTAL", money(order.getTotalAmount())).bold(false)
+                .rule('-')
+                .columns("Payment:", String.valueOf(order.getPaymentMethod()))
+                .columns("Status:", String.valueOf(order.getOrderStatus()))
+                .newLine()
+                .align(EscPosWriter.Align.CENTER)
+                .line("Thank you for your order!")
+                .feed(3)
+                .cut();
+    }
+
+    /** Kitchen tickets carry no branding, so they are the same for every shop */
+    public static void renderKitchenTicket(EscPosWriter writer, OrderResponse order) {
+        writer.initialize()
+                .align(EscPosWriter.Align.CENTER)
+                .bold(true).doubleSize(true).line(order.getOrderNumber()).doubleSize(false)
+                .text(String.valueOf(order.getOrderType()));
+        if (order.getTableNumber() != null && !order.getTableNumber().isEmpty()) {
+            writer.text(" - Table ").text(order.getTableNumber());
+        }
+        writer.newLine()
+                .bold(false)
+                .line(formatDateTime(order.getOrderDate()))
+                .align(EscPosWriter.Align.LEFT)
+                .rule('=');
+
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                writer.bold(true).text(String.valueOf(item.getQuantity())).text("x ").line(itemLabel(item)).bold(false);
+                if (item.getAddOns() != null) {
+                    for (var addOn : item.getAddOns()) {
+                        writer.text("   + ").line(addOn.getNameEn());
+                    }
+                }
+                if (item.getNotes() != null && !item.getNotes().isBlank()) {
+                    writer.text("   * ").line(item.getNotes());
+                }
+            }
+        }
+        if (order.getNotes() != null && !order.getNotes().isBlank()) {
+            writer.rule('-').text("Note: ").line(order.getNotes());
+        }
+        writer.feed(4).cut();
+    }
+
+    private static void field(StringBuilder html, String label, String value) {
+        html.append("<strong>").append(label).append(":</strong> ");
+        escapeHtml(html, value).append("<br>\n");
+    }
+
+    private static void optionalField(StringBuilder html, String label, String value) {
+        if (value != null && !value.isEmpty()) {
+            field(html, label, value);
+        }
+    }
+
+    private static String itemLabel(OrderItemResponse item) {
+        String size = item.getSizeNameEn() != null ? item.getSizeNameEn() : item.getSizeCode();
+        return size != null && !size.isEmpty() ? item.getItemNameEn() + " (" + size + ")" : item.getItemNameEn();
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
+    }
+
+    private static StringBuilder money(StringBuilder html, BigDecimal amount) {
+        return html.append(money(amount));
+    }
+
+    private static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime != null ? DATE_TIME.format(dateTime) : "";
+    }
+
+    private static StringBuilder dateTime(StringBuilder html, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            DATE_TIME.formatTo(dateTime, html);
+        }
+        return html;
+    }
+
+    /** Escapes straight into the buffer instead of through chained {@code String.replace} copies */
+    private static StringBuilder escapeHtml(StringBuilder html, String value) {
+        if (value == null) {
+            return html;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html;
+    }
+}
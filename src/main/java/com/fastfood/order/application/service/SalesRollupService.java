@@ -0,0 +1,112 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.domain.entity.Order;
+import com.fastfood.order.infrastructure.repository.OrderItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps {@code sales_item_hourly} in step with the order tables. Each order adds its lines to the
+ * rollup rows of its hour in the same transaction that writes it, so item analytics never scan
+ * {@code order_items}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    /*
+     * Rows are upserted in key order so concurrent orders touching the same items lock them in the
+     * same sequence. The sign parameter subtracts the lines again when an order is cancelled.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO sales_item_hourly (shop_id, branch_id, bucket_hour, item_type, item_id, size_code, category_id,
+                                           item_name, quantity, revenue, add_on_revenue, order_count)
+            SELECT o.shop_id,
+                   o.branch_id,
+                   date_trunc('hour', o.order_date),
+                   CASE WHEN i.combo_id IS NOT NULL THEN 'COMBO' ELSE 'ITEM' END,
+                   COALESCE(i.combo_id, i.menu_item_id, 0),
+                   COALESCE(i.size_code, ''),
+                   MAX(m.category_id),
+                   MAX(i.item_name_en),
+                   ? * SUM(i.quantity),
+                   ? * SUM(i.total_price),
+                   ? * SUM(COALESCE(a.add_on_total, 0) * i.quantity),
+                   ? * COUNT(DISTINCT i.order_id)
+            FROM orders o
+            JOIN order_items i ON i.order_id = o.id AND i.order_date = o.order_date
+            LEFT JOIN menu_items m ON m.id = i.menu_item_id
+            LEFT JOIN LATERAL (
+                SELECT SUM(ao.price * ao.quantity) AS add_on_total
+                FROM order_item_add_ons ao
+                WHERE ao.order_item_id = i.id AND ao.order_date = i.order_date
+            ) a ON true
+            WHERE o.order_date >= ? AND o.order_date <= ? AND o.id IN (%s)
+            GROUP BY 1, 2, 3, 4, 5, 6
+            ORDER BY 1, 2, 3, 4, 5, 6
+            ON CONFLICT (shop_id, branch_id, bucket_hour, item_type, item_id, size_code) DO UPDATE
+            SET quantity       = sales_item_hourly.quantity + EXCLUDED.quantity,
+                revenue        = sales_item_hourly.revenue + EXCLUDED.revenue,
+                add_on_revenue = sales_item_hourly.add_on_revenue + EXCLUDED.add_on_revenue,
+                order_count    = sales_item_hourly.order_count + EXCLUDED.order_count,
+                item_name      = EXCLUDED.item_name,
+                category_id    = COALESCE(EXCLUDED.category_id, sales_item_hourly.category_id),
+                updated_at     = CURRENT_TIMESTAMP
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderItemRepository orderItemRepository;
+
+    /**
+     * Adds newly written orders to the rollup. Must run in the transaction that saved them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrders(Collection<Order> orders) {
+        apply(orders, 1);
+    }
+
+    /**
+     * Takes a cancelled order's lines back out of the rollup, or puts them back when it is reopened.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, Order.OrderStatus oldStatus, Order.OrderStatus newStatus) {
+        boolean wasCounted = oldStatus != Order.OrderStatus.CANCELLED;
+        boolean isCounted = newStatus != Order.OrderStatus.CANCELLED;
+        if (wasCounted != isCounted) {
+            apply(List.of(order), isCounted ? 1 : -1);
+        }
+    }
+
+    private void apply(Collection<Order> orders, int sign) {
+        List<Order> counted = orders.stream()
+                .filter(order -> order.getOrderDate() != null)
+                .toList();
+        if (counted.isEmpty()) {
+            return;
+        }
+        // Order lines are persisted through JPA; make them visible to the statement below
+        orderItemRepository.flush();
+
+        LocalDateTime from = counted.stream().map(Order::getOrderDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = counted.stream().map(Order::getOrderDate).max(Comparator.naturalOrder()).orElseThrow();
+        List<Object> params = new ArrayList<>(List.of(sign, sign, sign, sign, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        counted.forEach(order -> params.add(order.getId()));
+
+        String sql = UPSERT_SQL.formatted(String.join(",", Collections.nCopies(counted.size(), "?")));
+        int rows = jdbcTemplate.update(sql, params.toArray());
+        log.debug("Sales rollup: {} rows updated for {} orders (sign {})", rows, counted.size(), sign);
+    }
+}
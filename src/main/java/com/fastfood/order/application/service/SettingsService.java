@@ -1,31 +1,43 @@
 package com.fastfood.order.application.service;
 
+import com.fastfood.order.application.dto.ReceiptBranding;
 import com.fastfood.order.application.dto.SettingsRequest;
 import com.fastfood.order.application.dto.SettingsResponse;
 import com.fastfood.order.domain.entity.Settings;
 import com.fastfood.order.domain.entity.Shop;
 import com.fastfood.order.domain.entity.User;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.SettingsRepository;
 import com.fastfood.order.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class SettingsService {
+public class SettingsService implements CacheReloader {
     
     private final SettingsRepository settingsRepository;
     private final UserRepository userRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
+
+    @Value("${app.brand.name:Fast Food Express}")
+    private String defaultBrandName;
+
+    @Value("${app.brand.location:Gujranwala, Pakistan}")
+    private String defaultBrandLocation;
     
     @Transactional
-    @CacheEvict(value = CacheConfig.SETTINGS, allEntries = true)
     public SettingsResponse createOrUpdateSettings(SettingsRequest request, Long currentUserId) {
         log.info("Creating or updating settings");
         
@@ -48,6 +60,8 @@ public class SettingsService {
         settings.setUpdatedBy(currentUser);
         
         Settings savedSettings = settingsRepository.save(settings);
+        catalogCache.evict(CacheConfig.SETTINGS, CacheKeys.shopKey(CacheKeys.SHOP, shop.getId()),
+                CacheKeys.shopKey(CacheKeys.BRANDING, shop.getId()));
         log.info("Settings saved successfully");
         
         return mapToSettingsResponse(savedSettings);
@@ -58,33 +72,94 @@ public class SettingsService {
     public SettingsResponse getSettings() {
         log.info("Fetching settings");
         try {
-            Long shopId = shopContextService.requireCurrentShopId();
-            java.util.Optional<Settings> optionalSettings = settingsRepository.findFirstByShopIdOrderByIdAsc(shopId);
-            if (optionalSettings.isPresent()) {
-                Settings settings = optionalSettings.get();
-                log.info("Found existing settings with ID: {}, brandName: {}", settings.getId(), settings.getBrandName());
-                return mapToSettingsResponse(settings);
-            } else {
-                log.info("No settings found in database, returning default settings");
-                return SettingsResponse.builder()
-                        .brandName("Order System")
-                        .brandLogoUrl(null)
-                        .contactPhone(null)
-                        .contactEmail(null)
-                        .address(null)
-                        .build();
-            }
+            return loadSettings(shopContextService.requireCurrentShopId());
         } catch (Exception e) {
             log.warn("Error fetching settings, returning default: {}", e.getMessage());
-            return SettingsResponse.builder()
-                    .brandName("Order System")
-                    .brandLogoUrl(null)
-                    .contactPhone(null)
-                    .contactEmail(null)
-                    .address(null)
+            return defaultSettings();
+        }
+    }
+
+    /**
+     * Brand details for the shop's receipts. Cached next to the settings and evicted with them, so
+     * printing never reads the settings table; falls back to {@code app.brand.*} on any error.
+     */
+    public ReceiptBranding getBranding(Long shopId) {
+        try {
+            return catalogCache.get(CacheConfig.SETTINGS, CacheKeys.shopKey(CacheKeys.BRANDING, shopId),
+                    () -> loadBranding(shopId));
+        } catch (Exception e) {
+            log.warn("Error fetching branding for shop {}, using defaults: {}", shopId, e.getMessage());
+            return ReceiptBranding.builder()
+                    .shopId(shopId)
+                    .brandName(defaultBrandName)
+                    .location(defaultBrandLocation)
                     .build();
         }
     }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.SETTINGS;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.SHOP, CacheKeys.BRANDING);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null) {
+            return null;
+        }
+        try {
+            if (CacheKeys.hasPrefix(key, CacheKeys.BRANDING)) {
+                return loadBranding(shopId);
+            }
+            return CacheKeys.hasPrefix(key, CacheKeys.SHOP) ? loadSettings(shopId) : null;
+        } catch (Exception e) {
+            // Let getSettings() answer with its defaults instead
+            log.warn("Error reloading settings for shop {}: {}", shopId, e.getMessage());
+            return null;
+        }
+    }
+
+    private SettingsResponse loadSettings(Long shopId) {
+        java.util.Optional<Settings> optionalSettings = settingsRepository.findFirstByShopIdOrderByIdAsc(shopId);
+        if (optionalSettings.isPresent()) {
+            Settings settings = optionalSettings.get();
+            log.info("Found existing settings with ID: {}, brandName: {}", settings.getId(), settings.getBrandName());
+            return mapToSettingsResponse(settings);
+        }
+        log.info("No settings found in database, returning default settings");
+        return defaultSettings();
+    }
+
+    private ReceiptBranding loadBranding(Long shopId) {
+        SettingsResponse settings = loadSettings(shopId);
+        return ReceiptBranding.builder()
+                .shopId(shopId)
+                .brandName(settings.getBrandName() != null && !settings.getBrandName().isEmpty()
+                        ? settings.getBrandName()
+                        : defaultBrandName)
+                .location(settings.getAddress() != null && !settings.getAddress().isEmpty()
+                        ? settings.getAddress()
+                        : defaultBrandLocation)
+                .logoUrl(settings.getBrandLogoUrl())
+                .build();
+    }
+
+    private SettingsResponse defaultSettings() {
+        return SettingsResponse.builder()
+                .brandName("Order System")
+                .brandLogoUrl(null)
+                .contactPhone(null)
+                .contactEmail(null)
+                .address(null)
+                .build();
+    }
     
     private SettingsResponse mapToSettingsResponse(Settings settings) {
         return SettingsResponse.builder()
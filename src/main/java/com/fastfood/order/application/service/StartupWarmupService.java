@@ -0,0 +1,211 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.dto.OrderResponse;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up after startup, before the node takes traffic: fills the catalog, settings and
+ * stock-consumption rate caches of every active shop, waits for the stock forecast to load, compiles the recipe matrices, and runs
+ * synthetic pricing and receipt rendering passes so the JIT has compiled the order path and the
+ * Hibernate query plans are prepared. Readiness reports OUT_OF_SERVICE until it finishes (see
+ * {@code WarmupHealthIndicator}); the time taken is exported as {@code app.warmup.duration}.
+ *
+ * <p>Failures are logged per shop, so one broken shop does not leave the others cold, and never
+ * keep the node out of service; neither does a warm-up that runs past
+ * {@code app.warmup.timeout-seconds}.</p>
+ */
+@Slf4j
+@Service
+public class StartupWarmupService {
+
+    private final ObjectProvider<CacheReloader> reloaders;
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderService orderService;
+    private final ReceiptPrintService receiptPrintService;
+    private final StockForecastService stockForecastService;
+    private final StockWarningConfigService stockWarningConfigService;
+    private final PurchasePlanningService purchasePlanningService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.pricing-passes:200}")
+    private int pricingPasses;
+
+    @Value("${app.warmup.rendering-passes:500}")
+    private int renderingPasses;
+
+    @Value("${app.warmup.max-items:20}")
+    private int maxItems;
+
+    @Value("${app.warmup.timeout-seconds:120}")
+    private long timeoutSeconds;
+
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String failure;
+
+    public StartupWarmupService(ObjectProvider<CacheReloader> reloaders, CacheManager cacheManager,
+                                JdbcTemplate jdbcTemplate, OrderService orderService,
+                                ReceiptPrintService receiptPrintService, StockForecastService stockForecastService,
+                                StockWarningConfigService stockWarningConfigService,
+                                PurchasePlanningService purchasePlanningService, MeterRegistry meterRegistry) {
+        this.reloaders = reloaders;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderService = orderService;
+        this.receiptPrintService = receiptPrintService;
+        this.stockForecastService = stockForecastService;
+        this.stockWarningConfigService = stockWarningConfigService;
+        this.purchasePlanningService = purchasePlanningService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        startedAt = System.nanoTime();
+        if (!enabled) {
+            finishedAt = startedAt;
+            log.info("Startup warm-up is disabled");
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * True once the warm-up has finished or given up; readiness waits for this.
+     */
+    public boolean isComplete() {
+        if (finishedAt != 0) {
+            return true;
+        }
+        return startedAt != 0 && System.nanoTime() - startedAt > TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("complete", finishedAt != 0);
+        if (startedAt != 0) {
+            long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+            status.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(end - startedAt));
+        }
+        if (failure != null) {
+            status.put("failure", failure);
+        }
+        return status;
+    }
+
+    private void warmUp() {
+        int cacheEntries = 0;
+        int failedShops = 0;
+        List<Long> shopIds = List.of();
+        try {
+            shopIds = jdbcTemplate.queryForList("SELECT id FROM shops WHERE is_active = true ORDER BY id", Long.class);
+            stockWarningConfigService.getConfig();
+            for (Long shopId : shopIds) {
+                try {
+                    cacheEntries += warmCaches(shopId);
+                    warmShop(shopId);
+                } catch (Exception e) {
+                    failedShops++;
+                    failure = "shop " + shopId + ": " + e.getClass().getSimpleName() + ": " + e.getMessage();
+                    log.warn("Startup warm-up of shop {} failed, continuing with the next shop: {}", shopId, e.getMessage(), e);
+                }
+            }
+            awaitForecast();
+        } catch (Exception e) {
+            failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Startup warm-up failed, serving traffic with cold caches: {}", e.getMessage(), e);
+        } finally {
+            finishedAt = System.nanoTime();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt);
+            Gauge.builder("app.warmup.duration", this, service -> TimeUnit.NANOSECONDS.toMillis(service.finishedAt - service.startedAt))
+                    .baseUnit("milliseconds")
+                    .description("Time from application ready to the end of the startup warm-up")
+                    .register(meterRegistry);
+            log.info("Startup warm-up finished in {} ms: {} shops ({} failed), {} cache entries",
+                    elapsedMs, shopIds.size(), failedShops, cacheEntries);
+        }
+    }
+
+    /**
+     * Loads each per-shop entry the reloaders serve that is not cached yet. Caffeine caches are
+     * probed with {@code getIfPresent}: {@code Cache.get} on a loading cache would run the loader.
+     */
+    private int warmCaches(Long shopId) {
+        int loaded = 0;
+        for (CacheReloader reloader : reloaders.orderedStream().toList()) {
+            Cache cache = cacheManager.getCache(reloader.cacheName());
+            if (cache == null) {
+                continue;
+            }
+            for (String prefix : reloader.shopKeyPrefixes()) {
+                String key = CacheKeys.shopKey(prefix, shopId);
+                if (isCached(cache, key)) {
+                    continue;
+                }
+                try {
+                    Object value = ReplicaRoutingDataSource.onPrimary(() -> reloader.reload(key));
+                    if (value != null) {
+                        cache.putIfAbsent(key, value);
+                        loaded++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Could not warm {} {}: {}", reloader.cacheName(), key, e.getMessage());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static boolean isCached(Cache cache, String key) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().getIfPresent(key) != null;
+        }
+        return cache.get(key) != null;
+    }
+
+    private void warmShop(Long shopId) {
+        try {
+            purchasePlanningService.preloadRecipes(shopId);
+        } catch (Exception e) {
+            log.warn("Could not preload recipes of shop {}: {}", shopId, e.getMessage());
+        }
+        OrderResponse order = orderService.priceSyntheticOrder(shopId, maxItems, pricingPasses);
+        if (order != null) {
+            long rendered = receiptPrintService.primeRendering(order, shopId, renderingPasses);
+            log.debug("Warmed pricing and rendering for shop {} ({} bytes rendered)", shopId, rendered);
+        }
+    }
+
+    /** The forecast loads on the same ready event; orders should not arrive before it has */
+    private void awaitForecast() throws InterruptedException {
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!stockForecastService.isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
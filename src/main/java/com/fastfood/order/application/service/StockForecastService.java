@@ -0,0 +1,515 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fastfood.order.application.dto.StockForecastResponse;
+import com.fastfood.order.domain.entity.StockItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock depletion forecast from per-item consumption estimators.
+ *
+ * <p>Every committed SALE deduction updates its item's estimator in constant time: consumption is
+ * accumulated into the open hour and day, and each closed hour and day is folded into exponentially
+ * weighted levels per hour of day (24) and per day of week (7). The expected consumption of an hour is
+ * its weekday's level times that hour's share of a day, which gives days of cover and a projected
+ * stock-out time without reading the transaction history.</p>
+ *
+ * <p>Estimator state lives in memory and is flushed to {@code stock_consumption_estimates}, one row
+ * per item and node ({@code app.stock.forecast.node-id}, the host name by default). Each node only
+ * sees its own sales; since the levels are linear in the sales, the forecast adds the other nodes'
+ * rows, reloaded on every flush, to the local estimator. Items without any saved state are seeded
+ * once from the recent SALE ledger into a shared seed row, which every node counts as history.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockForecastService {
+
+    private static final int MAX_FORECAST_DAYS = 365;
+    /** node_id of the row seeded from the ledger */
+    private static final String SEED_NODE = "";
+    /** Rows of a node without a flush for this long are dropped (a node that is gone) */
+    private static final int STALE_ROW_DAYS = 28;
+
+    private static final String UPSERT_STATE_SQL = """
+            INSERT INTO stock_consumption_estimates (stock_item_id, node_id, state, updated_at)
+            SELECT id, ?, CAST(? AS JSONB), CURRENT_TIMESTAMP FROM stock_items WHERE id = ?
+            ON CONFLICT (stock_item_id, node_id) DO UPDATE SET state = EXCLUDED.state, updated_at = EXCLUDED.updated_at
+            """;
+
+    /** Another node may have seeded the same item at the same time; the first seed stays */
+    private static final String INSERT_SEED_SQL = """
+            INSERT INTO stock_consumption_estimates (stock_item_id, node_id, state, updated_at)
+            SELECT id, ?, CAST(? AS JSONB), CURRENT_TIMESTAMP FROM stock_items WHERE id = ?
+            ON CONFLICT (stock_item_id, node_id) DO NOTHING
+            """;
+
+    private static final String SEED_SQL = """
+            SELECT t.stock_item_id, date_trunc('hour', t.created_at) AS sale_hour, SUM(t.quantity) AS quantity
+            FROM stock_transactions t
+            WHERE t.transaction_type = 'SALE'
+              AND t.created_at >= ?
+              AND NOT EXISTS (SELECT 1 FROM stock_consumption_estimates e WHERE e.stock_item_id = t.stock_item_id)
+            GROUP BY 1, 2
+            ORDER BY 1, 2
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /** This node's sales */
+    private final Map<Long, Estimator> estimators = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    /** Sum of the other nodes' rows and the seed row, as of the last flush */
+    private volatile Map<Long, Estimator> peers = Map.of();
+
+    /** Weight of the newest closed hour in its hour-of-day level */
+    @Value("${app.stock.forecast.hour-alpha:0.2}")
+    private double hourAlpha;
+
+    /** Weight of the newest closed day in its day-of-week level */
+    @Value("${app.stock.forecast.day-alpha:0.3}")
+    private double dayAlpha;
+
+    @Value("${app.stock.forecast.seed-days:28}")
+    private int seedDays;
+
+    @Value("${app.stock.forecast.warning-hours:24}")
+    private int warningHours;
+
+    /** Must stay the same across restarts so a node resumes its own row */
+    @Value("${app.stock.forecast.node-id:}")
+    private String nodeId;
+
+    private volatile boolean loaded;
+
+    @PostConstruct
+    void resolveNodeId() {
+        if (nodeId == null || nodeId.isBlank()) {
+            try {
+                nodeId = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                nodeId = "default";
+            }
+        }
+    }
+
+    /**
+     * Loads saved estimator state and seeds the rest from the ledger, before traffic is served.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEstimators() {
+        try {
+            jdbcTemplate.query("SELECT stock_item_id, state FROM stock_consumption_estimates WHERE node_id = ?", rs -> {
+                Estimator estimator = readState(rs.getLong("stock_item_id"), rs.getString("state"));
+                if (estimator != null) {
+                    estimators.put(rs.getLong("stock_item_id"), estimator);
+                }
+            }, nodeId);
+            int saved = estimators.size();
+
+            Map<Long, Estimator> seeds = new HashMap<>();
+            jdbcTemplate.query(SEED_SQL, rs -> {
+                seeds.computeIfAbsent(rs.getLong("stock_item_id"), id -> new Estimator())
+                        .record(rs.getTimestamp("sale_hour").toLocalDateTime(), rs.getDouble("quantity"), hourAlpha, dayAlpha);
+            }, Timestamp.valueOf(LocalDateTime.now().minusDays(seedDays)));
+            if (!seeds.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SEED_SQL, stateRows(SEED_NODE, seeds.keySet(), seeds));
+            }
+            refreshPeers();
+            log.info("Stock forecast (node {}): {} estimators restored, {} seeded from the last {} days of sales, {} items from other nodes",
+                    nodeId, saved, seeds.size(), seedDays, peers.size());
+        } catch (Exception e) {
+            log.error("Could not load stock forecast state; estimators start empty: {}", e.getMessage(), e);
+        } finally {
+            loaded = true;
+        }
+    }
+
+    /** True once the startup load has finished, successfully or not */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Counts a SALE deduction once the surrounding transaction commits.
+     */
+    public void recordSale(Long stockItemId, BigDecimal quantity) {
+        if (quantity == null || quantity.signum() <= 0) {
+            return;
+        }
+        double units = quantity.doubleValue();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(stockItemId, units);
+                }
+            });
+        } else {
+            apply(stockItemId, units);
+        }
+    }
+
+    public StockForecastResponse forecast(StockItem stockItem, BigDecimal currentQuantity) {
+        LocalDateTime now = LocalDateTime.now();
+        StockForecastResponse.StockForecastResponseBuilder response = StockForecastResponse.builder()
+                .stockItemId(stockItem.getId())
+                .stockItemNameEn(stockItem.getNameEn())
+                .stockItemNameUr(stockItem.getNameUr())
+                .unit(stockItem.getUnit())
+                .currentQuantity(currentQuantity)
+                .averageDailyConsumption(BigDecimal.ZERO)
+                .observedDays(0);
+
+        Estimator estimator = combined(stockItem.getId(), now);
+        if (estimator == null) {
+            return response.build();
+        }
+        Estimator.Projection projection = estimator.project(now, Math.max(currentQuantity.doubleValue(), 0),
+                hourAlpha, dayAlpha, MAX_FORECAST_DAYS);
+        if (projection.dailyConsumption() <= 0) {
+            return response.observedDays(projection.observedDays()).build();
+        }
+        return response
+                .averageDailyConsumption(BigDecimal.valueOf(projection.dailyConsumption()).setScale(4, RoundingMode.HALF_UP))
+                .daysOfCover(BigDecimal.valueOf(Math.max(currentQuantity.doubleValue(), 0) / projection.dailyConsumption())
+                        .setScale(2, RoundingMode.HALF_UP))
+                .projectedStockOutAt(projection.stockOutAt())
+                .observedDays(projection.observedDays())
+                .build();
+    }
+
+    /**
+     * Projected stock-out time when it falls within the warning horizon.
+     */
+    public Optional<LocalDateTime> imminentStockOut(StockItem stockItem, BigDecimal currentQuantity) {
+        StockForecastResponse forecast = forecast(stockItem, currentQuantity);
+        LocalDateTime stockOut = forecast.getProjectedStockOutAt();
+        if (stockOut != null && stockOut.isBefore(LocalDateTime.now().plusHours(warningHours))) {
+            return Optional.of(stockOut);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stock items with recorded consumption, the only ones {@link #imminentStockOut} can report.
+     */
+    public Set<Long> trackedItemIds() {
+        Set<Long> ids = new HashSet<>(estimators.keySet());
+        ids.addAll(peers.keySet());
+        return ids;
+    }
+
+    /**
+     * Writes this node's changed estimators to its own rows and reloads the other nodes'.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.forecast.flush-interval-ms:60000}")
+    public void flushState() {
+        if (!loaded) {
+            return;
+        }
+        if (!dirty.isEmpty()) {
+            List<Long> ids = new ArrayList<>(dirty);
+            dirty.removeAll(ids);
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_STATE_SQL, stateRows(nodeId, ids, estimators));
+            } catch (Exception e) {
+                log.warn("Flushing stock forecast state failed, retrying next round: {}", e.getMessage());
+                dirty.addAll(ids);
+            }
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM stock_consumption_estimates WHERE node_id <> ? AND updated_at < ?",
+                    SEED_NODE, Timestamp.valueOf(LocalDateTime.now().minusDays(STALE_ROW_DAYS)));
+            refreshPeers();
+        } catch (Exception e) {
+            log.warn("Reloading stock forecast state of other nodes failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushState();
+    }
+
+    /** This node's estimator plus the other nodes', or null when no node has seen the item sell */
+    private Estimator combined(Long stockItemId, LocalDateTime now) {
+        Estimator own = estimators.get(stockItemId);
+        Estimator others = peers.get(stockItemId);
+        if (others == null) {
+            return own;
+        }
+        return Estimator.sum(own != null ? List.of(own, others) : List.of(others), now, hourAlpha, dayAlpha);
+    }
+
+    private void refreshPeers() {
+        Map<Long, List<Estimator>> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT stock_item_id, state FROM stock_consumption_estimates WHERE node_id <> ?", rs -> {
+            Estimator estimator = readState(rs.getLong("stock_item_id"), rs.getString("state"));
+            if (estimator != null) {
+                rows.computeIfAbsent(rs.getLong("stock_item_id"), id -> new ArrayList<>()).add(estimator);
+            }
+        }, nodeId);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Estimator> sums = new HashMap<>(rows.size() * 2);
+        rows.forEach((id, parts) -> sums.put(id, Estimator.sum(parts, now, hourAlpha, dayAlpha)));
+        peers = sums;
+    }
+
+    private Estimator readState(long stockItemId, String json) {
+        try {
+            return Estimator.fromState(objectMapper.readValue(json, Estimator.State.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable forecast state of stock item {}: {}", stockItemId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<Object[]> stateRows(String node, Iterable<Long> ids, Map<Long, Estimator> source) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long id : ids) {
+            Estimator estimator = source.get(id);
+            if (estimator == null) {
+                continue;
+            }
+            try {
+                rows.add(new Object[]{node, objectMapper.writeValueAsString(estimator.toState()), id});
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize forecast state of stock item {}: {}", id, e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    private void apply(Long stockItemId, double units) {
+        estimators.computeIfAbsent(stockItemId, id -> new Estimator())
+                .record(LocalDateTime.now(), units, hourAlpha, dayAlpha);
+        dirty.add(stockItemId);
+    }
+
+    /**
+     * Consumption levels of one stock item. Hours and days are counted on the wall clock the orders use.
+     */
+    static final class Estimator {
+
+        /** Gaps longer than this restart the open buckets instead of closing every empty hour */
+        private static final int MAX_CATCH_UP_HOURS = 24 * 28;
+
+        private final double[] hourLevels = new double[24];
+        private final int[] hourSamples = new int[24];
+        private final double[] dayLevels = new double[7];
+        private final int[] daySamples = new int[7];
+        private long openHour = -1;
+        private double hourAccum;
+        private double dayAccum;
+
+        synchronized void record(LocalDateTime at, double units, double hourAlpha, double dayAlpha) {
+            advance(epochHour(at), hourAlpha, dayAlpha);
+            hourAccum += units;
+            dayAccum += units;
+        }
+
+        synchronized Projection project(LocalDateTime now, double quantity, double hourAlpha, double dayAlpha, int maxDays) {
+            long nowHour = epochHour(now);
+            advance(nowHour, hourAlpha, dayAlpha);
+
+            double[] dayExpected = new double[7];
+            int observed = 0;
+            double observedSum = 0;
+            for (int d = 0; d < 7; d++) {
+                if (daySamples[d] > 0) {
+                    observed++;
+                    observedSum += dayLevels[d];
+                }
+            }
+            int observedDays = 0;
+            for (int samples : daySamples) {
+                observedDays += samples;
+            }
+            if (observed == 0) {
+                return new Projection(0, null, 0);
+            }
+            double fallback = observedSum / observed;
+            double weekly = 0;
+            for (int d = 0; d < 7; d++) {
+                dayExpected[d] = daySamples[d] > 0 ? dayLevels[d] : fallback;
+                weekly += dayExpected[d];
+            }
+            if (weekly <= 0) {
+                return new Projection(0, null, observedDays);
+            }
+
+            double[] hourShare = new double[24];
+            double hourTotal = 0;
+            for (double level : hourLevels) {
+                hourTotal += level;
+            }
+            for (int h = 0; h < 24; h++) {
+                hourShare[h] = hourTotal > 0 ? hourLevels[h] / hourTotal : 1.0 / 24;
+            }
+
+            // Walk forward hour by hour; whole weeks are skipped so the walk stays within two weeks
+            double remaining = quantity;
+            long hour = nowHour;
+            double minutesIntoHour = now.getMinute() + now.getSecond() / 60.0;
+            double firstHourFraction = 1 - minutesIntoHour / 60.0;
+            long lastHour = nowHour + (long) maxDays * 24;
+            boolean skipped = false;
+            while (hour < lastHour) {
+                double expected = dayExpected[dayOfWeek(hour)] * hourShare[hourOfDay(hour)];
+                double available = hour == nowHour ? expected * firstHourFraction : expected;
+                if (available > 0 && remaining <= available) {
+                    double startOffset = hour == nowHour ? minutesIntoHour / 60.0 : 0;
+                    double fraction = startOffset + (remaining / expected);
+                    LocalDateTime stockOut = hourStart(hour).plusSeconds((long) (fraction * 3600));
+                    return new Projection(weekly / 7, stockOut, observedDays);
+                }
+                remaining -= available;
+                hour++;
+                if (!skipped && hour - nowHour >= 168) {
+                    long weeks = (long) (remaining / weekly);
+                    hour += weeks * 168;
+                    remaining -= weeks * weekly;
+                    skipped = true;
+                }
+            }
+            return new Projection(weekly / 7, null, observedDays);
+        }
+
+        private void advance(long hour, double hourAlpha, double dayAlpha) {
+            if (openHour < 0) {
+                openHour = hour;
+                return;
+            }
+            if (hour <= openHour) {
+                // Late or same-hour sale: counted in the open buckets
+                return;
+            }
+            if (hour - openHour > MAX_CATCH_UP_HOURS) {
+                closeHour(hourAlpha);
+                closeDay(dayAlpha);
+                openHour = hour;
+                return;
+            }
+            while (openHour < hour) {
+                closeHour(hourAlpha);
+                long next = openHour + 1;
+                if (Math.floorDiv(next, 24) != Math.floorDiv(openHour, 24)) {
+                    closeDay(dayAlpha);
+                }
+                openHour = next;
+            }
+        }
+
+        private void closeHour(double alpha) {
+            int h = hourOfDay(openHour);
+            hourLevels[h] = hourSamples[h] == 0 ? hourAccum : alpha * hourAccum + (1 - alpha) * hourLevels[h];
+            hourSamples[h]++;
+            hourAccum = 0;
+        }
+
+        private void closeDay(double alpha) {
+            int d = dayOfWeek(openHour);
+            dayLevels[d] = daySamples[d] == 0 ? dayAccum : alpha * dayAccum + (1 - alpha) * dayLevels[d];
+            daySamples[d]++;
+            dayAccum = 0;
+        }
+
+        synchronized State toState() {
+            return new State(hourLevels.clone(), hourSamples.clone(), dayLevels.clone(), daySamples.clone(),
+                    openHour, hourAccum, dayAccum);
+        }
+
+        /**
+         * Estimator of the combined sales of {@code parts}, each first brought up to the hour of
+         * {@code at}. Levels and open buckets add up; sample counts take the largest.
+         */
+        static Estimator sum(List<Estimator> parts, LocalDateTime at, double hourAlpha, double dayAlpha) {
+            long hour = epochHour(at);
+            Estimator total = new Estimator();
+            for (Estimator part : parts) {
+                Estimator copy = fromState(part.toState());
+                if (copy.openHour < 0) {
+                    continue;
+                }
+                copy.advance(hour, hourAlpha, dayAlpha);
+                for (int h = 0; h < 24; h++) {
+                    total.hourLevels[h] += copy.hourLevels[h];
+                    total.hourSamples[h] = Math.max(total.hourSamples[h], copy.hourSamples[h]);
+                }
+                for (int d = 0; d < 7; d++) {
+                    total.dayLevels[d] += copy.dayLevels[d];
+                    total.daySamples[d] = Math.max(total.daySamples[d], copy.daySamples[d]);
+                }
+                total.hourAccum += copy.hourAccum;
+                total.dayAccum += copy.dayAccum;
+                total.openHour = Math.max(total.openHour, copy.openHour);
+            }
+            return total;
+        }
+
+        static Estimator fromState(State state) {
+            Estimator estimator = new Estimator();
+            System.arraycopy(state.hourLevels(), 0, estimator.hourLevels, 0, 24);
+            System.arraycopy(state.hourSamples(), 0, estimator.hourSamples, 0, 24);
+            System.arraycopy(state.dayLevels(), 0, estimator.dayLevels, 0, 7);
+            System.arraycopy(state.daySamples(), 0, estimator.daySamples, 0, 7);
+            estimator.openHour = state.openHour();
+            estimator.hourAccum = state.hourAccum();
+            estimator.dayAccum = state.dayAccum();
+            return estimator;
+        }
+
+        private static long epochHour(LocalDateTime at) {
+            return Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), 3600);
+        }
+
+        private static LocalDateTime hourStart(long epochHour) {
+            return LocalDateTime.ofEpochSecond(epochHour * 3600, 0, ZoneOffset.UTC);
+        }
+
+        private static int hourOfDay(long epochHour) {
+            return (int) Math.floorMod(epochHour, 24);
+        }
+
+        /** 0 = Monday ... 6 = Sunday (1970-01-01 was a Thursday) */
+        private static int dayOfWeek(long epochHour) {
+            return (int) Math.floorMod(Math.floorDiv(epochHour, 24) + 3, 7);
+        }
+
+        record State(double[] hourLevels, int[] hourSamples, double[] dayLevels, int[] daySamples,
+                     long openHour, double hourAccum, double dayAccum) {
+        }
+
+        record Projection(double dailyConsumption, LocalDateTime stockOutAt, int observedDays) {
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.domain.entity.StockSnapshot;
+import com.fastfood.order.infrastructure.repository.StockSnapshotRepository;
+import com.fastfood.order.infrastructure.repository.StockTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Event-sourced view of stock: {@code stock_transactions} is the ledger of signed deltas and
+ * {@code stock_snapshots} folds it periodically. Any point-in-time quantity or consumption total is
+ * one snapshot lookup plus the ledger tail after it.
+ *
+ * <p>With {@code app.stock.ledger.append-only-sales} enabled, order deductions only append ledger rows
+ * and {@code stock_items.current_quantity} is refreshed from the ledger in the background, so busy
+ * ingredients are no longer a single contended row.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+    /**
+     * Each snapshot folds the window {@code (previous snapshot_at, cutoff]} of created_at into the
+     * previous one. Windows are cut by time, never by id: sequence ids are handed out before commit,
+     * so a lower id can become visible after a higher one.
+     */
+    private static final String SNAPSHOT_SQL = """
+            INSERT INTO stock_snapshots (stock_item_id, snapshot_at, quantity, consumed_total, last_transaction_id)
+            SELECT l.stock_item_id, ?, l.quantity + t.delta, l.consumed_total + t.consumed,
+                   GREATEST(l.last_transaction_id, t.last_id)
+            FROM (
+                SELECT i.id AS stock_item_id,
+                       s.snapshot_at,
+                       COALESCE(s.quantity, 0) AS quantity,
+                       COALESCE(s.consumed_total, 0) AS consumed_total,
+                       COALESCE(s.last_transaction_id, 0) AS last_transaction_id
+                FROM stock_items i
+                LEFT JOIN LATERAL (
+                    SELECT snapshot_at, quantity, consumed_total, last_transaction_id
+                    FROM stock_snapshots
+                    WHERE stock_item_id = i.id
+                    ORDER BY snapshot_at DESC
+                    LIMIT 1
+                ) s ON true
+            ) l
+            JOIN LATERAL (
+                SELECT SUM(delta) AS delta,
+                       SUM(CASE WHEN transaction_type = 'SALE' THEN quantity ELSE 0 END) AS consumed,
+                       MAX(id) AS last_id
+                FROM stock_transactions
+                WHERE stock_item_id = l.stock_item_id
+                  AND (l.snapshot_at IS NULL OR created_at > l.snapshot_at)
+                  AND created_at <= ?
+            ) t ON t.last_id IS NOT NULL
+            WHERE l.snapshot_at IS NULL OR l.snapshot_at < ?
+            """;
+
+    /** Same window rule as {@link #SNAPSHOT_SQL}: everything created after the latest snapshot */
+    private static final String FOLD_SQL = """
+            UPDATE stock_items i
+            SET current_quantity = GREATEST(l.quantity, 0),
+                updated_at = CURRENT_TIMESTAMP
+            FROM (
+                SELECT i2.id AS stock_item_id,
+                       COALESCE(s.quantity, 0) + COALESCE((
+                           SELECT SUM(t.delta) FROM stock_transactions t
+                           WHERE t.stock_item_id = i2.id
+                             AND (s.snapshot_at IS NULL OR t.created_at > s.snapshot_at)
+                       ), 0) AS quantity
+                FROM stock_items i2
+                LEFT JOIN LATERAL (
+                    SELECT quantity, snapshot_at
+                    FROM stock_snapshots
+                    WHERE stock_item_id = i2.id
+                    ORDER BY snapshot_at DESC
+                    LIMIT 1
+                ) s ON true
+            ) l
+            WHERE l.stock_item_id = i.id
+              AND i.current_quantity <> GREATEST(l.quantity, 0)
+            """;
+
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final StockTransactionRepository stockTransactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.stock.ledger.append-only-sales:false}")
+    private boolean appendOnlySales;
+
+    /**
+     * Snapshots only cover transactions older than this, so it must exceed the longest write
+     * transaction: a row becomes visible at commit but carries the time it was created.
+     */
+    @Value("${app.stock.ledger.snapshot-lag-seconds:300}")
+    private long snapshotLagSeconds;
+
+    public boolean isAppendOnlySales() {
+        return appendOnlySales;
+    }
+
+    /**
+     * created_at for a ledger row written now about an event at {@code eventMillis}. Events older
+     * than half the snapshot lag (write-behind retries, crash replays) are booked now instead, since
+     * a snapshot may already have closed the window they belong to.
+     */
+    public LocalDateTime ledgerTimestamp(long eventMillis) {
+        long now = System.currentTimeMillis();
+        long booked = now - eventMillis > snapshotLagSeconds * 500 ? now : eventMillis;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(booked), ZoneId.systemDefault());
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal quantityAt(Long stockItemId, LocalDateTime at) {
+        Optional<StockSnapshot> before = stockSnapshotRepository
+                .findFirstByStockItemIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(stockItemId, at);
+        if (before.isPresent()) {
+            StockSnapshot snapshot = before.get();
+            return snapshot.getQuantity().add(
+                    stockTransactionRepository.sumDeltaBetween(stockItemId, snapshot.getSnapshotAt(), at));
+        }
+        // Before the first snapshot: walk back from the earliest one
+        Optional<StockSnapshot> after = stockSnapshotRepository
+                .findFirstByStockItemIdAndSnapshotAtAfterOrderBySnapshotAtAsc(stockItemId, at);
+        if (after.isPresent()) {
+            StockSnapshot snapshot = after.get();
+            return snapshot.getQuantity().subtract(
+                    stockTransactionRepository.sumDeltaBetween(stockItemId, at, snapshot.getSnapshotAt()));
+        }
+        return stockTransactionRepository.sumDeltaUntil(stockItemId, at);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal currentQuantity(Long stockItemId) {
+        return quantityAt(stockItemId, LocalDateTime.now());
+    }
+
+    /**
+     * Sale consumption in {@code (from, to]}, as the difference of two cumulative totals.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal consumptionBetween(Long stockItemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("Range start must be before range end");
+        }
+        return consumedUntil(stockItemId, to).subtract(consumedUntil(stockItemId, from));
+    }
+
+    /**
+     * Folds each item's ledger tail into a new snapshot. Items without new transactions are skipped.
+     */
+    @Transactional
+    public int takeSnapshots() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(snapshotLagSeconds);
+        Timestamp at = Timestamp.valueOf(cutoff);
+        int created = jdbcTemplate.update(SNAPSHOT_SQL, at, at, at);
+        log.info("Stock ledger snapshot at {}: {} stock items", cutoff, created);
+        return created;
+    }
+
+    /**
+     * In append-only mode, brings {@code stock_items.current_quantity} up to the ledger total.
+     */
+    @Transactional
+    public void foldAppendedDeltas() {
+        if (!appendOnlySales) {
+            return;
+        }
+        int updated = jdbcTemplate.update(FOLD_SQL);
+        if (updated > 0) {
+            log.debug("Refreshed on-hand quantity of {} stock items from the ledger", updated);
+        }
+    }
+
+    private BigDecimal consumedUntil(Long stockItemId, LocalDateTime at) {
+        Optional<StockSnapshot> before = stockSnapshotRepository
+                .findFirstByStockItemIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(stockItemId, at);
+        if (before.isPresent()) {
+            StockSnapshot snapshot = before.get();
+            return snapshot.getConsumedTotal().add(
+                    stockTransactionRepository.sumSalesBetween(stockItemId, snapshot.getSnapshotAt(), at));
+        }
+        Optional<StockSnapshot> after = stockSnapshotRepository
+                .findFirstByStockItemIdAndSnapshotAtAfterOrderBySnapshotAtAsc(stockItemId, at);
+        if (after.isPresent()) {
+            StockSnapshot snapshot = after.get();
+            return snapshot.getConsumedTotal().subtract(
+                    stockTransactionRepository.sumSalesBetween(stockItemId, at, snapshot.getSnapshotAt()));
+        }
+        return stockTransactionRepository.sumSalesUntil(stockItemId, at);
+    }
+}
@@ -2,6 +2,10 @@ package com.fastfood.order.application.service;
 
 import com.fastfood.order.application.dto.*;
 import com.fastfood.order.domain.entity.*;
+import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -12,13 +16,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class StockManagementService {
+public class StockManagementService implements CacheReloader {
 
     private final StockItemRepository stockItemRepository;
     private final StockItemConsumptionRepository stockItemConsumptionRepository;
@@ -29,6 +34,10 @@ public class StockManagementService {
     private final ComboItemRepository comboItemRepository;
     private final OrderItemRepository orderItemRepository;
     private final ShopContextService shopContextService;
+    private final StockLedgerService stockLedgerService;
+    private final StockWriteBehindService stockWriteBehindService;
+    private final StockForecastService stockForecastService;
+    private final CatalogCache catalogCache;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -73,6 +82,19 @@ public class StockManagementService {
         ensureBarcodeUnique(savedShopId(stockItem), stockItem.getBarcode(), null);
 
         StockItem saved = stockItemRepository.save(stockItem);
+        if (saved.getCurrentQuantity().signum() != 0) {
+            // Opening balance goes through the ledger like any other change
+            stockTransactionRepository.save(StockTransaction.builder()
+                    .stockItem(saved)
+                    .transactionType(StockTransaction.TransactionType.ADJUSTMENT)
+                    .quantity(saved.getCurrentQuantity())
+                    .delta(saved.getCurrentQuantity())
+                    .previousQuantity(BigDecimal.ZERO)
+                    .newQuantity(saved.getCurrentQuantity())
+                    .referenceType("MANUAL")
+                    .notes("Opening quantity")
+                    .build());
+        }
         log.info("Created stock item: {}", saved.getNameEn());
         return mapToStockItemResponse(saved);
     }
@@ -81,6 +103,7 @@ public class StockManagementService {
     public StockItemResponse updateStockItem(Long id, StockItemRequest request) {
         StockItem stockItem = stockItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Stock item not found with ID: " + id));
+        BigDecimal previousQuantity = request.getCurrentQuantity() != null ? onHandQuantity(stockItem) : null;
 
         stockItem.setNameEn(request.getNameEn());
         stockItem.setNameUr(request.getNameUr());
@@ -94,8 +117,9 @@ public class StockManagementService {
             stockItem.setCurrentQuantity(request.getCurrentQuantity());
         }
         stockItem.setMinThreshold(request.getMinThreshold());
-        if (request.getIsActive() != null) {
+        if (request.getIsActive() != null && !request.getIsActive().equals(stockItem.getIsActive())) {
             stockItem.setIsActive(request.getIsActive());
+            evictConsumptionRates(stockItem);
         }
         String barcode = normalizeBarcode(request.getBarcode());
         ensureBarcodeUnique(savedShopId(stockItem), barcode, stockItem.getId());
@@ -107,6 +131,19 @@ public class StockManagementService {
         }
 
         StockItem saved = stockItemRepository.save(stockItem);
+        if (previousQuantity != null && previousQuantity.compareTo(saved.getCurrentQuantity()) != 0) {
+            BigDecimal delta = saved.getCurrentQuantity().subtract(previousQuantity);
+            stockTransactionRepository.save(StockTransaction.builder()
+                    .stockItem(saved)
+                    .transactionType(StockTransaction.TransactionType.ADJUSTMENT)
+                    .quantity(delta)
+                    .delta(delta)
+                    .previousQuantity(previousQuantity)
+                    .newQuantity(saved.getCurrentQuantity())
+                    .referenceType("MANUAL")
+                    .notes("Quantity changed on item update")
+                    .build());
+        }
         log.info("Updated stock item: {}", saved.getNameEn());
         return mapToStockItemResponse(saved);
     }
@@ -122,7 +159,7 @@ public class StockManagementService {
         StockItem stockItem = stockItemRepository.findById(stockItemId)
                 .orElseThrow(() -> new RuntimeException("Stock item not found"));
 
-        BigDecimal previousQuantity = stockItem.getCurrentQuantity();
+        BigDecimal previousQuantity = onHandQuantity(stockItem);
         BigDecimal delta = quantity.subtract(previousQuantity);
         stockItem.setCurrentQuantity(quantity);
         stockItemRepository.save(stockItem);
@@ -131,6 +168,7 @@ public class StockManagementService {
                 .stockItem(stockItem)
                 .transactionType(StockTransaction.TransactionType.ADJUSTMENT)
                 .quantity(delta)
+                .delta(delta)
                 .previousQuantity(previousQuantity)
                 .newQuantity(quantity)
                 .referenceType("MANUAL")
@@ -145,6 +183,7 @@ public class StockManagementService {
     public void deleteStockItem(Long id) {
         StockItem stockItem = stockItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Stock item not found with ID: " + id));
+        evictConsumptionRates(stockItem);
         stockItemRepository.delete(stockItem);
         log.info("Deleted stock item: {}", stockItem.getNameEn());
     }
@@ -245,6 +284,7 @@ public class StockManagementService {
 
         stockItemConsumptionRepository.saveAll(toSave);
         stockItemConsumptionRepository.flush();
+        evictConsumptionRates(stockItem);
         log.info("Saved {} consumption rows for stock item {}", toSave.size(), stockItem.getNameEn());
         return getStockConsumptions(stockItemId);
     }
@@ -296,34 +336,72 @@ public class StockManagementService {
     }
 
     /**
-     * Prefetch shop consumption rates once, aggregate deductions in memory, then apply.
+     * Consumption rates of the shop's active stock items, keyed by {@code menuItemId|SIZE}
+     * ({@code menuItemId|} for any size). Cached per shop and evicted on every node when rates or a
+     * stock item change, so the order path does not query them.
+     */
+    public Map<String, List<ConsumptionRate>> consumptionRates(Long shopId) {
+        return catalogCache.get(CacheConfig.CONSUMPTION_RATES, CacheKeys.shopKey(CacheKeys.RATES, shopId),
+                () -> loadConsumptionRates(shopId));
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.CONSUMPTION_RATES;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.RATES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null || !CacheKeys.hasPrefix(key, CacheKeys.RATES)) {
+            return null;
+        }
+        return loadConsumptionRates(shopId);
+    }
+
+    private Map<String, List<ConsumptionRate>> loadConsumptionRates(Long shopId) {
+        Map<String, List<ConsumptionRate>> rateIndex = new HashMap<>();
+        for (StockItemConsumption rate : stockItemConsumptionRepository.findActiveByShopId(shopId)) {
+            rateIndex.computeIfAbsent(rateKey(rate.getMenuItem().getId(), rate.getSizeCode()), k -> new ArrayList<>())
+                    .add(new ConsumptionRate(rate.getStockItem().getId(), rate.getQuantityPerServing()));
+        }
+        return rateIndex;
+    }
+
+    private void evictConsumptionRates(StockItem stockItem) {
+        Long shopId = stockItem.getShop() != null ? stockItem.getShop().getId() : shopContextService.requireCurrentShopId();
+        catalogCache.evict(CacheConfig.CONSUMPTION_RATES, CacheKeys.shopKey(CacheKeys.RATES, shopId));
+    }
+
+    /**
+     * Use the shop's cached consumption rates, aggregate deductions in memory, then apply.
      * Size match: merge exact (menuItemId, sizeCode) with any-size (menuItemId, null);
      * if the same stock item has both rows, exact wins.
+     * Returns the ids of the stock items deducted, for the warning check on the order.
      */
     @Transactional
-    public void deductStockForOrder(Order order) {
+    public Set<Long> deductStockForOrder(Order order) {
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
         if (orderItems == null || orderItems.isEmpty()) {
-            return;
+            return Set.of();
         }
 
         Long shopId = order.getShop() != null
                 ? order.getShop().getId()
                 : shopContextService.requireCurrentShopId();
 
-        List<StockItemConsumption> rates = stockItemConsumptionRepository.findActiveByShopId(shopId);
-        // key: menuItemId|SIZE or menuItemId| → list of rates
-        Map<String, List<StockItemConsumption>> rateIndex = new HashMap<>();
-        for (StockItemConsumption rate : rates) {
-            String key = rateKey(rate.getMenuItem().getId(), rate.getSizeCode());
-            rateIndex.computeIfAbsent(key, k -> new ArrayList<>()).add(rate);
-        }
+        Map<String, List<ConsumptionRate>> rateIndex = consumptionRates(shopId);
 
         // stockItemId -> total quantity to deduct
         Map<Long, BigDecimal> deductTotals = new HashMap<>();
         // stockItemId -> notes fragments
         Map<Long, StringBuilder> notes = new HashMap<>();
-        Map<Long, StockItem> stockById = new HashMap<>();
 
         for (OrderItem orderItem : orderItems) {
             int lineQty = orderItem.getQuantity() != null ? orderItem.getQuantity() : 1;
@@ -340,7 +418,7 @@ public class StockManagementService {
                     }
                     int componentQty = lineQty * (ci.getQuantity() != null ? ci.getQuantity() : 1);
                     accumulateDeduction(ci.getMenuItem().getId(), null, componentQty, rateIndex,
-                            deductTotals, notes, stockById, ci.getMenuItem().getNameEn());
+                            deductTotals, notes, ci.getMenuItem().getNameEn());
                 }
             } else if (orderItem.getMenuItem() != null) {
                 accumulateDeduction(
@@ -350,22 +428,54 @@ public class StockManagementService {
                         rateIndex,
                         deductTotals,
                         notes,
-                        stockById,
                         orderItem.getMenuItem().getNameEn());
             }
         }
 
         if (deductTotals.isEmpty()) {
             log.info("No consumption rates matched for order: {}", order.getOrderNumber());
-            return;
+            return Set.of();
         }
 
+        // Only the row-update path needs the stock items loaded; the others write by id
+        boolean updateRows = !stockWriteBehindService.isEnabled() && !stockLedgerService.isAppendOnlySales();
+        Map<Long, StockItem> stockById = updateRows
+                ? stockItemRepository.findAllById(deductTotals.keySet()).stream()
+                        .collect(Collectors.toMap(StockItem::getId, stockItem -> stockItem))
+                : null;
+
         List<StockTransaction> transactions = new ArrayList<>();
         for (Map.Entry<Long, BigDecimal> entry : deductTotals.entrySet()) {
             Long stockItemId = entry.getKey();
             BigDecimal quantityToDeduct = entry.getValue();
-            StockItem stockItem = stockById.get(stockItemId);
-            if (stockItem == null) {
+            StockItem stockItem = updateRows ? stockById.get(stockItemId) : null;
+            if (updateRows && stockItem == null) {
+                continue;
+            }
+
+            String note = notes.containsKey(stockItemId)
+                    ? "Sale deduct: " + notes.get(stockItemId)
+                    : "Deducted for order";
+            note = note.length() > 500 ? note.substring(0, 500) : note;
+            stockForecastService.recordSale(stockItemId, quantityToDeduct);
+
+            if (stockWriteBehindService.isEnabled()) {
+                // Buffered in memory and the local write-ahead log; flushed in batches
+                stockWriteBehindService.recordSale(stockItemId, order.getId(), quantityToDeduct, note);
+                continue;
+            }
+
+            if (stockLedgerService.isAppendOnlySales()) {
+                // Append the delta only; the stock row is refreshed from the ledger in the background
+                transactions.add(StockTransaction.builder()
+                        .stockItem(stockItemRepository.getReferenceById(stockItemId))
+                        .transactionType(StockTransaction.TransactionType.SALE)
+                        .quantity(quantityToDeduct)
+                        .delta(quantityToDeduct.negate())
+                        .referenceType("ORDER")
+                        .referenceId(order.getId())
+                        .notes(note)
+                        .build());
                 continue;
             }
 
@@ -380,51 +490,49 @@ public class StockManagementService {
             stockItem.setCurrentQuantity(newQuantity);
             stockItemRepository.save(stockItem);
 
-            String note = notes.containsKey(stockItemId)
-                    ? "Sale deduct: " + notes.get(stockItemId)
-                    : "Deducted for order";
             transactions.add(StockTransaction.builder()
                     .stockItem(stockItem)
                     .transactionType(StockTransaction.TransactionType.SALE)
                     .quantity(quantityToDeduct)
+                    .delta(newQuantity.subtract(previousQuantity))
                     .previousQuantity(previousQuantity)
                     .newQuantity(newQuantity)
                     .referenceType("ORDER")
                     .referenceId(order.getId())
-                    .notes(note.length() > 500 ? note.substring(0, 500) : note)
+                    .notes(note)
                     .build());
         }
 
         stockTransactionRepository.saveAll(transactions);
-        log.info("Stock deducted for order {}: {} stock items updated", order.getOrderNumber(), transactions.size());
+        log.info("Stock deducted for order {}: {} stock items updated", order.getOrderNumber(), deductTotals.size());
+        return deductTotals.keySet();
     }
 
     private void accumulateDeduction(
             Long menuItemId,
             String sizeCode,
             int quantity,
-            Map<String, List<StockItemConsumption>> rateIndex,
+            Map<String, List<ConsumptionRate>> rateIndex,
             Map<Long, BigDecimal> deductTotals,
             Map<Long, StringBuilder> notes,
-            Map<Long, StockItem> stockById,
             String menuItemName) {
 
         // Exact size rates + any-size (null) rates. If the same stock item has both,
         // prefer the exact size row (do not double-deduct).
-        List<StockItemConsumption> exact = sizeCode != null
+        List<ConsumptionRate> exact = sizeCode != null
                 ? rateIndex.get(rateKey(menuItemId, sizeCode))
                 : null;
-        List<StockItemConsumption> anySize = rateIndex.get(rateKey(menuItemId, null));
+        List<ConsumptionRate> anySize = rateIndex.get(rateKey(menuItemId, null));
 
-        Map<Long, StockItemConsumption> byStockId = new LinkedHashMap<>();
+        Map<Long, ConsumptionRate> byStockId = new LinkedHashMap<>();
         if (anySize != null) {
-            for (StockItemConsumption rate : anySize) {
-                byStockId.put(rate.getStockItem().getId(), rate);
+            for (ConsumptionRate rate : anySize) {
+                byStockId.put(rate.stockItemId(), rate);
             }
         }
         if (exact != null) {
-            for (StockItemConsumption rate : exact) {
-                byStockId.put(rate.getStockItem().getId(), rate);
+            for (ConsumptionRate rate : exact) {
+                byStockId.put(rate.stockItemId(), rate);
             }
         }
 
@@ -432,12 +540,10 @@ public class StockManagementService {
             return;
         }
 
-        for (StockItemConsumption rate : byStockId.values()) {
-            StockItem stockItem = rate.getStockItem();
-            Long stockId = stockItem.getId();
-            stockById.putIfAbsent(stockId, stockItem);
+        for (ConsumptionRate rate : byStockId.values()) {
+            Long stockId = rate.stockItemId();
 
-            BigDecimal lineDeduct = rate.getQuantityPerServing().multiply(BigDecimal.valueOf(quantity));
+            BigDecimal lineDeduct = rate.quantityPerServing().multiply(BigDecimal.valueOf(quantity));
             deductTotals.merge(stockId, lineDeduct, BigDecimal::add);
 
             notes.computeIfAbsent(stockId, k -> new StringBuilder())
@@ -474,7 +580,7 @@ public class StockManagementService {
         StockItem stockItem = stockItemRepository.findById(stockItemId)
                 .orElseThrow(() -> new RuntimeException("Stock item not found"));
 
-        BigDecimal previousQuantity = stockItem.getCurrentQuantity();
+        BigDecimal previousQuantity = onHandQuantity(stockItem);
         BigDecimal newQuantity = previousQuantity.add(quantity);
 
         if (newQuantity.compareTo(BigDecimal.ZERO) < 0) {
@@ -488,6 +594,7 @@ public class StockManagementService {
                 .stockItem(stockItem)
                 .transactionType(StockTransaction.TransactionType.ADJUSTMENT)
                 .quantity(quantity)
+                .delta(quantity)
                 .previousQuantity(previousQuantity)
                 .newQuantity(newQuantity)
                 .referenceType("MANUAL")
@@ -498,6 +605,23 @@ public class StockManagementService {
         log.info("Adjusted stock for {}: {} -> {}", stockItem.getNameEn(), previousQuantity, newQuantity);
     }
 
+    /**
+     * Quantity on hand at {@code to}, plus sale consumption over {@code (from, to]} when {@code from} is given.
+     */
+    @Transactional(readOnly = true)
+    public StockLedgerResponse getStockLedger(Long stockItemId, LocalDateTime from, LocalDateTime to) {
+        StockItem stockItem = requireShopStockItem(stockItemId);
+        LocalDateTime at = to != null ? to : LocalDateTime.now();
+        return StockLedgerResponse.builder()
+                .stockItemId(stockItem.getId())
+                .unit(stockItem.getUnit())
+                .quantity(stockLedgerService.quantityAt(stockItemId, at))
+                .consumed(from != null ? stockLedgerService.consumptionBetween(stockItemId, from, at) : null)
+                .from(from)
+                .to(at)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public StockItemResponse findByBarcode(String rawCode) {
         String code = normalizeBarcode(rawCode);
@@ -550,6 +674,21 @@ public class StockManagementService {
         return barcode.trim();
     }
 
+    /**
+     * With append-only sales the row lags the ledger, so relative changes start from the ledger total.
+     * Must run before the entity is modified, since write-behind mode reloads it.
+     */
+    private BigDecimal onHandQuantity(StockItem stockItem) {
+        if (stockWriteBehindService.isEnabled()) {
+            // Charge buffered sales first so the absolute change lands after them
+            stockWriteBehindService.flush();
+            entityManager.refresh(stockItem);
+        }
+        return stockLedgerService.isAppendOnlySales()
+                ? stockLedgerService.currentQuantity(stockItem.getId())
+                : stockItem.getCurrentQuantity();
+    }
+
     private static Long savedShopId(StockItem stockItem) {
         return stockItem.getShop() != null ? stockItem.getShop().getId() : null;
     }
@@ -565,7 +704,29 @@ public class StockManagementService {
         });
     }
 
+    public List<StockForecastResponse> getStockForecasts() {
+        Long shopId = shopContextService.requireCurrentShopId();
+        return stockItemRepository.findByShopIdOrderByNameEnAsc(shopId).stream()
+                .filter(StockItem::getIsActive)
+                .map(stockItem -> stockForecastService.forecast(stockItem, effectiveQuantity(stockItem)))
+                .collect(Collectors.toList());
+    }
+
+    public StockForecastResponse getStockForecast(Long stockItemId) {
+        StockItem stockItem = requireShopStockItem(stockItemId);
+        return stockForecastService.forecast(stockItem, effectiveQuantity(stockItem));
+    }
+
+    /** On-hand quantity including write-behind deductions not yet flushed */
+    BigDecimal effectiveQuantity(StockItem stockItem) {
+        return stockWriteBehindService.isEnabled()
+                ? stockItem.getCurrentQuantity().add(stockWriteBehindService.pendingDelta(stockItem.getId())).max(BigDecimal.ZERO)
+                : stockItem.getCurrentQuantity();
+    }
+
     private StockItemResponse mapToStockItemResponse(StockItem stockItem) {
+        BigDecimal currentQuantity = effectiveQuantity(stockItem);
+        StockForecastResponse forecast = stockForecastService.forecast(stockItem, currentQuantity);
         return StockItemResponse.builder()
                 .id(stockItem.getId())
                 .nameEn(stockItem.getNameEn())
@@ -573,14 +734,20 @@ public class StockManagementService {
                 .descriptionEn(stockItem.getDescriptionEn())
                 .descriptionUr(stockItem.getDescriptionUr())
                 .unit(stockItem.getUnit())
-                .currentQuantity(stockItem.getCurrentQuantity())
+                .currentQuantity(currentQuantity)
                 .minThreshold(stockItem.getMinThreshold())
                 .isActive(stockItem.getIsActive())
-                .isLowStock(stockItem.isLowStock())
+                .isLowStock(currentQuantity.compareTo(stockItem.getMinThreshold()) <= 0)
                 .barcode(stockItem.getBarcode())
                 .scanPackQty(stockItem.getScanPackQty() != null ? stockItem.getScanPackQty() : BigDecimal.ONE)
+                .daysOfCover(forecast.getDaysOfCover())
+                .projectedStockOutAt(forecast.getProjectedStockOutAt())
                 .createdAt(stockItem.getCreatedAt())
                 .updatedAt(stockItem.getUpdatedAt())
                 .build();
     }
+
+    /** One stock item consumed by a menu item (and size), per serving */
+    public record ConsumptionRate(Long stockItemId, BigDecimal quantityPerServing) {
+    }
 }
@@ -1,73 +1,133 @@
 package com.fastfood.order.application.service;
 
+import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock warning settings from {@code brand_config}. Both values are read in one query and held in
+ * the {@link CacheConfig#STOCK_WARNING_CONFIG} cache, so warning checks on the order path never
+ * touch the table. Updates evict the entry on every node through the cache invalidation bus.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class StockWarningConfigService {
+public class StockWarningConfigService implements CacheReloader {
 
     private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
     private static final String CONFIG_KEY = "STOCK_WARNING_INTERVAL_HOURS";
     private static final String ALERTS_ENABLED_KEY = "STOCK_ALERTS_ENABLED";
+    private static final String INTERVAL_DESCRIPTION = "Stock warning check interval in hours";
+    private static final String ALERTS_ENABLED_DESCRIPTION = "Enable/disable stock alerts notifications";
     private static final int DEFAULT_INTERVAL_HOURS = 2;
     private static final boolean DEFAULT_ALERTS_ENABLED = true;
+    /** brand_config has no shop column, so one entry serves every shop */
+    private static final String CACHE_KEY = "stock-warnings";
 
-    public int getWarningIntervalHours() {
-        String value = readConfigValue(CONFIG_KEY);
-        if (value == null) {
-            ensureConfig(CONFIG_KEY, String.valueOf(DEFAULT_INTERVAL_HOURS),
-                    "Stock warning check interval in hours");
-            return DEFAULT_INTERVAL_HOURS;
+    public record StockWarningConfig(boolean alertsEnabled, int intervalHours) {
+
+        public long intervalMillis() {
+            return intervalHours * 3600000L;
         }
+    }
+
+    /**
+     * Current settings; falls back to the defaults (uncached) while the table cannot be read.
+     */
+    public StockWarningConfig getConfig() {
         try {
-            return Integer.parseInt(value.trim());
-        } catch (NumberFormatException e) {
-            log.warn("Invalid stock warning interval '{}', using default {}", value, DEFAULT_INTERVAL_HOURS);
-            return DEFAULT_INTERVAL_HOURS;
+            return catalogCache.get(CacheConfig.STOCK_WARNING_CONFIG, CACHE_KEY, this::loadConfig);
+        } catch (Exception e) {
+            log.warn("Error reading stock warning config, using defaults: {}", e.getMessage());
+            return new StockWarningConfig(DEFAULT_ALERTS_ENABLED, DEFAULT_INTERVAL_HOURS);
         }
     }
 
+    public int getWarningIntervalHours() {
+        return getConfig().intervalHours();
+    }
+
     public void setWarningIntervalHours(int hours) {
-        ensureConfig(CONFIG_KEY, String.valueOf(hours), "Stock warning check interval in hours");
+        ensureConfig(CONFIG_KEY, String.valueOf(hours), INTERVAL_DESCRIPTION);
+        catalogCache.evict(CacheConfig.STOCK_WARNING_CONFIG, CACHE_KEY);
         log.info("Updated stock warning interval to {} hours", hours);
     }
 
     public long getWarningIntervalMillis() {
-        return getWarningIntervalHours() * 3600000L;
+        return getConfig().intervalMillis();
     }
 
     public boolean isAlertsEnabled() {
-        String value = readConfigValue(ALERTS_ENABLED_KEY);
-        if (value == null) {
-            ensureConfig(ALERTS_ENABLED_KEY, String.valueOf(DEFAULT_ALERTS_ENABLED),
-                    "Enable/disable stock alerts notifications");
-            return DEFAULT_ALERTS_ENABLED;
-        }
-        return Boolean.parseBoolean(value.trim());
+        return getConfig().alertsEnabled();
     }
 
     public void setAlertsEnabled(boolean enabled) {
-        ensureConfig(ALERTS_ENABLED_KEY, String.valueOf(enabled),
-                "Enable/disable stock alerts notifications");
+        ensureConfig(ALERTS_ENABLED_KEY, String.valueOf(enabled), ALERTS_ENABLED_DESCRIPTION);
+        catalogCache.evict(CacheConfig.STOCK_WARNING_CONFIG, CACHE_KEY);
         log.info("Updated stock alerts enabled to {}", enabled);
     }
 
-    private String readConfigValue(String key) {
+    @Override
+    public String cacheName() {
+        return CacheConfig.STOCK_WARNING_CONFIG;
+    }
+
+    @Override
+    public Object reload(Object key) {
+        return CACHE_KEY.equals(key) ? loadConfig() : null;
+    }
+
+    private StockWarningConfig loadConfig() {
+        Map<String, String> values = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT config_key, config_value FROM brand_config WHERE config_key IN (?, ?)",
+                rs -> {
+                    values.put(rs.getString(1), rs.getString(2));
+                },
+                CONFIG_KEY, ALERTS_ENABLED_KEY);
+
+        String interval = values.get(CONFIG_KEY);
+        if (interval == null) {
+            ensureDefault(CONFIG_KEY, String.valueOf(DEFAULT_INTERVAL_HOURS), INTERVAL_DESCRIPTION);
+        }
+        String alertsEnabled = values.get(ALERTS_ENABLED_KEY);
+        if (alertsEnabled == null) {
+            ensureDefault(ALERTS_ENABLED_KEY, String.valueOf(DEFAULT_ALERTS_ENABLED), ALERTS_ENABLED_DESCRIPTION);
+        }
+        return new StockWarningConfig(
+                alertsEnabled != null ? Boolean.parseBoolean(alertsEnabled.trim()) : DEFAULT_ALERTS_ENABLED,
+                parseInterval(interval));
+    }
+
+    private int parseInterval(String value) {
+        if (value == null) {
+            return DEFAULT_INTERVAL_HOURS;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid stock warning interval '{}', using default {}", value, DEFAULT_INTERVAL_HOURS);
+            return DEFAULT_INTERVAL_HOURS;
+        }
+    }
+
+    /** Seeds a missing key; a failure only means the default is not persisted yet */
+    private void ensureDefault(String key, String value, String description) {
         try {
-            return jdbcTemplate.query(
-                    "SELECT config_value FROM brand_config WHERE config_key = ?",
-                    rs -> rs.next() ? rs.getString(1) : null,
-                    key);
-        } catch (EmptyResultDataAccessException e) {
-            return null;
+            jdbcTemplate.update(
+                    "INSERT INTO brand_config (config_key, config_value, description, updated_at) " +
+                            "VALUES (?, ?, ?, CURRENT_TIMESTAMP) ON CONFLICT (config_key) DO NOTHING",
+                    key, value, description);
         } catch (Exception e) {
-            log.warn("Error reading brand_config key {}: {}", key, e.getMessage());
-            return null;
+            log.warn("Could not seed brand_config key {}: {}", key, e.getMessage());
         }
     }
 
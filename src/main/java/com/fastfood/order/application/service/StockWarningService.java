@@ -5,14 +5,32 @@ import com.fastfood.order.domain.entity.StockItem;
 import com.fastfood.order.domain.entity.StockWarning;
 import com.fastfood.order.infrastructure.repository.StockItemRepository;
 import com.fastfood.order.infrastructure.repository.StockWarningRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,135 +41,288 @@ public class StockWarningService {
     private final StockItemRepository stockItemRepository;
     private final StockWarningRepository stockWarningRepository;
     private final StockWarningConfigService configService;
+    private final StockForecastService stockForecastService;
+    private final StockManagementService stockManagementService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /** Message templates shared by the Java path and the SQL {@code format()} of the scan */
+    private static final String LOW_STOCK_EN = "Low stock alert: %s has only %s %s remaining (threshold: %s %s)";
+    private static final String LOW_STOCK_UR = "کم اسٹاک انتباہ: %s میں صرف %s %s باقی ہے (حد: %s %s)";
+
+    /** Relies on uk_stock_warnings_open_item: one open warning per item, replaced once it is stale */
+    private static final String UPSERT_CONFLICT =
+            " ON CONFLICT (stock_item_id) WHERE is_acknowledged = false DO UPDATE SET " +
+            "warning_message_en = EXCLUDED.warning_message_en, " +
+            "warning_message_ur = EXCLUDED.warning_message_ur, " +
+            "current_quantity = EXCLUDED.current_quantity, " +
+            "threshold_quantity = EXCLUDED.threshold_quantity, " +
+            "created_at = EXCLUDED.created_at " +
+            "WHERE stock_warnings.created_at < ?";
+
+    private static final String UPSERT_WARNING_SQL =
+            "INSERT INTO stock_warnings (stock_item_id, warning_message_en, warning_message_ur, " +
+            "current_quantity, threshold_quantity, is_acknowledged, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?)" + UPSERT_CONFLICT;
+
+    /**
+     * Low items of one shop (through idx_stock_items_low_stock) and their warnings in a single
+     * statement; returns the number of low items and of warnings created or refreshed.
+     */
+    private static final String SCAN_LOW_STOCK_SQL =
+            "WITH low AS (" +
+            "  SELECT id, name_en, COALESCE(NULLIF(name_ur, ''), name_en) AS name_ur, unit, current_quantity, min_threshold" +
+            "  FROM stock_items" +
+            "  WHERE shop_id = ? AND is_active = true AND current_quantity <= min_threshold" +
+            "), written AS (" +
+            "  INSERT INTO stock_warnings (stock_item_id, warning_message_en, warning_message_ur, " +
+            "      current_quantity, threshold_quantity, is_acknowledged, created_at)" +
+            "  SELECT id," +
+            "      format(?, name_en, round(current_quantity, 2), unit, round(min_threshold, 2), unit)," +
+            "      format(?, name_ur, round(current_quantity, 2), unit, round(min_threshold, 2), unit)," +
+            "      current_quantity, min_threshold, false, ?" +
+            "  FROM low" + UPSERT_CONFLICT +
+            "  RETURNING 1" +
+            ") SELECT (SELECT count(*) FROM low), (SELECT count(*) FROM written)";
+
+    @Value("${app.stock.warnings.scan-parallelism:4}")
+    private int scanParallelism;
+
+    private ExecutorService scanExecutor;
+
+    @PostConstruct
+    void startScanExecutor() {
+        AtomicInteger sequence = new AtomicInteger();
+        scanExecutor = Executors.newFixedThreadPool(Math.max(1, scanParallelism), runnable -> {
+            Thread thread = new Thread(runnable, "stock-warning-scan-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopScanExecutor() {
+        scanExecutor.shutdownNow();
+    }
 
     /**
      * Check for low stock items and create warnings
-     * Runs every hour, but only creates warnings based on configured interval
+     * Runs every hour as the stock-warning-scan cluster job, but only creates warnings based on
+     * configured interval. Each active shop is
+     * scanned in its own transaction, up to {@code app.stock.warnings.scan-parallelism} at a time.
      */
-    @Scheduled(fixedRate = 3600000) // Check every hour
-    @Transactional
     public void checkAndCreateStockWarnings() {
         // Check if alerts are enabled
-        if (!configService.isAlertsEnabled()) {
+        StockWarningConfigService.StockWarningConfig config = configService.getConfig();
+        if (!config.alertsEnabled()) {
             log.debug("Stock alerts are disabled, skipping warning check");
             return;
         }
         
-        int intervalHours = configService.getWarningIntervalHours();
+        int intervalHours = config.intervalHours();
         log.info("Checking for low stock items (configured interval: {} hours)...", intervalHours);
-        
-        List<StockItem> allStockItems = stockItemRepository.findAll();
-        
-        for (StockItem stockItem : allStockItems) {
-            if (!stockItem.getIsActive()) {
-                continue;
-            }
-            
-            if (stockItem.isLowStock()) {
-                createStockWarning(stockItem, intervalHours);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Long> shopIds = jdbcTemplate.queryForList("SELECT id FROM shops WHERE is_active = true ORDER BY id", Long.class);
+        List<Callable<ShopScan>> scans = shopIds.stream()
+                .map(shopId -> (Callable<ShopScan>) () -> scanShop(shopId, intervalHours))
+                .toList();
+
+        long lowItems = 0;
+        long forecastItems = 0;
+        long written = 0;
+        int failed = 0;
+        try {
+            List<Future<ShopScan>> results = scanExecutor.invokeAll(scans);
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    ShopScan scan = results.get(i).get();
+                    lowItems += scan.lowItems();
+                    forecastItems += scan.forecastItems();
+                    written += scan.written();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("Stock warning check failed for shop {}", shopIds.get(i), e.getCause());
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Stock warning check interrupted");
+            return;
         }
-        
-        log.info("Stock warning check completed");
+
+        sample.stop(meterRegistry.timer("stock.warnings.scan.duration"));
+        meterRegistry.counter("stock.warnings.scan.items", "kind", "low").increment(lowItems);
+        meterRegistry.counter("stock.warnings.scan.items", "kind", "forecast").increment(forecastItems);
+        meterRegistry.counter("stock.warnings.scan.written").increment(written);
+        meterRegistry.counter("stock.warnings.scan.shops", "outcome", "ok").increment(shopIds.size() - failed);
+        meterRegistry.counter("stock.warnings.scan.shops", "outcome", "failed").increment(failed);
+        log.info("Stock warning check completed: {} shops ({} failed), {} low and {} forecast items, {} warnings created or refreshed",
+                shopIds.size(), failed, lowItems, forecastItems, written);
     }
 
     /**
-     * Check for low stock items immediately (called when placing orders)
+     * Low items are found and warned about in one statement; forecast stock-outs are only checked
+     * for the shop's items that have consumption history.
+     */
+    private ShopScan scanShop(Long shopId, int intervalHours) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime refreshBefore = now.minusHours(intervalHours);
+            long[] low = jdbcTemplate.queryForObject(SCAN_LOW_STOCK_SQL,
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                    shopId, LOW_STOCK_EN, LOW_STOCK_UR, now, refreshBefore);
+
+            long forecastItems = 0;
+            long written = low[1];
+            Set<Long> tracked = stockForecastService.trackedItemIds();
+            if (!tracked.isEmpty()) {
+                for (StockItem stockItem : stockItemRepository.findByShopIdAndIsActiveTrueAndIdIn(shopId, tracked)) {
+                    if (stockItem.isLowStock()) {
+                        continue;
+                    }
+                    BigDecimal currentQuantity = stockManagementService.effectiveQuantity(stockItem);
+                    Optional<LocalDateTime> stockOut = stockForecastService.imminentStockOut(stockItem, currentQuantity);
+                    if (stockOut.isPresent()) {
+                        forecastItems++;
+                        if (upsertWarning(stockItem, currentQuantity, now, refreshBefore,
+                                stockOutMessageEn(stockItem, currentQuantity, stockOut.get()),
+                                stockOutMessageUr(stockItem, currentQuantity, stockOut.get()))) {
+                            written++;
+                        }
+                    }
+                }
+            }
+            return new ShopScan(low[0], forecastItems, written);
+        });
+    }
+
+    /**
+     * Checks the stock items an order just deducted, in the order's shop (called when placing
+     * orders). The other items did not change and are covered by the hourly scan.
      */
     @Transactional
-    public List<StockWarningResponse> checkStockWarningsOnOrder() {
+    public List<StockWarningResponse> checkStockWarningsOnOrder(Long shopId, Collection<Long> stockItemIds) {
+        if (stockItemIds.isEmpty()) {
+            return new java.util.ArrayList<>();
+        }
         // Check if alerts are enabled
-        if (!configService.isAlertsEnabled()) {
+        StockWarningConfigService.StockWarningConfig config = configService.getConfig();
+        if (!config.alertsEnabled()) {
             log.debug("Stock alerts are disabled, skipping warning check on order");
             return new java.util.ArrayList<>();
         }
         
         List<StockWarningResponse> warnings = new java.util.ArrayList<>();
-        List<StockItem> allStockItems = stockItemRepository.findAll();
+        List<StockItem> deductedItems = stockItemRepository.findAllById(stockItemIds);
         
-        for (StockItem stockItem : allStockItems) {
-            if (!stockItem.getIsActive()) {
+        for (StockItem stockItem : deductedItems) {
+            if (!stockItem.getIsActive() || stockItem.getShop() == null
+                    || !shopId.equals(stockItem.getShop().getId())) {
                 continue;
             }
             
-            if (stockItem.isLowStock()) {
-                // Create warning if it doesn't exist
-                createStockWarning(stockItem, configService.getWarningIntervalHours());
-                
-                // Add to response
-                String messageEn = String.format("Low stock alert: %s has only %.2f %s remaining (threshold: %.2f %s)",
-                        stockItem.getNameEn(),
-                        stockItem.getCurrentQuantity().doubleValue(),
-                        stockItem.getUnit(),
-                        stockItem.getMinThreshold().doubleValue(),
-                        stockItem.getUnit());
-                
-                String messageUr = String.format("کم اسٹاک انتباہ: %s میں صرف %.2f %s باقی ہے (حد: %.2f %s)",
-                        stockItem.getNameUr() != null && !stockItem.getNameUr().isEmpty() ? stockItem.getNameUr() : stockItem.getNameEn(),
-                        stockItem.getCurrentQuantity().doubleValue(),
-                        stockItem.getUnit(),
-                        stockItem.getMinThreshold().doubleValue(),
-                        stockItem.getUnit());
-                
-                warnings.add(StockWarningResponse.builder()
-                        .stockItemId(stockItem.getId())
-                        .stockItemNameEn(stockItem.getNameEn())
-                        .stockItemNameUr(stockItem.getNameUr())
-                        .warningMessageEn(messageEn)
-                        .warningMessageUr(messageUr)
-                        .currentQuantity(stockItem.getCurrentQuantity())
-                        .thresholdQuantity(stockItem.getMinThreshold())
-                        .isAcknowledged(false)
-                        .build());
+            String messageEn;
+            String messageUr;
+            BigDecimal currentQuantity = stockManagementService.effectiveQuantity(stockItem);
+            if (currentQuantity.compareTo(stockItem.getMinThreshold()) <= 0) {
+                messageEn = lowStockMessageEn(stockItem, currentQuantity);
+                messageUr = lowStockMessageUr(stockItem, currentQuantity);
+            } else {
+                Optional<LocalDateTime> stockOut = stockForecastService.imminentStockOut(stockItem, currentQuantity);
+                if (stockOut.isEmpty()) {
+                    continue;
+                }
+                messageEn = stockOutMessageEn(stockItem, currentQuantity, stockOut.get());
+                messageUr = stockOutMessageUr(stockItem, currentQuantity, stockOut.get());
             }
+
+            // Create warning if it doesn't exist
+            createStockWarning(stockItem, currentQuantity, config.intervalHours(), messageEn, messageUr);
+
+            // Add to response
+            warnings.add(StockWarningResponse.builder()
+                    .stockItemId(stockItem.getId())
+                    .stockItemNameEn(stockItem.getNameEn())
+                    .stockItemNameUr(stockItem.getNameUr())
+                    .warningMessageEn(messageEn)
+                    .warningMessageUr(messageUr)
+                    .currentQuantity(currentQuantity)
+                    .thresholdQuantity(stockItem.getMinThreshold())
+                    .isAcknowledged(false)
+                    .build());
         }
         
         return warnings;
     }
 
-    @Transactional
-    private void createStockWarning(StockItem stockItem, int intervalHours) {
-        // Check if there's already an unacknowledged warning for this item
-        List<StockWarning> existingWarnings = stockWarningRepository
-                .findByStockItemIdAndIsAcknowledgedFalse(stockItem.getId());
-        
-        if (!existingWarnings.isEmpty()) {
-            // Update existing warning timestamp if it's older than configured interval
-            StockWarning existingWarning = existingWarnings.get(0);
-            if (existingWarning.getCreatedAt().isBefore(LocalDateTime.now().minusHours(intervalHours))) {
-                // Delete old warning and create new one
-                stockWarningRepository.delete(existingWarning);
-            } else {
-                // Warning already exists and is recent, skip
-                return;
-            }
+    private void createStockWarning(StockItem stockItem, BigDecimal currentQuantity, int intervalHours,
+                                    String messageEn, String messageUr) {
+        LocalDateTime now = LocalDateTime.now();
+        if (upsertWarning(stockItem, currentQuantity, now, now.minusHours(intervalHours), messageEn, messageUr)) {
+            log.info("Created stock warning for: {}", stockItem.getNameEn());
         }
-        
-        String messageEn = String.format("Low stock alert: %s has only %.2f %s remaining (threshold: %.2f %s)",
+    }
+
+    /**
+     * Opens a warning for the item, or replaces its open warning when that is older than
+     * {@code refreshBefore}. Returns false when a recent open warning was left as it is.
+     */
+    private boolean upsertWarning(StockItem stockItem, BigDecimal currentQuantity, LocalDateTime now,
+                                  LocalDateTime refreshBefore, String messageEn, String messageUr) {
+        return jdbcTemplate.update(UPSERT_WARNING_SQL, stockItem.getId(), messageEn, messageUr,
+                currentQuantity, stockItem.getMinThreshold(), now, refreshBefore) > 0;
+    }
+
+    private String lowStockMessageEn(StockItem stockItem, BigDecimal currentQuantity) {
+        return String.format(LOW_STOCK_EN,
                 stockItem.getNameEn(),
-                stockItem.getCurrentQuantity().doubleValue(),
+                quantity(currentQuantity),
                 stockItem.getUnit(),
-                stockItem.getMinThreshold().doubleValue(),
+                quantity(stockItem.getMinThreshold()),
                 stockItem.getUnit());
-        
-        String messageUr = String.format("کم اسٹاک انتباہ: %s میں صرف %.2f %s باقی ہے (حد: %.2f %s)",
-                stockItem.getNameUr() != null && !stockItem.getNameUr().isEmpty() ? stockItem.getNameUr() : stockItem.getNameEn(),
-                stockItem.getCurrentQuantity().doubleValue(),
+    }
+
+    private String lowStockMessageUr(StockItem stockItem, BigDecimal currentQuantity) {
+        return String.format(LOW_STOCK_UR,
+                nameUr(stockItem),
+                quantity(currentQuantity),
                 stockItem.getUnit(),
-                stockItem.getMinThreshold().doubleValue(),
+                quantity(stockItem.getMinThreshold()),
                 stockItem.getUnit());
-        
-        StockWarning warning = StockWarning.builder()
-                .stockItem(stockItem)
-                .warningMessageEn(messageEn)
-                .warningMessageUr(messageUr)
-                .currentQuantity(stockItem.getCurrentQuantity())
-                .thresholdQuantity(stockItem.getMinThreshold())
-                .isAcknowledged(false)
-                .build();
-        
-        stockWarningRepository.save(warning);
-        log.info("Created stock warning for: {}", stockItem.getNameEn());
+    }
+
+    /** Same text as {@code round(x, 2)} in the scan's SQL {@code format()} */
+    private static String quantity(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private String stockOutMessageEn(StockItem stockItem, BigDecimal currentQuantity, LocalDateTime stockOut) {
+        return String.format("Stock-out forecast: %s (%.2f %s left) is expected to run out in about %.1f hours",
+                stockItem.getNameEn(),
+                currentQuantity.doubleValue(),
+                stockItem.getUnit(),
+                hoursUntil(stockOut));
+    }
+
+    private String stockOutMessageUr(StockItem stockItem, BigDecimal currentQuantity, LocalDateTime stockOut) {
+        return String.format("اسٹاک ختم ہونے کی پیشگوئی: %s (%.2f %s باقی) تقریباً %.1f گھنٹوں میں ختم ہو جائے گا",
+                nameUr(stockItem),
+                currentQuantity.doubleValue(),
+                stockItem.getUnit(),
+                hoursUntil(stockOut));
+    }
+
+    private static String nameUr(StockItem stockItem) {
+        return stockItem.getNameUr() != null && !stockItem.getNameUr().isEmpty() ? stockItem.getNameUr() : stockItem.getNameEn();
+    }
+
+    private static double hoursUntil(LocalDateTime at) {
+        return Math.max(0, Duration.between(LocalDateTime.now(), at).toMinutes() / 60.0);
+    }
+
+    private record ShopScan(long lowItems, long forecastItems, long written) {
     }
 
     public List<StockWarningResponse> getActiveWarnings() {
@@ -0,0 +1,547 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Optional write-behind path for order stock deductions ({@code app.stock.write-behind.enabled}).
+ *
+ * <p>The deductions of an order transaction are appended to a local write-ahead segment just
+ * before it commits ({@code beforeCommit}), and the commit waits until they are on disk. A failed
+ * append therefore rolls the order back instead of losing its deduction. Appends are group-committed
+ * by a single writer thread: every batch queued while the previous write and fsync ran goes out in
+ * one write and one fsync, so checkouts share the disk flush instead of queueing on a lock. Committed
+ * batches are added to a striped per-item {@link LongAdder} in fixed-point units.</p>
+ *
+ * <p>Every few hundred milliseconds the active segment is sealed and, once each of its batches knows
+ * its transaction outcome, written in one database transaction: the SALE ledger rows plus one
+ * aggregated row update per stock item. A sealed segment file is deleted only after that commit.
+ * Segments left by a crash, segments with a batch of unknown outcome, and segments retried after a
+ * failed flush (which may have committed) are written with the guarded insert, which skips sales
+ * already recorded and sales of orders that never committed.</p>
+ */
+@Slf4j
+@Service
+public class StockWriteBehindService {
+
+    /** Fixed-point scale matching {@code stock_transactions.delta} (4 decimals) */
+    private static final BigDecimal UNITS_PER_QUANTITY = BigDecimal.valueOf(10_000);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("stock-wal-(\\d+)\\.log");
+    private static final int MAX_GROUP_SIZE = 512;
+
+    private static final String INSERT_SALE_SQL = """
+            INSERT INTO stock_transactions
+                (stock_item_id, transaction_type, quantity, delta, reference_type, reference_id, notes, created_at)
+            VALUES (?, 'SALE', ?, ?, 'ORDER', ?, ?, ?)
+            """;
+
+    /** For entries whose order may not have committed, or whose sale may already be recorded */
+    private static final String GUARDED_SALE_SQL = """
+            INSERT INTO stock_transactions
+                (stock_item_id, transaction_type, quantity, delta, reference_type, reference_id, notes, created_at)
+            SELECT ?, 'SALE', ?, ?, 'ORDER', ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM orders WHERE id = ?)
+              AND NOT EXISTS (
+                SELECT 1 FROM stock_transactions
+                WHERE stock_item_id = ? AND transaction_type = 'SALE'
+                  AND reference_type = 'ORDER' AND reference_id = ?
+            )
+            """;
+
+    private static final String APPLY_ROW_SQL = """
+            UPDATE stock_items
+            SET current_quantity = GREATEST(current_quantity - ?, 0),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final StockLedgerService stockLedgerService;
+
+    @Value("${app.stock.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stock.write-behind.wal-directory:data/stock-wal}")
+    private String walDirectory;
+
+    /** Force each group write to disk; without it the log survives a JVM crash but not a power loss */
+    @Value("${app.stock.write-behind.fsync:true}")
+    private boolean fsync;
+
+    /** How long a commit waits for its append before rolling back */
+    @Value("${app.stock.write-behind.append-timeout-ms:5000}")
+    private long appendTimeoutMs;
+
+    /** stockItemId -> deducted units not yet written to the database (negative) */
+    private final Map<Long, LongAdder> pendingUnits = new ConcurrentHashMap<>();
+    /** Sealed segments waiting for (or retrying) their database flush, oldest first */
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    private final BlockingQueue<Batch> appendQueue = new LinkedBlockingQueue<>();
+    /** Held by the writer thread for a group write and by the flush to swap segments; never by checkouts */
+    private final Object segmentLock = new Object();
+    private final Object flushLock = new Object();
+
+    private volatile Segment active;
+    private volatile boolean running;
+    private Thread writerThread;
+    private long nextSegment;
+
+    public StockWriteBehindService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   StockLedgerService stockLedgerService) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Flushes commit on their own, also when triggered from inside a caller's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a sale deduction. Inside a transaction it is written to the log before the commit,
+     * together with the transaction's other deductions, and counts once the commit succeeds.
+     */
+    public void recordSale(Long stockItemId, Long orderId, BigDecimal quantity, String note) {
+        WalEntry entry = new WalEntry(stockItemId, orderId, toUnits(quantity), note, System.currentTimeMillis());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Batch batch = new Batch();
+            batch.entries.add(entry);
+            append(batch);
+            batch.resolve(Outcome.COMMITTED, pendingUnits);
+            return;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new BatchSynchronization(batch));
+        }
+        batch.entries.add(entry);
+    }
+
+    /**
+     * Deducted quantity not yet written to {@code stock_items}; zero or negative.
+     */
+    public BigDecimal pendingDelta(Long stockItemId) {
+        LongAdder adder = pendingUnits.get(stockItemId);
+        return adder != null ? fromUnits(adder.sum()) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Picks up segments left by a previous run (the first flush replays them) and starts the writer.
+     */
+    @PostConstruct
+    void openWriteAheadLog() {
+        if (!enabled) {
+            return;
+        }
+        Path directory = Paths.get(walDirectory);
+        List<Path> segments = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(p -> SEGMENT_NAME.matcher(p.getFileName().toString()).matches())
+                        .sorted(Comparator.comparingLong(StockWriteBehindService::segmentNumber))
+                        .forEach(segments::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open stock write-ahead directory " + directory, e);
+        }
+
+        synchronized (segmentLock) {
+            for (Path path : segments) {
+                Segment segment = new Segment(path);
+                // Outcome unknown: the process died between the append and the flush
+                Batch recovered = new Batch();
+                recovered.entries.addAll(readEntries(path));
+                recovered.outcome = Outcome.UNKNOWN;
+                segment.batches.add(recovered);
+                segment.guarded = true;
+                sealed.addLast(segment);
+                nextSegment = Math.max(nextSegment, segmentNumber(path) + 1);
+            }
+            active = openSegment();
+        }
+        if (!segments.isEmpty()) {
+            log.info("Found {} unflushed stock write-ahead segment(s) to replay", segments.size());
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "stock-wal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.write-behind.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled || active == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            synchronized (segmentLock) {
+                if (!active.batches.isEmpty()) {
+                    active.close();
+                    sealed.addLast(active);
+                    active = openSegment();
+                }
+            }
+            Segment segment;
+            while ((segment = peekSealed()) != null) {
+                if (!segment.resolved()) {
+                    // A transaction is between its append and its commit; it finishes in moments
+                    return;
+                }
+                try {
+                    writeToDatabase(segment);
+                } catch (Exception e) {
+                    // The failure may have come after the commit, so the retry must not record twice
+                    segment.guarded = true;
+                    log.warn("Stock write-behind flush failed, will retry: {}", e.getMessage());
+                    return;
+                }
+                synchronized (segmentLock) {
+                    sealed.pollFirst();
+                }
+                segment.delete();
+                for (Batch batch : segment.batches) {
+                    if (batch.outcome == Outcome.COMMITTED) {
+                        for (WalEntry entry : batch.entries) {
+                            pendingUnits.get(entry.stockItemId()).add(entry.units());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+        synchronized (segmentLock) {
+            if (active != null) {
+                active.close();
+                if (active.batches.isEmpty()) {
+                    active.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the batch for the writer and waits until it is in the log (and on disk with fsync).
+     */
+    private void append(Batch batch) {
+        if (!running) {
+            throw new IllegalStateException("Stock write-ahead log is not open");
+        }
+        appendQueue.add(batch);
+        try {
+            batch.appended.get(appendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException("Cannot append stock deductions to the write-ahead log",
+                    e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out appending stock deductions to the write-ahead log");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending stock deductions to the write-ahead log");
+        }
+    }
+
+    private void writeLoop() {
+        List<Batch> group = new ArrayList<>();
+        while (running) {
+            try {
+                Batch first = appendQueue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                appendQueue.drainTo(group, MAX_GROUP_SIZE - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+        Batch left;
+        while ((left = appendQueue.poll()) != null) {
+            left.appended.completeExceptionally(new IOException("Stock write-ahead log is closed"));
+        }
+    }
+
+    private void writeGroup(List<Batch> group) {
+        StringBuilder lines = new StringBuilder(group.size() * 160);
+        try {
+            for (Batch batch : group) {
+                for (WalEntry entry : batch.entries) {
+                    lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            group.forEach(batch -> batch.appended.completeExceptionally(e));
+            return;
+        }
+        synchronized (segmentLock) {
+            try {
+                active.write(lines.toString(), fsync);
+            } catch (IOException e) {
+                // The segment may end in a torn line; keep it for the batches already in it and start a new one
+                active.close();
+                if (!active.batches.isEmpty()) {
+                    sealed.addLast(active);
+                } else {
+                    active.delete();
+                }
+                active = openSegment();
+                group.forEach(batch -> batch.appended.completeExceptionally(e));
+                log.error("Stock write-ahead append failed, rolling back {} transaction(s): {}", group.size(), e.getMessage());
+                return;
+            }
+            active.batches.addAll(group);
+        }
+        group.forEach(batch -> batch.appended.complete(null));
+    }
+
+    private void writeToDatabase(Segment segment) {
+        List<WalEntry> entries = new ArrayList<>();
+        boolean guarded = segment.guarded;
+        for (Batch batch : segment.batches) {
+            if (batch.outcome == Outcome.ABORTED) {
+                continue;
+            }
+            guarded |= batch.outcome == Outcome.UNKNOWN;
+            entries.addAll(batch.entries);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        boolean useGuard = guarded;
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> sales = new ArrayList<>(entries.size());
+            Map<Long, Long> unitsByItem = new TreeMap<>();
+            for (WalEntry entry : entries) {
+                BigDecimal quantity = fromUnits(entry.units());
+                Timestamp createdAt = Timestamp.valueOf(stockLedgerService.ledgerTimestamp(entry.createdAtMillis()));
+                if (useGuard) {
+                    sales.add(new Object[]{entry.stockItemId(), quantity, quantity.negate(), entry.orderId(),
+                            entry.note(), createdAt, entry.orderId(), entry.stockItemId(), entry.orderId()});
+                } else {
+                    sales.add(new Object[]{entry.stockItemId(), quantity, quantity.negate(), entry.orderId(),
+                            entry.note(), createdAt});
+                }
+                unitsByItem.merge(entry.stockItemId(), entry.units(), Long::sum);
+            }
+            int[] inserted = jdbcTemplate.batchUpdate(useGuard ? GUARDED_SALE_SQL : INSERT_SALE_SQL, sales);
+
+            if (!stockLedgerService.isAppendOnlySales()) {
+                if (useGuard) {
+                    // Only charge the row for the sales this flush actually recorded
+                    unitsByItem.clear();
+                    for (int i = 0; i < inserted.length; i++) {
+                        if (inserted[i] != 0) {
+                            WalEntry entry = entries.get(i);
+                            unitsByItem.merge(entry.stockItemId(), entry.units(), Long::sum);
+                        }
+                    }
+                }
+                // Ordered by stock item id so concurrent writers lock rows in the same order
+                List<Object[]> rows = new ArrayList<>(unitsByItem.size());
+                unitsByItem.forEach((stockItemId, units) -> rows.add(new Object[]{fromUnits(units), stockItemId}));
+                jdbcTemplate.batchUpdate(APPLY_ROW_SQL, rows);
+            }
+        });
+        log.debug("Flushed {} write-behind stock deductions", entries.size());
+    }
+
+    private Segment peekSealed() {
+        synchronized (segmentLock) {
+            return sealed.peekFirst();
+        }
+    }
+
+    private Segment openSegment() {
+        return new Segment(Paths.get(walDirectory, "stock-wal-" + (nextSegment++) + ".log"));
+    }
+
+    private List<WalEntry> readEntries(Path path) {
+        List<WalEntry> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, WalEntry.class));
+                } catch (IOException e) {
+                    // A torn last line from a crash mid-write
+                    log.warn("Skipping unreadable stock write-ahead entry in {}", path.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read stock write-ahead segment " + path, e);
+        }
+        return entries;
+    }
+
+    private static long segmentNumber(Path path) {
+        Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    private static long toUnits(BigDecimal quantity) {
+        return quantity.multiply(UNITS_PER_QUANTITY).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, 4);
+    }
+
+    record WalEntry(Long stockItemId, Long orderId, long units, String note, long createdAtMillis) {
+    }
+
+    private enum Outcome { PENDING, COMMITTED, ABORTED, UNKNOWN }
+
+    /**
+     * The deductions of one transaction, appended together before its commit.
+     */
+    private static final class Batch {
+        private final List<WalEntry> entries = new ArrayList<>();
+        private final CompletableFuture<Void> appended = new CompletableFuture<>();
+        private volatile Outcome outcome = Outcome.PENDING;
+
+        private void resolve(Outcome result, Map<Long, LongAdder> pendingUnits) {
+            if (result == Outcome.COMMITTED) {
+                // Negative units: the adder holds what the row has not been charged yet
+                for (WalEntry entry : entries) {
+                    pendingUnits.computeIfAbsent(entry.stockItemId(), id -> new LongAdder()).add(-entry.units());
+                }
+            }
+            outcome = result;
+        }
+    }
+
+    private final class BatchSynchronization implements TransactionSynchronization {
+
+        private final Batch batch;
+
+        private BatchSynchronization(Batch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Throwing here rolls the order back, so a deduction is never committed without its log entry
+            append(batch);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockWriteBehindService.this);
+            Outcome outcome = switch (status) {
+                case STATUS_COMMITTED -> Outcome.COMMITTED;
+                case STATUS_ROLLED_BACK -> Outcome.ABORTED;
+                default -> Outcome.UNKNOWN;
+            };
+            batch.resolve(outcome, pendingUnits);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final List<Batch> batches = new ArrayList<>();
+        /** Write with the guarded insert: replayed after a crash, or retried after a failed flush */
+        private volatile boolean guarded;
+        private FileChannel channel;
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+
+        /** Every batch knows whether its transaction committed */
+        private boolean resolved() {
+            return batches.stream().noneMatch(batch -> batch.outcome == Outcome.PENDING);
+        }
+
+        private void write(String lines, boolean force) throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        }
+
+        private void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Could not close stock write-ahead segment {}: {}", path.getFileName(), e.getMessage());
+                }
+                channel = null;
+            }
+        }
+
+        private void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete flushed stock write-ahead segment {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
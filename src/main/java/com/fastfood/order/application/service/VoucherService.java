@@ -4,10 +4,12 @@ import com.fastfood.order.application.dto.VoucherRequest;
 import com.fastfood.order.application.dto.VoucherResponse;
 import com.fastfood.order.domain.entity.Voucher;
 import com.fastfood.order.infrastructure.config.CacheConfig;
+import com.fastfood.order.infrastructure.config.CacheKeys;
+import com.fastfood.order.infrastructure.config.CacheReloader;
+import com.fastfood.order.infrastructure.config.CatalogCache;
 import com.fastfood.order.infrastructure.repository.VoucherRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +21,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
-public class VoucherService {
+public class VoucherService implements CacheReloader {
 
     private final VoucherRepository voucherRepository;
     private final ShopContextService shopContextService;
+    private final CatalogCache catalogCache;
 
-    @CacheEvict(value = CacheConfig.ACTIVE_VOUCHERS, allEntries = true)
     public VoucherResponse createVoucher(VoucherRequest request) {
         log.info("Creating voucher: {}", request.getCode());
 
@@ -45,10 +47,10 @@ public class VoucherService {
                 .build();
 
         voucher = voucherRepository.save(voucher);
+        evictActiveVouchers(voucher);
         return mapToResponse(voucher);
     }
 
-    @CacheEvict(value = CacheConfig.ACTIVE_VOUCHERS, allEntries = true)
     public VoucherResponse updateVoucher(Long id, VoucherRequest request) {
         log.info("Updating voucher with ID: {}", id);
 
@@ -70,6 +72,7 @@ public class VoucherService {
         }
 
         voucher = voucherRepository.save(voucher);
+        evictActiveVouchers(voucher);
         return mapToResponse(voucher);
     }
 
@@ -104,21 +107,48 @@ public class VoucherService {
     @Transactional(readOnly = true)
     @Cacheable(value = CacheConfig.ACTIVE_VOUCHERS, key = "'active-' + @shopContextService.requireCurrentShopId()")
     public List<VoucherResponse> getActiveVouchers() {
-        Long shopId = shopContextService.requireCurrentShopId();
-        return voucherRepository.findByShopIdAndIsActiveTrue(shopId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return loadActiveVouchers(shopContextService.requireCurrentShopId());
+    }
+
+    @Override
+    public String cacheName() {
+        return CacheConfig.ACTIVE_VOUCHERS;
+    }
+
+    @Override
+    public List<String> shopKeyPrefixes() {
+        return List.of(CacheKeys.ACTIVE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object reload(Object key) {
+        Long shopId = CacheKeys.shopId(key);
+        if (shopId == null || !CacheKeys.hasPrefix(key, CacheKeys.ACTIVE)) {
+            return null;
+        }
+        return loadActiveVouchers(shopId);
     }
 
-    @CacheEvict(value = CacheConfig.ACTIVE_VOUCHERS, allEntries = true)
     public void deleteVoucher(Long id) {
         log.info("Deleting voucher with ID: {}", id);
-        if (!voucherRepository.existsById(id)) {
-            throw new RuntimeException("Voucher not found with ID: " + id);
-        }
+        Voucher voucher = voucherRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Voucher not found with ID: " + id));
+        evictActiveVouchers(voucher);
         voucherRepository.deleteById(id);
     }
 
+    private void evictActiveVouchers(Voucher voucher) {
+        Long shopId = voucher.getShop() != null ? voucher.getShop().getId() : shopContextService.requireCurrentShopId();
+        catalogCache.evict(CacheConfig.ACTIVE_VOUCHERS, CacheKeys.shopKey(CacheKeys.ACTIVE, shopId));
+    }
+
+    private List<VoucherResponse> loadActiveVouchers(Long shopId) {
+        return voucherRepository.findByShopIdAndIsActiveTrue(shopId).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     private VoucherResponse mapToResponse(Voucher voucher) {
         return VoucherResponse.builder()
                 .id(voucher.getId())
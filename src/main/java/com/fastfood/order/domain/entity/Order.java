@@ -11,6 +11,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
@@ -28,6 +29,10 @@ public class Order {
     @Column(nullable = false, unique = true, length = 50)
     private String orderNumber;
 
+    /** Id assigned by the POS terminal; makes offline re-submission idempotent per shop */
+    @Column(name = "client_uuid")
+    private UUID clientUuid;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shop_id")
     private Shop shop;
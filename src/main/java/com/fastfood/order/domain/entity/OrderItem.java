@@ -68,8 +68,19 @@ public class OrderItem {
     @Builder.Default
     private java.util.List<OrderItemAddOn> addOns = new java.util.ArrayList<>();
 
+    /** Copy of the order's date: the partition key shared by orders, order_items and order_item_add_ons */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime orderDate;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @PrePersist
+    void copyOrderDate() {
+        if (orderDate == null && order != null) {
+            orderDate = order.getOrderDate();
+        }
+    }
 }
 
@@ -46,7 +46,18 @@ public class OrderItemAddOn {
     @Builder.Default
     private Integer quantity = 1;
 
+    /** Copy of the order's date: the partition key shared by orders, order_items and order_item_add_ons */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime orderDate;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @PrePersist
+    void copyOrderDate() {
+        if (orderDate == null && orderItem != null) {
+            orderDate = orderItem.getOrderDate() != null ? orderItem.getOrderDate() : orderItem.getOrder().getOrderDate();
+        }
+    }
 }
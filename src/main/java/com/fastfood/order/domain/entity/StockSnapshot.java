@@ -0,0 +1,47 @@
+package com.fastfood.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger checkpoint of one stock item: quantity and cumulative sale consumption including every
+ * transaction created up to {@code snapshotAt}. {@code lastTransactionId} is the highest id folded
+ * in, for information only; ids are not in commit order.
+ */
+@Entity
+@Table(name = "stock_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stock_item_id", nullable = false)
+    private Long stockItemId;
+
+    @Column(nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(nullable = false, precision = 14, scale = 4)
+    private BigDecimal quantity;
+
+    @Column(nullable = false, precision = 16, scale = 4)
+    private BigDecimal consumedTotal;
+
+    @Column(nullable = false)
+    private Long lastTransactionId;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
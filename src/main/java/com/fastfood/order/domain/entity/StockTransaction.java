@@ -32,10 +32,15 @@ public class StockTransaction {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal quantity;
 
-    @Column(nullable = false, precision = 10, scale = 2)
+    /** Signed change applied to the on-hand quantity; summed by the stock ledger */
+    @Column(nullable = false, precision = 12, scale = 4)
+    private BigDecimal delta;
+
+    /** Row quantity around the change; null for deltas appended without touching the row */
+    @Column(precision = 10, scale = 2)
     private BigDecimal previousQuantity;
 
-    @Column(nullable = false, precision = 10, scale = 2)
+    @Column(precision = 10, scale = 2)
     private BigDecimal newQuantity;
 
     @Column(length = 50)
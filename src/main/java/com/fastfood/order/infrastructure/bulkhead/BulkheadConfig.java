@@ -0,0 +1,31 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class BulkheadConfig {
+
+    /**
+     * Wraps the application DataSource in {@link BulkheadDataSource}. Static, and resolving the
+     * bulkheads lazily, so the post-processor does not pull beans into early initialisation.
+     * Only the {@code dataSource} bean is wrapped, not pools it routes to.
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<WorkloadBulkheads> bulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, bulkheads.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Makes every connection checked out on a request thread count against that request's
+ * {@link WorkloadClass} budget. The permit is returned when the connection is closed.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final WorkloadBulkheads bulkheads;
+
+    public BulkheadDataSource(DataSource targetDataSource, WorkloadBulkheads bulkheads) {
+        super(targetDataSource);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        WorkloadClass workloadClass = WorkloadBulkheads.current();
+        if (workloadClass == null || !bulkheads.isEnabled()) {
+            return super.getConnection();
+        }
+        WorkloadBulkheads.Bulkhead bulkhead = bulkheads.get(workloadClass);
+        try {
+            if (!bulkhead.tryAcquireConnection()) {
+                throw new SQLTransientConnectionException(
+                        "Database connection budget of " + workloadClass + " is exhausted");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+        }
+        try {
+            return permitReleasing(super.getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+    }
+
+    private static Connection permitReleasing(Connection connection, WorkloadBulkheads.Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        bulkhead.releaseConnection();
+                    }
+                    if ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName())) {
+                        if (((Class<?>) args[0]).isInstance(connection)) {
+                            return "unwrap".equals(method.getName()) ? connection : true;
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,31 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Binds the request's {@link WorkloadClass} on the MVC task executor while a {@code Callable} or
+ * {@code StreamingResponseBody} runs, so its database connections count against the class budget
+ * the request was admitted under.
+ */
+@Component
+public class WorkloadAsyncInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object workloadClass = request.getAttribute(WorkloadBulkheadFilter.WORKLOAD_CLASS_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (workloadClass instanceof WorkloadClass admittedClass) {
+            WorkloadBulkheads.bind(admittedClass);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        WorkloadBulkheads.unbind();
+    }
+}
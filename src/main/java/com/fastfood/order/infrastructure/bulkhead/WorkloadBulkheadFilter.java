@@ -0,0 +1,164 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits each /api request into its {@link WorkloadClass} bulkhead, or answers 503 with
+ * {@code Retry-After} when the class is saturated. Runs ahead of security so rejected requests
+ * cost no authentication work.
+ *
+ * <p>An async request (streamed export, {@code Callable}, {@code DeferredResult}) keeps its permit
+ * until the async request completes, errors or times out, not just until the container thread
+ * returns; its async dispatches run bound to the same class without taking another permit.</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class WorkloadBulkheadFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the admitted class, read by async dispatches and async workers */
+    static final String WORKLOAD_CLASS_ATTRIBUTE = WorkloadBulkheadFilter.class.getName() + ".workloadClass";
+
+    private final WorkloadBulkheads bulkheads;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkheads.isEnabled()
+                || "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // The permit is still held by the initial dispatch and released by its AsyncListener
+            WorkloadClass admittedClass = (WorkloadClass) request.getAttribute(WORKLOAD_CLASS_ATTRIBUTE);
+            WorkloadBulkheads.bind(admittedClass);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                WorkloadBulkheads.unbind();
+            }
+            return;
+        }
+
+        WorkloadClass workloadClass = WorkloadClass.classify(request.getMethod(), path(request));
+        WorkloadBulkheads.Bulkhead bulkhead = bulkheads.get(workloadClass);
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(request, response, workloadClass);
+            return;
+        }
+
+        request.setAttribute(WORKLOAD_CLASS_ATTRIBUTE, workloadClass);
+        WorkloadBulkheads.bind(workloadClass);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitRelease(bulkhead));
+                async = true;
+            }
+        } finally {
+            WorkloadBulkheads.unbind();
+            if (!async) {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    /**
+     * Returns the permit of an async request once, on whichever of complete, error or timeout
+     * the container reports first.
+     */
+    private static final class PermitRelease implements AsyncListener {
+
+        private final WorkloadBulkheads.Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitRelease(WorkloadBulkheads.Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next cycle when the same request starts async again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, WorkloadClass workloadClass)
+            throws IOException {
+        log.warn("Bulkhead {} is full, rejecting {} {}", workloadClass, request.getMethod(), path(request));
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", "Server is busy, please retry");
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.getWriter().write(objectMapper.writeValueAsString(body));
+    }
+
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return uri.startsWith(contextPath) ? uri.substring(contextPath.length()) : uri;
+    }
+}
@@ -0,0 +1,171 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-{@link WorkloadClass} budgets: a request semaphore with a bounded, time-limited wait queue,
+ * and a separate semaphore over database connections. Both fail fast instead of parking Tomcat
+ * threads behind a saturated class.
+ *
+ * <p>Limits are read from {@code app.bulkhead.<class>.*} (see application.yml). The class of the
+ * current request is bound to the thread by {@link WorkloadBulkheadFilter}; work without one
+ * (scheduled jobs, startup) is not limited.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkloadBulkheads implements MeterBinder {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private final Environment environment;
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    private boolean enabled;
+
+    @PostConstruct
+    void init() {
+        enabled = environment.getProperty("app.bulkhead.enabled", Boolean.class, true);
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            String prefix = "app.bulkhead." + workloadClass.propertyName() + ".";
+            Bulkhead bulkhead = new Bulkhead(
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, workloadClass.defaultMaxConcurrent()),
+                    environment.getProperty(prefix + "max-queue", Integer.class, workloadClass.defaultMaxQueue()),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, workloadClass.defaultMaxWaitMs()),
+                    environment.getProperty(prefix + "db-connections", Integer.class, workloadClass.defaultDbConnections()),
+                    environment.getProperty(prefix + "db-wait-ms", Long.class, workloadClass.defaultDbWaitMs()));
+            bulkheads.put(workloadClass, bulkhead);
+            log.info("Bulkhead {}: {} concurrent, queue {}, {} db connections",
+                    workloadClass, bulkhead.maxConcurrent, bulkhead.maxQueue, bulkhead.dbConnections);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Bulkhead get(WorkloadClass workloadClass) {
+        return bulkheads.get(workloadClass);
+    }
+
+    /** The class of the request running on this thread, or null outside a request. */
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    static void bind(WorkloadClass workloadClass) {
+        CURRENT.set(workloadClass);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bulkheads.forEach((workloadClass, bulkhead) -> {
+            Tags tags = Tags.of("class", workloadClass.propertyName());
+            Gauge.builder("bulkhead.active", bulkhead, b -> b.maxConcurrent - b.requestPermits.availablePermits())
+                    .tags(tags).description("Requests currently running in the class").register(registry);
+            Gauge.builder("bulkhead.queued", bulkhead, b -> b.waiting.get())
+                    .tags(tags).description("Requests waiting for a slot in the class").register(registry);
+            Gauge.builder("bulkhead.db.connections.active", bulkhead, b -> b.dbConnections - b.connectionPermits.availablePermits())
+                    .tags(tags).description("Database connections held by the class").register(registry);
+            FunctionCounter.builder("bulkhead.calls", bulkhead, b -> b.accepted.sum())
+                    .tags(tags.and("outcome", "accepted")).register(registry);
+            FunctionCounter.builder("bulkhead.calls", bulkhead, b -> b.rejectedQueueFull.sum())
+                    .tags(tags.and("outcome", "queue_full")).register(registry);
+            FunctionCounter.builder("bulkhead.calls", bulkhead, b -> b.rejectedTimeout.sum())
+                    .tags(tags.and("outcome", "timeout")).register(registry);
+            FunctionCounter.builder("bulkhead.db.rejected", bulkhead, b -> b.rejectedConnections.sum())
+                    .tags(tags).description("Connection requests refused by the class budget").register(registry);
+        });
+    }
+
+    /**
+     * Budgets of one workload class.
+     */
+    public static final class Bulkhead {
+
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final long maxWaitMs;
+        private final int dbConnections;
+        private final long dbWaitMs;
+        private final Semaphore requestPermits;
+        private final Semaphore connectionPermits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejectedQueueFull = new LongAdder();
+        private final LongAdder rejectedTimeout = new LongAdder();
+        private final LongAdder rejectedConnections = new LongAdder();
+
+        Bulkhead(int maxConcurrent, int maxQueue, long maxWaitMs, int dbConnections, long dbWaitMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWaitMs = maxWaitMs;
+            this.dbConnections = dbConnections;
+            this.dbWaitMs = dbWaitMs;
+            this.requestPermits = new Semaphore(maxConcurrent, true);
+            this.connectionPermits = new Semaphore(dbConnections, true);
+        }
+
+        /**
+         * Takes a request slot, waiting up to max-wait-ms when fewer than max-queue requests are
+         * already waiting. Returns false when the request should be rejected.
+         */
+        boolean tryEnter() throws InterruptedException {
+            if (requestPermits.tryAcquire()) {
+                accepted.increment();
+                return true;
+            }
+            if (waiting.incrementAndGet() > maxQueue) {
+                waiting.decrementAndGet();
+                rejectedQueueFull.increment();
+                return false;
+            }
+            try {
+                if (requestPermits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    accepted.increment();
+                    return true;
+                }
+                rejectedTimeout.increment();
+                return false;
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        void exit() {
+            requestPermits.release();
+        }
+
+        boolean tryAcquireConnection() throws InterruptedException {
+            if (connectionPermits.tryAcquire(dbWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejectedConnections.increment();
+            return false;
+        }
+
+        void releaseConnection() {
+            connectionPermits.release();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.fastfood.order.infrastructure.bulkhead;
+
+/**
+ * Route classes that get their own request and database-connection budgets, so a burst in one
+ * (e.g. a long analytics report) cannot starve order capture. Defaults are tuned for the
+ * 400-thread Tomcat pool and 20-connection Hikari pool in application.yml.
+ */
+public enum WorkloadClass {
+
+    /** Placing and updating orders at the counter. */
+    ORDER_CAPTURE("order-capture", 200, 100, 2000, 10, 3000),
+    /** Reads the floor needs while serving: order queue, menu, stock warnings, settings. */
+    KITCHEN("kitchen", 100, 50, 1000, 5, 2000),
+    /** Back-office: analytics, search, stock and catalog maintenance. */
+    ADMIN("admin", 40, 20, 500, 4, 1000),
+    /** Login, licensing and other unauthenticated endpoints. */
+    PUBLIC("public", 40, 40, 500, 3, 1000);
+
+    private final String propertyName;
+    private final int defaultMaxConcurrent;
+    private final int defaultMaxQueue;
+    private final long defaultMaxWaitMs;
+    private final int defaultDbConnections;
+    private final long defaultDbWaitMs;
+
+    WorkloadClass(String propertyName, int defaultMaxConcurrent, int defaultMaxQueue, long defaultMaxWaitMs,
+                  int defaultDbConnections, long defaultDbWaitMs) {
+        this.propertyName = propertyName;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueue = defaultMaxQueue;
+        this.defaultMaxWaitMs = defaultMaxWaitMs;
+        this.defaultDbConnections = defaultDbConnections;
+        this.defaultDbWaitMs = defaultDbWaitMs;
+    }
+
+    /**
+     * Classifies a request by method and path (relative to the context path).
+     */
+    public static WorkloadClass classify(String method, String path) {
+        if (path.startsWith("/api/auth/")
+                || path.startsWith("/api/public/")
+                || path.startsWith("/api/license")
+                || path.startsWith("/api/files/serve")
+                || path.startsWith("/api/franchise-inquiries")
+                || path.startsWith("/api/receipt/")) {
+            return PUBLIC;
+        }
+        boolean read = "GET".equalsIgnoreCase(method);
+        if (path.startsWith("/api/orders")) {
+            if (path.startsWith("/api/orders/search") || path.startsWith("/api/orders/export")) {
+                return ADMIN;
+            }
+            return read ? KITCHEN : ORDER_CAPTURE;
+        }
+        if (read && (path.startsWith("/api/menu/")
+                || path.startsWith("/api/stock/warnings")
+                || path.startsWith("/api/settings"))) {
+            return KITCHEN;
+        }
+        return ADMIN;
+    }
+
+    public String propertyName() {
+        return propertyName;
+    }
+
+    int defaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    int defaultMaxQueue() {
+        return defaultMaxQueue;
+    }
+
+    long defaultMaxWaitMs() {
+        return defaultMaxWaitMs;
+    }
+
+    int defaultDbConnections() {
+        return defaultDbConnections;
+    }
+
+    long defaultDbWaitMs() {
+        return defaultDbWaitMs;
+    }
+}
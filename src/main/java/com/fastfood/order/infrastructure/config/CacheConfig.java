@@ -1,14 +1,34 @@
 package com.fastfood.order.infrastructure.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fastfood.order.infrastructure.datasource.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -19,16 +39,128 @@ public class CacheConfig {
     public static final String COMBOS = "combos";
     public static final String SETTINGS = "settings";
     public static final String ACTIVE_VOUCHERS = "activeVouchers";
+    public static final String STOCK_WARNING_CONFIG = "stockWarningConfig";
+    public static final String CONSUMPTION_RATES = "consumptionRates";
+
+    private static final long KB = 1024;
+    private static final long MB = 1024 * KB;
+
+    /**
+     * Entries are weighed by their serialized JSON size, so one shop with a 300-item menu uses its
+     * real share of the budget instead of counting as a single entry next to a 10-item shop.
+     * Entries are reloaded in the background after {@code refreshAfter} while readers keep getting
+     * the old value; {@code expireAfter} is the hard ceiling when reloads keep failing.
+     */
+    private static final Map<String, CacheSpec> SPECS = Map.of(
+            MENU_CATEGORIES, new CacheSpec(4 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            MENU_ITEMS, new CacheSpec(48 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            ADD_ONS, new CacheSpec(4 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            COMBOS, new CacheSpec(16 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            SETTINGS, new CacheSpec(1 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            ACTIVE_VOUCHERS, new CacheSpec(4 * MB, Duration.ofMinutes(1), Duration.ofMinutes(10)),
+            STOCK_WARNING_CONFIG, new CacheSpec(64 * KB, Duration.ofMinutes(5), Duration.ofMinutes(30)),
+            CONSUMPTION_RATES, new CacheSpec(8 * MB, Duration.ofMinutes(5), Duration.ofMinutes(30))
+    );
+
+    /** Weight used when a value cannot be serialized for measuring. */
+    private static final int FALLBACK_WEIGHT = (int) (4 * KB);
+
+    private final ExecutorService reloadExecutor = Executors.newFixedThreadPool(2, new ReloadThreadFactory());
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                MENU_CATEGORIES, MENU_ITEMS, ADD_ONS, COMBOS, SETTINGS, ACTIVE_VOUCHERS
-        );
+    public CacheManager cacheManager(ObjectMapper objectMapper, ObjectProvider<CacheReloader> reloaders) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Fallback for caches requested by a name that has no spec
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(500)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .recordStats());
+
+        SPECS.forEach((name, spec) -> cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumWeight(spec.maxWeightBytes())
+                .weigher((Object key, Object value) -> serializedSize(objectMapper, value))
+                .refreshAfterWrite(spec.refreshAfter())
+                .expireAfterWrite(spec.expireAfter())
+                .executor(reloadExecutor)
+                .recordStats()
+                .build(reloadingLoader(name, reloaders))));
         return cacheManager;
     }
+
+    /**
+     * Exports per-cache hit/miss, load time and eviction meters (plus a hit ratio gauge)
+     * through the actuator {@code metrics} endpoint.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                if (!(cacheManager.getCache(name) instanceof CaffeineCache caffeineCache)) {
+                    continue;
+                }
+                Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                Tags tags = Tags.of("cache.manager", "cacheManager");
+                CaffeineCacheMetrics.monitor(registry, nativeCache, name, tags);
+                Gauge.builder("cache.hit.ratio", nativeCache, c -> c.stats().hitRate())
+                        .tags(tags.and("cache", name))
+                        .description("Fraction of cache lookups that were hits")
+                        .register(registry);
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdownReloadExecutor() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private static CacheLoader<Object, Object> reloadingLoader(String cacheName, ObjectProvider<CacheReloader> reloaders) {
+        return key -> {
+            // Reloaders are services that themselves depend on caching, so resolve them lazily
+            CacheReloader reloader = reloaders.orderedStream()
+                    .filter(r -> cacheName.equals(r.cacheName()))
+                    .findFirst()
+                    .orElse(null);
+            return reloader != null ? ReplicaRoutingDataSource.onPrimary(() -> reloader.reload(key)) : null;
+        };
+    }
+
+    private static int serializedSize(ObjectMapper objectMapper, Object value) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            objectMapper.writeValue(out, value);
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1, out.count));
+        } catch (Exception e) {
+            log.debug("Could not measure cache value of type {}: {}", value.getClass().getName(), e.getMessage());
+            return FALLBACK_WEIGHT;
+        }
+    }
+
+    private record CacheSpec(long maxWeightBytes, Duration refreshAfter, Duration expireAfter) {
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static final class ReloadThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cache-reload-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,275 @@
+package com.fastfood.order.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fastfood.order.infrastructure.datasource.ReplicaRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Broadcasts cache evictions to the other nodes through PostgreSQL {@code LISTEN/NOTIFY}.
+ *
+ * <p>Notifications are handed to a background sender once the writer's transaction has committed,
+ * so nothing is sent for a rollback and a failed notification cannot abort the write. The sender
+ * takes its own pooled connection after the request has released the writer's, and outside the
+ * request's workload connection budget. A notification lost after the commit (e.g. a crash in
+ * between) leaves the other nodes on their cache TTLs. Every node keeps one dedicated connection
+ * (outside the Hikari pool) listening on the channel and applies the evictions to its local
+ * Caffeine caches as they arrive. After a lost connection the node clears its catalog caches,
+ * since notifications sent while it was away are not replayed.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    /** PostgreSQL rejects NOTIFY payloads of 8000 bytes or more. */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final long SENDER_SHUTDOWN_SECONDS = 5;
+
+    private final CacheManager cacheManager;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Value("${spring.datasource.username}")
+    private String datasourceUsername;
+
+    @Value("${spring.datasource.password}")
+    private String datasourcePassword;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * Tells the other nodes to evict the given keys.
+     */
+    public void publishKeys(String cacheName, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Long shopId = CacheKeys.shopId(keys.get(0));
+        publish(new InvalidationMessage(nodeId, cacheName, shopId, keys, false));
+    }
+
+    /**
+     * Tells the other nodes to evict every entry of one shop.
+     */
+    public void publishShop(String cacheName, Long shopId) {
+        publish(new InvalidationMessage(nodeId, cacheName, shopId, List.of(), false));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        if (!enabled) {
+            log.info("Cluster cache invalidation is disabled");
+            return;
+        }
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid cache invalidation channel name: " + channel);
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stopListening() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        // Let notifications for already committed writes go out
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(SENDER_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Cache invalidation sender did not drain within {} s", SENDER_SHUTDOWN_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(InvalidationMessage message) {
+        if (!enabled) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                // Too many keys for one notification: drop the whole shop, or the whole cache when
+                // the keys are not all of one shop
+                boolean oneShop = message.shopId() != null && message.keys().stream()
+                        .allMatch(key -> Objects.equals(CacheKeys.shopId(key), message.shopId()));
+                payload = objectMapper.writeValueAsString(oneShop
+                        ? new InvalidationMessage(nodeId, message.cache(), message.shopId(), List.of(), false)
+                        : new InvalidationMessage(nodeId, message.cache(), null, List.of(), true));
+            }
+        } catch (Exception e) {
+            log.warn("Could not encode cache invalidation for {}: {}", message.cache(), e.getMessage());
+            return;
+        }
+        String notification = payload;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(message.cache(), notification);
+                }
+            });
+        } else {
+            send(message.cache(), notification);
+        }
+    }
+
+    /**
+     * Queues the notification for the sender thread. Sending from the committing thread would take
+     * a second connection while the writer's is still held, from the request's connection budget.
+     */
+    private void send(String cacheName, String payload) {
+        try {
+            sender.execute(() -> notifyOthers(cacheName, payload));
+        } catch (RejectedExecutionException e) {
+            log.warn("Cache invalidation for {} not sent, the node is shutting down", cacheName);
+        }
+    }
+
+    /**
+     * Sends on a connection of its own; a failure here must not reach the writer.
+     */
+    private void notifyOthers(String cacheName, String payload) {
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                if (!connection.getAutoCommit()) {
+                    connection.setAutoCommit(true);
+                }
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            } catch (SQLException e) {
+                // Other nodes fall back to their cache TTLs
+                log.warn("Could not publish cache invalidation for {}: {}", cacheName, e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    private void listenLoop() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(datasourceUrl, datasourceUsername, datasourcePassword)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    clearLocalCaches();
+                }
+                log.info("Listening for cache invalidations on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+            }
+            reconnecting = true;
+            try {
+                Thread.sleep(RECONNECT_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        try {
+            InvalidationMessage message = objectMapper.readValue(payload, InvalidationMessage.class);
+            if (nodeId.equals(message.node())) {
+                return;
+            }
+            if (message.keys() != null && !message.keys().isEmpty()) {
+                CatalogCache.evictEntries(cacheManager, message.cache(), message.keys());
+            } else if (message.all()) {
+                Cache cache = cacheManager.getCache(message.cache());
+                if (cache != null) {
+                    cache.clear();
+                }
+            } else {
+                CatalogCache.evictShopEntries(cacheManager, message.cache(), message.shopId());
+            }
+            log.debug("Applied remote invalidation of {} for shop {}", message.cache(), message.shopId());
+        } catch (Exception e) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", e.getMessage());
+        }
+    }
+
+    private void clearLocalCaches() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        log.info("Cleared local caches after reconnecting the invalidation listener");
+    }
+
+    /** Evicts {@code keys}, else the whole cache when {@code all}, else every entry of {@code shopId} */
+    record InvalidationMessage(String node, String cache, Long shopId, List<String> keys, boolean all) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.fastfood.order.infrastructure.config;
+
+/**
+ * Key scheme used by the catalog caches: {@code <prefix>-<shopId>} for tenant-wide entries
+ * (e.g. {@code all-1}) and {@code <prefix>-<scopeId>-<shopId>} for entries scoped inside a tenant
+ * (e.g. {@code cat-7-1} for one category).
+ */
+public final class CacheKeys {
+
+    public static final String ALL = "all";
+    public static final String AVAILABLE = "available";
+    public static final String ACTIVE = "active";
+    public static final String CATEGORY = "cat";
+    public static final String SHOP = "shop";
+    public static final String BRANDING = "branding";
+    public static final String RATES = "rates";
+
+    private CacheKeys() {
+    }
+
+    public static String shopKey(String prefix, Long shopId) {
+        return prefix + "-" + shopId;
+    }
+
+    public static String scopedKey(String prefix, Long scopeId, Long shopId) {
+        return prefix + "-" + scopeId + "-" + shopId;
+    }
+
+    public static boolean hasPrefix(Object key, String prefix) {
+        String[] parts = split(key);
+        return parts != null && parts[0].equals(prefix);
+    }
+
+    /**
+     * Shop the key belongs to, or null when the key does not follow this scheme.
+     */
+    public static Long shopId(Object key) {
+        String[] parts = split(key);
+        return parts != null ? parseLong(parts[parts.length - 1]) : null;
+    }
+
+    /**
+     * Middle segment of a scoped key ({@code cat-7-1} → 7), or null for tenant-wide keys.
+     */
+    public static Long scopeId(Object key) {
+        String[] parts = split(key);
+        return parts != null && parts.length == 3 ? parseLong(parts[1]) : null;
+    }
+
+    private static String[] split(Object key) {
+        if (!(key instanceof String value)) {
+            return null;
+        }
+        String[] parts = value.split("-");
+        return parts.length == 2 || parts.length == 3 ? parts : null;
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
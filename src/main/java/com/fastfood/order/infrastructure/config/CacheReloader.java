@@ -0,0 +1,26 @@
+package com.fastfood.order.infrastructure.config;
+
+import java.util.List;
+
+/**
+ * Recomputes entries of one cache from the key alone, without a request or security context.
+ * Used for misses and for the asynchronous refresh-after-write reloads configured in {@link CacheConfig}.
+ */
+public interface CacheReloader {
+
+    String cacheName();
+
+    /**
+     * @return the fresh value, or null when the key is not handled (the entry is then dropped and
+     * the next read rebuilds it through the service)
+     */
+    Object reload(Object key);
+
+    /**
+     * Prefixes of the per-shop keys ({@link CacheKeys#shopKey}) this reloader serves; the startup
+     * warm-up fills these for every active shop.
+     */
+    default List<String> shopKeyPrefixes() {
+        return List.of();
+    }
+}
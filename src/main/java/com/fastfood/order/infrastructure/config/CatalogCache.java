@@ -0,0 +1,105 @@
+package com.fastfood.order.infrastructure.config;
+
+import com.fastfood.order.infrastructure.datasource.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Programmatic access to the catalog caches for reads that must coalesce and for evictions that
+ * must stay inside one tenant. Keys follow {@link CacheKeys}. Evictions are also broadcast to the
+ * other nodes through {@link CacheInvalidationBus}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Returns the cached value or builds it. Concurrent misses for the same key wait for a single
+     * build instead of each hitting the database. Builds read the primary, since an entry outlives
+     * any replica lag.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        try {
+            return (T) cache.get(key, () -> ReplicaRoutingDataSource.onPrimary(loader));
+        } catch (Cache.ValueRetrievalException e) {
+            // Surface the loader's own error (e.g. "Menu category not found") to the caller
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evicts the given keys once the current transaction commits, so a concurrent reader cannot
+     * cache the pre-commit state again.
+     */
+    public void evict(String cacheName, String... keys) {
+        List<String> keyList = List.of(keys);
+        invalidationBus.publishKeys(cacheName, keyList);
+        afterCommit(() -> evictEntries(cacheManager, cacheName, keyList));
+    }
+
+    /**
+     * Evicts every entry of one shop from the cache, leaving other tenants untouched.
+     */
+    public void evictShop(String cacheName, Long shopId) {
+        invalidationBus.publishShop(cacheName, shopId);
+        afterCommit(() -> evictShopEntries(cacheManager, cacheName, shopId));
+    }
+
+    static void evictEntries(CacheManager cacheManager, String cacheName, Collection<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (String key : keys) {
+            cache.evict(key);
+        }
+        log.debug("Evicted {} from cache {}", String.join(", ", keys), cacheName);
+    }
+
+    static void evictShopEntries(CacheManager cacheManager, String cacheName, Long shopId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().asMap().keySet()
+                    .removeIf(key -> Objects.equals(CacheKeys.shopId(key), shopId));
+            log.debug("Evicted shop {} entries from cache {}", shopId, cacheName);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.fastfood.order.infrastructure.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reflection hints for the native image (mvn -Pnative native:compile). Spring AOT covers the beans,
+ * the JPA managed types and the request bodies on its own; this adds what it cannot see:
+ * <ul>
+ *     <li>DTOs and entities serialized by Jackson inside maps and wrappers, and the entities'
+ *     fields and constructors for Hibernate;</li>
+ *     <li>records the services bind to JSON themselves: the stock write-ahead log, the forecast
+ *     state, the archive indexes, cache invalidation messages and cached values (the cache weigher
+ *     serializes every entry);</li>
+ *     <li>the MapStruct mapper implementations, generated at compile time;</li>
+ *     <li>jjwt, which instantiates its implementation classes by name from {@code jjwt-api};</li>
+ *     <li>Caffeine, which picks a generated cache and node class by name for each builder
+ *     configuration and reaches their fields through VarHandles.</li>
+ * </ul>
+ * Evaluated on the JVM at build time, so scanning the classpath here costs nothing at runtime.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String DTO_PACKAGE = "com.fastfood.order.application.dto";
+    private static final String ENTITY_PACKAGE = "com.fastfood.order.domain.entity";
+    private static final List<String> MAPPERS = List.of(
+            "com.fastfood.order.application.mapper.OrderMapperImpl",
+            "com.fastfood.order.application.mapper.OrderItemMapperImpl");
+    private static final List<String> JSON_RECORDS = List.of(
+            "com.fastfood.order.application.service.StockWriteBehindService$WalEntry",
+            "com.fastfood.order.application.service.StockForecastService$Estimator$State",
+            "com.fastfood.order.application.service.OrderArchiveService$SegmentIndex",
+            "com.fastfood.order.application.service.OrderArchiveService$BlockIndex",
+            "com.fastfood.order.application.service.OrderExportService$ExportedOrder",
+            "com.fastfood.order.application.service.OrderExportService$ExportedItem",
+            "com.fastfood.order.application.service.OrderExportService$ExportedAddOn",
+            "com.fastfood.order.application.service.StockWarningConfigService$StockWarningConfig",
+            "com.fastfood.order.application.service.StockManagementService$ConsumptionRate",
+            "com.fastfood.order.infrastructure.config.CacheInvalidationBus$InvalidationMessage");
+    private static final String JJWT_IMPL_PACKAGE = "io.jsonwebtoken.impl";
+    private static final String CAFFEINE_PACKAGE = "com.github.benmanes.caffeine.cache";
+    /** Caffeine's generated classes are named after their features, e.g. SSMSA or PSAMW */
+    private static final Pattern CAFFEINE_GENERATED = Pattern.compile("[A-Z]+");
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String className : scan(DTO_PACKAGE, classLoader)) {
+            bindingHints.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(className, classLoader));
+        }
+        for (String className : scan(ENTITY_PACKAGE, classLoader)) {
+            bindingHints.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(className, classLoader));
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (String className : JSON_RECORDS) {
+            bindingHints.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(className, classLoader));
+        }
+        for (String className : MAPPERS) {
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String className : scan(JJWT_IMPL_PACKAGE, classLoader)) {
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (String className : scan(CAFFEINE_PACKAGE, classLoader)) {
+            if (CAFFEINE_GENERATED.matcher(ClassUtils.getShortName(className)).matches()) {
+                hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+        }
+    }
+
+    /**
+     * Names of the top-level and nested classes under a package, whether or not they are beans.
+     */
+    private static List<String> scan(String basePackage, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true;
+            }
+        };
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        return scanner.findCandidateComponents(basePackage).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .toList();
+    }
+}
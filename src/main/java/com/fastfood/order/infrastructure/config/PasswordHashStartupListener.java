@@ -2,6 +2,7 @@ package com.fastfood.order.infrastructure.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -9,9 +10,11 @@ import org.springframework.stereotype.Component;
 /**
  * Generates BCrypt hash for Admin@123 password on application startup.
  * Check the console/logs for the hash to use in database.
+ * Development only: the BCrypt round slows every startup, so it runs in the dev profile alone.
  */
 @Slf4j
 @Component
+@Profile("dev")
 public class PasswordHashStartupListener {
 
     @EventListener(ApplicationReadyEvent.class)
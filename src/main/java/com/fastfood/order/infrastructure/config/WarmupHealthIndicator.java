@@ -0,0 +1,26 @@
+package com.fastfood.order.infrastructure.config;
+
+import com.fastfood.order.application.service.StartupWarmupService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness contribution ({@code warmup}): OUT_OF_SERVICE until the startup warm-up has finished
+ * or timed out, so the load balancer keeps traffic away from a node with cold caches.
+ */
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmupService startupWarmupService;
+
+    public WarmupHealthIndicator(StartupWarmupService startupWarmupService) {
+        this.startupWarmupService = startupWarmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = startupWarmupService.isComplete() ? Health.up() : Health.outOfService();
+        return builder.withDetails(startupWarmupService.status()).build();
+    }
+}
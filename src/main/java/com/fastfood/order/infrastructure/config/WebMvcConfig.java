@@ -1,8 +1,10 @@
 package com.fastfood.order.infrastructure.config;
 
+import com.fastfood.order.infrastructure.bulkhead.WorkloadAsyncInterceptor;
 import com.fastfood.order.infrastructure.interceptor.LicenseValidationInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,6 +13,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final LicenseValidationInterceptor licenseValidationInterceptor;
+    private final WorkloadAsyncInterceptor workloadAsyncInterceptor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(workloadAsyncInterceptor);
+    }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
@@ -0,0 +1,128 @@
+package com.fastfood.order.infrastructure.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the replica and everything else to the
+ * primary. Used behind a {@code LazyConnectionDataSourceProxy}, so the route is decided at the
+ * first statement, once the transaction's read-only flag is known.
+ *
+ * <p>Reads fall back to the primary when the replica is unreachable or lags more than
+ * {@code max-lag-seconds}, for a user who wrote within the last {@code sticky-seconds}
+ * (read-your-writes), and inside {@link #onPrimary(Supplier)}.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    /**
+     * Replay lag in seconds; 0 when the replica is not a standby (e.g. a second local database)
+     * or has replayed everything it received.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final double maxLagSeconds;
+    private final Cache<String, Boolean> recentWriters;
+
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, double maxLagSeconds, long stickySeconds) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLagSeconds = maxLagSeconds;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(stickySeconds))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Runs the reads in {@code work} against the primary, e.g. when their result is cached for
+     * longer than the replica may lag.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return work.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+            return Route.PRIMARY;
+        }
+        if (!replicaUsable || Boolean.TRUE.equals(FORCE_PRIMARY.get())
+                || (user != null && recentWriters.getIfPresent(user) != null)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkReplicaLag() {
+        boolean usable;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            usable = lag != null && lag <= maxLagSeconds;
+            if (!usable && replicaUsable) {
+                log.warn("Replica lags {} s (limit {} s), reading from the primary", lag, maxLagSeconds);
+            }
+        } catch (Exception e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica unavailable, reading from the primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            log.info("Replica caught up, read-only transactions use it again");
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -69,8 +69,9 @@ public class ApiRequestResponseLoggingFilter extends OncePerRequestFilter {
         if (path == null || !path.startsWith("/api/")) {
             return true;
         }
-        // Skip noisy/binary endpoints
+        // Skip noisy/binary endpoints (and streamed exports, which must not be buffered)
         return path.startsWith("/api/files/serve")
+                || path.startsWith("/api/orders/export")
                 || path.startsWith("/actuator/");
     }
 
@@ -0,0 +1,143 @@
+package com.fastfood.order.infrastructure.printing;
+
+import java.util.Arrays;
+
+/**
+ * Builds an ESC/POS byte stream in a reusable buffer. Not thread-safe: each spooler worker owns one
+ * and {@link #reset()}s it per job, so rendering a receipt allocates nothing once the buffer has grown.
+ *
+ * <p>Text is written as ASCII; characters outside it print as {@code ?}, since code page support
+ * differs between printer models.</p>
+ */
+public class EscPosWriter {
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    public enum Align { LEFT, CENTER, RIGHT }
+
+    private final int lineWidth;
+    private byte[] buffer = new byte[4096];
+    private int size;
+
+    public EscPosWriter(int lineWidth) {
+        this.lineWidth = lineWidth;
+    }
+
+    public int lineWidth() {
+        return lineWidth;
+    }
+
+    public EscPosWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    /** ESC @: clears formatting left over from a previous job */
+    public EscPosWriter initialize() {
+        return raw(ESC, (byte) '@');
+    }
+
+    public EscPosWriter align(Align align) {
+        return raw(ESC, (byte) 'a', (byte) align.ordinal());
+    }
+
+    public EscPosWriter bold(boolean on) {
+        return raw(ESC, (byte) 'E', (byte) (on ? 1 : 0));
+    }
+
+    /** GS !: double width and height, which halves the characters per line */
+    public EscPosWriter doubleSize(boolean on) {
+        return raw(GS, (byte) '!', (byte) (on ? 0x11 : 0x00));
+    }
+
+    public EscPosWriter text(String text) {
+        if (text != null) {
+            ensureCapacity(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                buffer[size++] = c >= 0x20 && c < 0x7F ? (byte) c : (byte) '?';
+            }
+        }
+        return this;
+    }
+
+    /** Appends bytes rendered earlier, e.g. a precompiled receipt header */
+    public EscPosWriter bytes(byte[] bytes) {
+        return raw(bytes);
+    }
+
+    public EscPosWriter line(String text) {
+        return text(text).newLine();
+    }
+
+    public EscPosWriter newLine() {
+        return raw(LF);
+    }
+
+    /** A full-width line of {@code c} */
+    public EscPosWriter rule(char c) {
+        ensureCapacity(lineWidth + 1);
+        Arrays.fill(buffer, size, size + lineWidth, (byte) c);
+        size += lineWidth;
+        return newLine();
+    }
+
+    /**
+     * Left text and right-aligned right text on one line; the left text is cut to fit.
+     */
+    public EscPosWriter columns(String left, String right) {
+        String l = left != null ? left : "";
+        String r = right != null ? right : "";
+        int room = Math.max(lineWidth - r.length() - 1, 0);
+        if (l.length() > room) {
+            l = l.substring(0, room);
+        }
+        text(l);
+        pad(lineWidth - l.length() - r.length());
+        return line(r);
+    }
+
+    public EscPosWriter feed(int lines) {
+        return raw(ESC, (byte) 'd', (byte) Math.max(0, Math.min(lines, 255)));
+    }
+
+    /** GS V B: feed to the cutter and cut partially */
+    public EscPosWriter cut() {
+        return raw(GS, (byte) 'V', (byte) 66, (byte) 0);
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void pad(int count) {
+        if (count > 0) {
+            ensureCapacity(count);
+            Arrays.fill(buffer, size, size + count, (byte) ' ');
+            size += count;
+        }
+    }
+
+    private EscPosWriter raw(byte... bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fastfood.order.infrastructure.printing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fake printer that appends each job's ESC/POS bytes to a file. Configure it with a
+ * {@code file:<path>} printer name, e.g. for tests or a terminal without a printer attached.
+ */
+class FilePrinter implements PrinterDevice {
+
+    static final String PREFIX = "file:";
+
+    private final Path path;
+
+    FilePrinter(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return PREFIX + path;
+    }
+
+    @Override
+    public synchronized void send(byte[] data, int length) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(data, 0, length);
+        }
+    }
+}
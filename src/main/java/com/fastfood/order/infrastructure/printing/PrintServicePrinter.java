@@ -0,0 +1,41 @@
+package com.fastfood.order.infrastructure.printing;
+
+import javax.print.Doc;
+import javax.print.DocFlavor;
+import javax.print.PrintException;
+import javax.print.PrintService;
+import javax.print.SimpleDoc;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Raw pass-through to an operating system print queue: the ESC/POS bytes go to the printer
+ * unchanged, with no page size or rendering by the driver.
+ */
+class PrintServicePrinter implements PrinterDevice {
+
+    private final PrintService printService;
+
+    PrintServicePrinter(PrintService printService) {
+        this.printService = printService;
+    }
+
+    @Override
+    public String name() {
+        return printService.getName();
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        byte[] job = Arrays.copyOf(data, length);
+        Doc doc = printService.isDocFlavorSupported(DocFlavor.BYTE_ARRAY.AUTOSENSE)
+                ? new SimpleDoc(job, DocFlavor.BYTE_ARRAY.AUTOSENSE, null)
+                : new SimpleDoc(new ByteArrayInputStream(job), DocFlavor.INPUT_STREAM.AUTOSENSE, null);
+        try {
+            printService.createPrintJob().print(doc, null);
+        } catch (PrintException e) {
+            throw new IOException("Printer " + printService.getName() + " rejected the job: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fastfood.order.infrastructure.printing;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Print queue per printer, each drained by its own worker thread, so a slow or offline printer
+ * never holds up order requests or the other printer. A job is rendered once into the worker's
+ * reusable {@link EscPosWriter} and sent with retries; jobs that still fail are logged and dropped.
+ */
+@Slf4j
+@Component
+public class PrintSpooler {
+
+    private final PrinterRegistry printerRegistry;
+    private final Map<String, Worker> workers = new ConcurrentHashMap<>();
+
+    @Value("${app.printing.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.printing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.printing.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    @Value("${app.printing.line-width:42}")
+    private int lineWidth;
+
+    public PrintSpooler(PrinterRegistry printerRegistry) {
+        this.printerRegistry = printerRegistry;
+    }
+
+    /**
+     * Queues a job for its role's printer. Returns false when that role has no printer or its queue is full.
+     */
+    public boolean submit(PrinterRole role, String description, Consumer<EscPosWriter> renderer) {
+        if (!printerRegistry.isConfigured(role)) {
+            return false;
+        }
+        String printerKey = printerRegistry.configuredPrinter(role).toLowerCase(Locale.ROOT);
+        Worker worker = workers.computeIfAbsent(printerKey, key -> startWorker(key.isEmpty() ? "default" : key));
+        if (!worker.queue.offer(new PrintJob(role, description, renderer))) {
+            log.warn("Print queue for {} is full ({} jobs), dropping {}", worker.printerKey, queueCapacity, description);
+            return false;
+        }
+        return true;
+    }
+
+    public int queuedJobs() {
+        return workers.values().stream().mapToInt(worker -> worker.queue.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.values().forEach(worker -> {
+            int pending = worker.queue.size();
+            if (pending > 0) {
+                log.warn("Discarding {} queued print jobs for {} on shutdown", pending, worker.printerKey);
+            }
+            worker.thread.interrupt();
+        });
+    }
+
+    private Worker startWorker(String printerKey) {
+        Worker worker = new Worker(printerKey, new ArrayBlockingQueue<>(queueCapacity), new EscPosWriter(lineWidth));
+        worker.thread = new Thread(worker, "print-spooler-" + printerKey.replaceAll("[^A-Za-z0-9._-]", "_"));
+        worker.thread.setDaemon(true);
+        worker.thread.start();
+        log.info("Started print spooler for printer '{}'", printerKey);
+        return worker;
+    }
+
+    private void print(Worker worker, PrintJob job) throws InterruptedException {
+        try {
+            job.renderer().accept(worker.writer.reset());
+        } catch (RuntimeException e) {
+            log.error("Could not render {}: {}", job.description(), e.getMessage(), e);
+            return;
+        }
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Optional<PrinterDevice> device = printerRegistry.resolve(job.role());
+            try {
+                if (device.isEmpty()) {
+                    throw new IllegalStateException("no printer available");
+                }
+                device.get().send(worker.writer.buffer(), worker.writer.size());
+                log.info("Printed {} on {}", job.description(), device.get().name());
+                return;
+            } catch (Exception e) {
+                if (attempt == maxAttempts) {
+                    log.error("Giving up on {} after {} attempts: {}", job.description(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("Printing {} failed (attempt {} of {}): {}", job.description(), attempt, maxAttempts, e.getMessage());
+                Thread.sleep(retryBackoffMs * attempt);
+            }
+        }
+    }
+
+    private record PrintJob(PrinterRole role, String description, Consumer<EscPosWriter> renderer) {
+    }
+
+    private final class Worker implements Runnable {
+
+        private final String printerKey;
+        private final BlockingQueue<PrintJob> queue;
+        private final EscPosWriter writer;
+        private Thread thread;
+
+        private Worker(String printerKey, BlockingQueue<PrintJob> queue, EscPosWriter writer) {
+            this.printerKey = printerKey;
+            this.queue = queue;
+            this.writer = writer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    print(this, queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
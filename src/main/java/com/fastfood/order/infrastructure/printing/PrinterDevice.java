@@ -0,0 +1,16 @@
+package com.fastfood.order.infrastructure.printing;
+
+import java.io.IOException;
+
+/**
+ * A printer that accepts raw ESC/POS bytes.
+ */
+public interface PrinterDevice {
+
+    String name();
+
+    /**
+     * Sends the first {@code length} bytes of {@code data}. The array may be reused once this returns.
+     */
+    void send(byte[] data, int length) throws IOException;
+}
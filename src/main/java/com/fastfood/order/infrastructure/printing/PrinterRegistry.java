@@ -0,0 +1,124 @@
+package com.fastfood.order.infrastructure.printing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.print.PrintService;
+import javax.print.PrintServiceLookup;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Printers discovered from the operating system, looked up once and refreshed on a schedule
+ * ({@code app.printing.discovery-refresh-ms}) instead of on every receipt, plus the role routing:
+ * {@code app.printing.<role>.printer} is a system printer name or {@code file:<path>} for a fake
+ * printer. The counter role falls back to {@code app.receipt.printer-name}, then the default printer.
+ */
+@Slf4j
+@Component
+public class PrinterRegistry {
+
+    private final Environment environment;
+
+    private volatile Discovery discovery;
+
+    public PrinterRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * The printer for a role, or empty when none is configured or attached.
+     */
+    public Optional<PrinterDevice> resolve(PrinterRole role) {
+        String configured = configuredPrinter(role);
+        if (configured.regionMatches(true, 0, FilePrinter.PREFIX, 0, FilePrinter.PREFIX.length())) {
+            return Optional.of(new FilePrinter(Paths.get(configured.substring(FilePrinter.PREFIX.length()))));
+        }
+        if (configured.isEmpty() && role != PrinterRole.COUNTER) {
+            return Optional.empty();
+        }
+
+        Discovery current = discovery();
+        if (!configured.isEmpty()) {
+            PrintService service = current.byName().get(configured.toLowerCase(Locale.ROOT));
+            if (service != null) {
+                return Optional.of(new PrintServicePrinter(service));
+            }
+            if (role != PrinterRole.COUNTER) {
+                log.warn("Printer '{}' for {} not found", configured, role);
+                return Optional.empty();
+            }
+            log.warn("Printer '{}' for {} not found, using the default printer", configured, role);
+        }
+        if (current.defaultService() != null) {
+            return Optional.of(new PrintServicePrinter(current.defaultService()));
+        }
+        return current.byName().values().stream().findFirst().map(PrintServicePrinter::new);
+    }
+
+    /**
+     * Printer name (or {@code file:} path) configured for a role; empty if none. Roles with the same
+     * value print through the same spooler queue.
+     */
+    public String configuredPrinter(PrinterRole role) {
+        String configured = environment.getProperty("app.printing." + role.getPropertyName() + ".printer", "").trim();
+        if (configured.isEmpty() && role == PrinterRole.COUNTER) {
+            configured = environment.getProperty("app.receipt.printer-name", "").trim();
+        }
+        return configured;
+    }
+
+    public boolean isConfigured(PrinterRole role) {
+        return role == PrinterRole.COUNTER || !configuredPrinter(role).isEmpty();
+    }
+
+    public List<String> discoveredPrinters() {
+        return discovery().byName().values().stream().map(PrintService::getName).toList();
+    }
+
+    /** Picks up printers plugged in or removed since the last lookup; idle until something prints */
+    @Scheduled(fixedDelayString = "${app.printing.discovery-refresh-ms:300000}",
+            initialDelayString = "${app.printing.discovery-refresh-ms:300000}")
+    public void scheduledRefresh() {
+        if (discovery != null) {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        long started = System.nanoTime();
+        PrintService[] services = PrintServiceLookup.lookupPrintServices(null, null);
+        Map<String, PrintService> byName = new LinkedHashMap<>();
+        Arrays.stream(services).forEach(service -> byName.putIfAbsent(service.getName().toLowerCase(Locale.ROOT), service));
+        PrintService defaultService = PrintServiceLookup.lookupDefaultPrintService();
+        Discovery previous = discovery;
+        discovery = new Discovery(byName, defaultService);
+        if (previous == null || !previous.byName().keySet().equals(byName.keySet())) {
+            log.info("Discovered {} printers in {} ms: {}", byName.size(),
+                    (System.nanoTime() - started) / 1_000_000, discoveredPrinters());
+        }
+    }
+
+    private Discovery discovery() {
+        Discovery current = discovery;
+        if (current == null) {
+            synchronized (this) {
+                if (discovery == null) {
+                    refresh();
+                }
+                current = discovery;
+            }
+        }
+        return current;
+    }
+
+    private record Discovery(Map<String, PrintService> byName, PrintService defaultService) {
+    }
+}
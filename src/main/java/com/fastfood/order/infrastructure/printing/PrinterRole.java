@@ -0,0 +1,23 @@
+package com.fastfood.order.infrastructure.printing;
+
+/**
+ * Where a print job goes. Each role is routed to its own configured printer
+ * ({@code app.printing.<role>.printer}); roles configured with the same printer share its queue.
+ */
+public enum PrinterRole {
+
+    /** Customer receipts at the counter. Falls back to the system default printer. */
+    COUNTER("counter"),
+    /** Kitchen tickets. Not printed unless a kitchen printer is configured. */
+    KITCHEN("kitchen");
+
+    private final String propertyName;
+
+    PrinterRole(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
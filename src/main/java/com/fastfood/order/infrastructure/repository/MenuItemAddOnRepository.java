@@ -2,8 +2,11 @@ package com.fastfood.order.infrastructure.repository;
 
 import com.fastfood.order.domain.entity.MenuItemAddOn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,6 +14,22 @@ public interface MenuItemAddOnRepository extends JpaRepository<MenuItemAddOn, Lo
 
     List<MenuItemAddOn> findByMenuItemId(Long menuItemId);
 
+    @Query("""
+            SELECT l FROM MenuItemAddOn l
+            JOIN FETCH l.addOn
+            WHERE l.menuItem.shop.id = :shopId
+            ORDER BY l.id ASC
+            """)
+    List<MenuItemAddOn> findWithAddOnByShopId(@Param("shopId") Long shopId);
+
+    @Query("""
+            SELECT l FROM MenuItemAddOn l
+            JOIN FETCH l.addOn
+            WHERE l.menuItem.id IN :menuItemIds
+            ORDER BY l.id ASC
+            """)
+    List<MenuItemAddOn> findWithAddOnByMenuItemIdIn(@Param("menuItemIds") Collection<Long> menuItemIds);
+
     void deleteByMenuItemId(Long menuItemId);
 }
 
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
@@ -19,6 +20,25 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findByShopIdAndCategoryIdOrderByDisplayOrderAsc(Long shopId, Long categoryId);
 
+    @Query("""
+            SELECT mi FROM MenuItem mi
+            JOIN FETCH mi.category
+            WHERE mi.shop.id = :shopId
+            ORDER BY mi.displayOrder ASC
+            """)
+    List<MenuItem> findCatalogByShopId(@Param("shopId") Long shopId);
+
+    @Query("""
+            SELECT mi FROM MenuItem mi
+            JOIN FETCH mi.category c
+            WHERE mi.shop.id = :shopId AND c.id = :categoryId
+            ORDER BY mi.displayOrder ASC
+            """)
+    List<MenuItem> findCatalogByShopIdAndCategoryId(@Param("shopId") Long shopId, @Param("categoryId") Long categoryId);
+
+    @Query("SELECT mi FROM MenuItem mi JOIN FETCH mi.category WHERE mi.id = :id")
+    Optional<MenuItem> findCatalogById(@Param("id") Long id);
+
     @Query("SELECT mi FROM MenuItem mi WHERE mi.category.id = :categoryId ORDER BY mi.displayOrder ASC")
     List<MenuItem> findByCategoryIdOrderByDisplayOrder(@Param("categoryId") Long categoryId);
 
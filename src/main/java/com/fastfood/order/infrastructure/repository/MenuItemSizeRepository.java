@@ -4,6 +4,7 @@ import com.fastfood.order.domain.entity.MenuItemSize;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +16,12 @@ public interface MenuItemSizeRepository extends JpaRepository<MenuItemSize, Long
 
     java.util.Optional<MenuItemSize> findByMenuItemIdAndSizeCode(Long menuItemId, String sizeCode);
 
+    List<MenuItemSize> findByMenuItemIdIn(Collection<Long> menuItemIds);
+
+    List<MenuItemSize> findByMenuItemIdInOrderByDisplayOrderAsc(Collection<Long> menuItemIds);
+
+    List<MenuItemSize> findByMenuItemShopIdOrderByDisplayOrderAsc(Long shopId);
+
     void deleteByMenuItemId(Long menuItemId);
 }
 
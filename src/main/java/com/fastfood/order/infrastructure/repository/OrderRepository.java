@@ -10,13 +10,31 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
-    Optional<Order> findByOrderNumber(String orderNumber);
+    // Unique keys resolve through their lookup tables, which carry order_date so only one partition is read
+
+    @Query(value = "SELECT o.* FROM order_numbers k "
+            + "JOIN orders o ON o.id = k.order_id AND o.order_date = k.order_date "
+            + "WHERE k.order_number = :orderNumber", nativeQuery = true)
+    Optional<Order> findByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    @Query(value = "SELECT o.* FROM order_client_uuids k "
+            + "JOIN orders o ON o.id = k.order_id AND o.order_date = k.order_date "
+            + "WHERE k.shop_id = :shopId AND k.client_uuid = :clientUuid", nativeQuery = true)
+    Optional<Order> findByShopIdAndClientUuid(@Param("shopId") Long shopId, @Param("clientUuid") UUID clientUuid);
+
+    @Query(value = "SELECT o.* FROM order_client_uuids k "
+            + "JOIN orders o ON o.id = k.order_id AND o.order_date = k.order_date "
+            + "WHERE k.shop_id = :shopId AND k.client_uuid IN (:clientUuids)", nativeQuery = true)
+    List<Order> findByShopIdAndClientUuidIn(@Param("shopId") Long shopId,
+                                            @Param("clientUuids") Collection<UUID> clientUuids);
 
     Page<Order> findByBranchId(Long branchId, Pageable pageable);
 
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,6 +13,7 @@ public interface StockItemRepository extends JpaRepository<StockItem, Long> {
     List<StockItem> findByIsActiveTrueOrderByNameEnAsc();
     List<StockItem> findByCurrentQuantityLessThanEqualOrderByCurrentQuantityAsc(BigDecimal threshold);
     List<StockItem> findByShopIdOrderByNameEnAsc(Long shopId);
+    List<StockItem> findByShopIdAndIsActiveTrueAndIdIn(Long shopId, Collection<Long> ids);
 
     java.util.Optional<StockItem> findByShopIdAndBarcodeIgnoreCase(Long shopId, String barcode);
 }
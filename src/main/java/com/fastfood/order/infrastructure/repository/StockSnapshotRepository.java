@@ -0,0 +1,14 @@
+package com.fastfood.order.infrastructure.repository;
+
+import com.fastfood.order.domain.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    Optional<StockSnapshot> findFirstByStockItemIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(Long stockItemId, LocalDateTime at);
+    Optional<StockSnapshot> findFirstByStockItemIdAndSnapshotAtAfterOrderBySnapshotAtAsc(Long stockItemId, LocalDateTime at);
+}
@@ -2,8 +2,11 @@ package com.fastfood.order.infrastructure.repository;
 
 import com.fastfood.order.domain.entity.StockTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,5 +15,27 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
     List<StockTransaction> findByStockItemIdOrderByCreatedAtDesc(Long stockItemId);
     List<StockTransaction> findByReferenceTypeAndReferenceId(String referenceType, Long referenceId);
     List<StockTransaction> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-}
 
+    /** Ledger rows in the window {@code (from, to]} of created_at, the unit snapshots are cut by */
+    @Query("SELECT COALESCE(SUM(t.delta), 0) FROM StockTransaction t " +
+           "WHERE t.stockItem.id = :stockItemId AND t.createdAt > :from AND t.createdAt <= :to")
+    BigDecimal sumDeltaBetween(@Param("stockItemId") Long stockItemId,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(t.quantity), 0) FROM StockTransaction t " +
+           "WHERE t.stockItem.id = :stockItemId AND t.transactionType = com.fastfood.order.domain.entity.StockTransaction.TransactionType.SALE " +
+           "AND t.createdAt > :from AND t.createdAt <= :to")
+    BigDecimal sumSalesBetween(@Param("stockItemId") Long stockItemId,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(t.delta), 0) FROM StockTransaction t " +
+           "WHERE t.stockItem.id = :stockItemId AND t.createdAt <= :to")
+    BigDecimal sumDeltaUntil(@Param("stockItemId") Long stockItemId, @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(t.quantity), 0) FROM StockTransaction t " +
+           "WHERE t.stockItem.id = :stockItemId AND t.transactionType = com.fastfood.order.domain.entity.StockTransaction.TransactionType.SALE " +
+           "AND t.createdAt <= :to")
+    BigDecimal sumSalesUntil(@Param("stockItemId") Long stockItemId, @Param("to") LocalDateTime to);
+}
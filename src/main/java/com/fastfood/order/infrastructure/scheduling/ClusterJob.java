@@ -0,0 +1,37 @@
+package com.fastfood.order.infrastructure.scheduling;
+
+/**
+ * Periodic work that must run once per slot across the whole cluster, not once per node. Declare an
+ * implementation as a bean and {@link ClusterJobScheduler} picks it up; work that concerns only the
+ * local node (its caches, WAL or printers) stays on plain {@code @Scheduled}.
+ */
+public interface ClusterJob {
+
+    /**
+     * Stable identifier: the advisory lock and the {@code scheduled_job_runs} rows are keyed by it.
+     */
+    String name();
+
+    JobSchedule schedule();
+
+    void run() throws Exception;
+
+    static ClusterJob of(String name, JobSchedule schedule, Runnable task) {
+        return new ClusterJob() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public JobSchedule schedule() {
+                return schedule;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package com.fastfood.order.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs every {@link ClusterJob} bean once per slot across the cluster.
+ *
+ * <p>Each node schedules every job, with a random start delay inside the slot
+ * ({@code app.jobs.max-jitter-ms}) so the nodes do not all arrive at once. A node that fires
+ * first takes a session-level PostgreSQL advisory lock for the job, which keeps a long run from
+ * overlapping the same job on another node. It then claims the slot by inserting its row into
+ * {@code scheduled_job_runs}, whose unique {@code (job_name, slot_at)} key turns away nodes
+ * arriving after the run has finished. The row then records the outcome and duration.</p>
+ */
+@Slf4j
+@Component
+public class ClusterJobScheduler {
+
+    /** First half of the two-key advisory lock, so job locks cannot collide with other advisory locks */
+    private static final int LOCK_NAMESPACE = 0x4A4F4253;
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final List<ClusterJob> jobs;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = nodeId();
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.jobs.max-jitter-ms:5000}")
+    private long maxJitterMs;
+
+    @Value("${app.jobs.history-retention-days:30}")
+    private int historyRetentionDays;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    public ClusterJobScheduler(List<ClusterJob> jobs, DataSource dataSource, JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry) {
+        this.jobs = jobs;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Cluster job scheduler is disabled; {} jobs will not run on this node", jobs.size());
+            return;
+        }
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(Math.max(1, poolSize));
+        taskScheduler.setThreadNamePrefix("cluster-job-");
+        taskScheduler.setDaemon(true);
+        taskScheduler.initialize();
+        for (ClusterJob job : jobs) {
+            JobTrigger trigger = new JobTrigger(job);
+            taskScheduler.schedule(() -> execute(job, trigger.slot), trigger);
+            log.info("Scheduled cluster job {} ({})", job.name(), job.schedule());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+        }
+    }
+
+    public List<String> jobNames() {
+        return jobs.stream().map(ClusterJob::name).toList();
+    }
+
+    /**
+     * Latest runs, newest first; all jobs when {@code jobName} is null.
+     */
+    public List<Map<String, Object>> recentRuns(String jobName, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT job_name, slot_at, node_id, status, started_at, finished_at, duration_ms, error
+                FROM scheduled_job_runs
+                WHERE (CAST(? AS VARCHAR) IS NULL OR job_name = ?)
+                ORDER BY started_at DESC
+                LIMIT ?
+                """, jobName, jobName, limit);
+    }
+
+    /**
+     * Deletes history older than {@code app.jobs.history-retention-days}; itself a cluster job.
+     */
+    public void purgeHistory() {
+        int deleted = jdbcTemplate.update("DELETE FROM scheduled_job_runs WHERE started_at < ?",
+                OffsetDateTime.now(ZoneOffset.UTC).minusDays(historyRetentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} scheduled job runs older than {} days", deleted, historyRetentionDays);
+        }
+    }
+
+    private void execute(ClusterJob job, Instant slot) {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection, job)) {
+                log.debug("Job {} is running on another node, skipping slot {}", job.name(), slot);
+                meterRegistry.counter("scheduled.jobs.skipped", "job", job.name(), "reason", "locked").increment();
+                return;
+            }
+            try {
+                runOnce(job, slot);
+            } finally {
+                unlock(lockConnection, job);
+            }
+        } catch (SQLException e) {
+            // Without the lock the slot cannot be claimed safely; the next slot tries again
+            log.warn("Could not coordinate job {} for slot {}: {}", job.name(), slot, e.getMessage());
+        }
+    }
+
+    private void runOnce(ClusterJob job, Instant slot) {
+        OffsetDateTime slotAt = slot.atOffset(ZoneOffset.UTC);
+        // Holding the lock means no other node is running this job, so RUNNING rows are left over from a crash
+        jdbcTemplate.update("""
+                UPDATE scheduled_job_runs SET status = 'ABANDONED', finished_at = ?
+                WHERE job_name = ? AND status = 'RUNNING'
+                """, OffsetDateTime.now(ZoneOffset.UTC), job.name());
+        List<Long> claimed = jdbcTemplate.queryForList("""
+                INSERT INTO scheduled_job_runs (job_name, slot_at, node_id, status, started_at)
+                VALUES (?, ?, ?, 'RUNNING', ?)
+                ON CONFLICT (job_name, slot_at) DO NOTHING
+                RETURNING id
+                """, Long.class, job.name(), slotAt, nodeId, OffsetDateTime.now(ZoneOffset.UTC));
+        if (claimed.isEmpty()) {
+            log.debug("Job {} already ran for slot {}", job.name(), slot);
+            meterRegistry.counter("scheduled.jobs.skipped", "job", job.name(), "reason", "done").increment();
+            return;
+        }
+
+        long started = System.nanoTime();
+        String status = "SUCCEEDED";
+        String error = null;
+        try {
+            job.run();
+        } catch (Exception e) {
+            status = "FAILED";
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("Job {} failed for slot {}", job.name(), slot, e);
+        }
+        long durationNanos = System.nanoTime() - started;
+        Timer.builder("scheduled.jobs.duration")
+                .tag("job", job.name())
+                .tag("outcome", status.toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(Duration.ofNanos(durationNanos));
+        try {
+            jdbcTemplate.update("""
+                    UPDATE scheduled_job_runs SET status = ?, finished_at = ?, duration_ms = ?, error = ?
+                    WHERE id = ?
+                    """, status, OffsetDateTime.now(ZoneOffset.UTC), durationNanos / 1_000_000,
+                    error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    claimed.get(0));
+        } catch (Exception e) {
+            log.warn("Could not record the outcome of job {}: {}", job.name(), e.getMessage());
+        }
+        log.debug("Job {} {} in {} ms", job.name(), status, durationNanos / 1_000_000);
+    }
+
+    private boolean tryLock(Connection connection, ClusterJob job) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, job.name());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection, ClusterJob job) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, job.name());
+            statement.execute();
+        } catch (SQLException e) {
+            // Session locks die with the session; Hikari will retire a connection that errored
+            log.warn("Could not release the lock of job {}: {}", job.name(), e.getMessage());
+        }
+    }
+
+    private static String nodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + ProcessHandle.current().pid();
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Fires once per slot, up to {@code max-jitter-ms} (at most a tenth of the period) after it.
+     * Slots missed while a run overran are skipped rather than run back to back.
+     */
+    private final class JobTrigger implements Trigger {
+
+        private final ClusterJob job;
+        private volatile Instant slot;
+
+        private JobTrigger(ClusterJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public Instant nextExecution(TriggerContext triggerContext) {
+            Instant now = Instant.now();
+            Instant after = slot != null && slot.isAfter(now) ? slot : now;
+            slot = job.schedule().nextSlot(after);
+            long jitterBound = Math.min(maxJitterMs, job.schedule().period(slot).toMillis() / 10);
+            return jitterBound > 0 ? slot.plusMillis(ThreadLocalRandom.current().nextLong(jitterBound)) : slot;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.fastfood.order.infrastructure.scheduling;
+
+import com.fastfood.order.application.service.IdempotencyService;
+import com.fastfood.order.application.service.OrderArchiveService;
+import com.fastfood.order.application.service.PartitionMaintenanceService;
+import com.fastfood.order.application.service.StockLedgerService;
+import com.fastfood.order.application.service.StockWarningService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.time.Duration;
+
+/**
+ * The periodic work that touches shared tables, run once per slot by {@link ClusterJobScheduler}.
+ * Schedules keep their original properties and defaults. Node-local work (write-behind flush,
+ * forecast state flush, replica lag check, printer discovery) stays on {@code @Scheduled}.
+ */
+@Configuration
+public class ClusterJobsConfig {
+
+    @Bean
+    public ClusterJob stockWarningScanJob(StockWarningService stockWarningService,
+                                          @Value("${app.stock.warnings.scan-interval-ms:3600000}") long intervalMs) {
+        return ClusterJob.of("stock-warning-scan", JobSchedule.every(Duration.ofMillis(intervalMs)),
+                stockWarningService::checkAndCreateStockWarnings);
+    }
+
+    @Bean
+    public ClusterJob stockLedgerSnapshotJob(StockLedgerService stockLedgerService,
+                                             @Value("${app.stock.ledger.snapshot-cron:0 5 * * * *}") String cron) {
+        return ClusterJob.of("stock-ledger-snapshot", JobSchedule.cron(cron), stockLedgerService::takeSnapshots);
+    }
+
+    @Bean
+    public ClusterJob stockLedgerFoldJob(StockLedgerService stockLedgerService,
+                                         @Value("${app.stock.ledger.fold-interval-ms:60000}") long intervalMs) {
+        return ClusterJob.of("stock-ledger-fold", JobSchedule.every(Duration.ofMillis(intervalMs)),
+                stockLedgerService::foldAppendedDeltas);
+    }
+
+    @Bean
+    public ClusterJob idempotencyPurgeJob(IdempotencyService idempotencyService,
+                                          @Value("${app.order.idempotency.purge-cron:0 30 3 * * *}") String cron) {
+        return ClusterJob.of("idempotency-purge", JobSchedule.cron(cron), idempotencyService::purgeExpiredKeys);
+    }
+
+    @Bean
+    public ClusterJob partitionMaintenanceJob(PartitionMaintenanceService partitionMaintenanceService,
+                                              @Value("${app.partitioning.maintenance-cron:0 15 2 * * *}") String cron) {
+        return ClusterJob.of("partition-maintenance", JobSchedule.cron(cron),
+                partitionMaintenanceService::ensureFuturePartitions);
+    }
+
+    @Bean
+    public ClusterJob orderArchiveJob(OrderArchiveService orderArchiveService,
+                                      @Value("${app.order.archive.cron:0 0 3 * * *}") String cron) {
+        return ClusterJob.of("order-archive", JobSchedule.cron(cron), orderArchiveService::archiveOldOrders);
+    }
+
+    @Bean
+    public ClusterJob jobHistoryPurgeJob(@Lazy ClusterJobScheduler clusterJobScheduler,
+                                         @Value("${app.jobs.history-purge-cron:0 45 3 * * *}") String cron) {
+        return ClusterJob.of("job-history-purge", JobSchedule.cron(cron), clusterJobScheduler::purgeHistory);
+    }
+}
@@ -0,0 +1,59 @@
+package com.fastfood.order.infrastructure.scheduling;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * When a {@link ClusterJob} runs: a cron expression in the server's zone, or a fixed interval whose
+ * slots are aligned to the epoch. Either way every node computes the same slots, which is what lets
+ * a slot be claimed exactly once.
+ */
+public record JobSchedule(CronExpression cron, Duration interval) {
+
+    public static JobSchedule cron(String expression) {
+        return new JobSchedule(CronExpression.parse(expression), null);
+    }
+
+    public static JobSchedule every(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Job interval must be positive: " + interval);
+        }
+        return new JobSchedule(null, interval);
+    }
+
+    /**
+     * First slot strictly after {@code after}.
+     */
+    public Instant nextSlot(Instant after) {
+        if (cron != null) {
+            ZonedDateTime next = cron.next(after.atZone(ZoneId.systemDefault()));
+            if (next == null) {
+                throw new IllegalStateException("Cron expression " + cron + " has no further executions");
+            }
+            return next.toInstant();
+        }
+        long period = interval.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(after.toEpochMilli(), period) * period + period);
+    }
+
+    /**
+     * Distance between two consecutive slots following {@code after}; used to keep the start jitter
+     * well inside one period.
+     */
+    public Duration period(Instant after) {
+        if (interval != null) {
+            return interval;
+        }
+        Instant next = nextSlot(after);
+        return Duration.between(next, nextSlot(next));
+    }
+
+    @Override
+    public String toString() {
+        return cron != null ? "cron " + cron : "every " + interval;
+    }
+}
@@ -45,11 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(jwt)) {
                 log.debug("JWT Filter - JWT token found in request");
-                String username = tokenProvider.getUsernameFromToken(jwt);
+                JwtClaims claims = tokenProvider.verify(jwt);
+                String username = claims.subject();
                 log.debug("JWT Filter - Extracted username from token: {}", username);
                 
-                if (tokenProvider.validateToken(jwt, userDetailsService.loadUserByUsername(username))) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (tokenProvider.validateToken(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
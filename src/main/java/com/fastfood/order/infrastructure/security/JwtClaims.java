@@ -0,0 +1,13 @@
+package com.fastfood.order.infrastructure.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature has already been verified.
+ */
+public record JwtClaims(String subject, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
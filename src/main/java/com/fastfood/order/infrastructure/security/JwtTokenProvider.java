@@ -1,8 +1,14 @@
 package com.fastfood.order.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -11,10 +17,14 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Slf4j
 @Component
@@ -29,8 +39,42 @@ public class JwtTokenProvider {
     @Value("${security.jwt.refresh-expiration}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    @Value("${security.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Tokens that already passed signature verification, keyed by SHA-256 of the token and kept
+     * until the token itself expires. A POS terminal sends the same token on every request, so
+     * after the first request only the hash lookup is paid.
+     */
+    private Cache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+                        return untilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return untilExpiry(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -54,39 +98,61 @@ public class JwtTokenProvider {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims; repeat calls with the same token are
+     * served from the verified-token cache.
+     *
+     * @throws JwtException if the signature is invalid, the token is malformed or it has expired
+     */
+    public JwtClaims verify(String token) {
+        String key = tokenHash(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        JwtClaims verified = new JwtClaims(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).expiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public Boolean validateToken(JwtClaims claims, UserDetails userDetails) {
+        return claims.subject() != null && claims.subject().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(verify(token), userDetails);
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static long untilExpiry(JwtClaims claims) {
+        if (claims.expiresAt() == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
-
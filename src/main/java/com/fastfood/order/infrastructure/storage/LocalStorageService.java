@@ -53,6 +53,27 @@ public class LocalStorageService implements StorageService {
         }
     }
 
+    @Override
+    public StoredObject storeBytes(String relativePath, byte[] content) {
+        try {
+            Path filePath = resolveSafe(relativePath);
+            Files.createDirectories(filePath.getParent());
+            // Write aside and move into place, so readers never see a partial file
+            Path tempFile = Files.createTempFile(filePath.getParent(), ".tmp-", null);
+            try {
+                Files.write(tempFile, content);
+                Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            String stored = rootDirectory.relativize(filePath).toString().replace("\\", "/");
+            log.info("Stored {} bytes locally at {}", content.length, filePath);
+            return new StoredObject(stored, "/api/files/serve?path=" + stored, filePath.getFileName().toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean delete(String relativePath) {
         try {
@@ -20,6 +20,11 @@ public class S3StorageService implements StorageService {
         throw new UnsupportedOperationException("S3 storage is not configured yet. Set app.storage.type=local or implement AWS SDK wiring.");
     }
 
+    @Override
+    public StoredObject storeBytes(String relativePath, byte[] content) {
+        throw new UnsupportedOperationException("S3 storage is not configured yet.");
+    }
+
     @Override
     public boolean delete(String relativePath) {
         throw new UnsupportedOperationException("S3 storage is not configured yet.");
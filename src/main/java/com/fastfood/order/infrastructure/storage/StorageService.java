@@ -3,15 +3,36 @@ package com.fastfood.order.infrastructure.storage;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.Optional;
 
 public interface StorageService {
 
+    /** Objects under this prefix are for the application only and never served by /api/files/serve. */
+    String PRIVATE_PREFIX = "private/";
+
     StoredObject store(MultipartFile file, String folder);
 
+    /**
+     * Writes {@code content} at exactly {@code relativePath}, replacing an existing object.
+     */
+    StoredObject storeBytes(String relativePath, byte[] content);
+
     boolean delete(String relativePath);
 
     Optional<Resource> loadAsResource(String relativePath);
 
+    static boolean isPrivatePath(String relativePath) {
+        if (relativePath == null) {
+            return false;
+        }
+        String cleaned = relativePath.replace("\\", "/");
+        while (cleaned.startsWith("/")) {
+            cleaned = cleaned.substring(1);
+        }
+        String normalized = Path.of(cleaned).normalize().toString().replace("\\", "/") + "/";
+        return normalized.startsWith(PRIVATE_PREFIX);
+    }
+
     record StoredObject(String relativePath, String publicUrl, String filename) {}
 }
@@ -6,6 +6,7 @@ import com.fastfood.order.infrastructure.repository.LicenseRepository;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@Lazy
 @RequestMapping("/api/admin/licenses")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
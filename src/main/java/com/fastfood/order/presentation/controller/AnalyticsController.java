@@ -4,18 +4,21 @@ import com.fastfood.order.application.dto.SalesAnalyticsResponse;
 import com.fastfood.order.application.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Controller for analytics operations (Admin only)
  */
 @Slf4j
 @RestController
+@Lazy
 @RequestMapping("/api/admin/analytics")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
@@ -34,5 +37,40 @@ public class AnalyticsController {
         SalesAnalyticsResponse response = analyticsService.getSalesAnalytics(branchId, startDate, endDate);
         return ResponseEntity.ok(response);
     }
-}
 
+    @GetMapping("/items/top")
+    public ResponseEntity<List<SalesAnalyticsResponse.PopularItemData>> getTopItems(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "quantity") String sortBy,
+            @RequestParam(defaultValue = "false") boolean bySize) {
+
+        log.debug("GET /api/admin/analytics/items/top - branchId={}, startDate={}, endDate={}, limit={}, sortBy={}",
+                branchId, startDate, endDate, limit, sortBy);
+        return ResponseEntity.ok(analyticsService.getTopItems(branchId, startDate, endDate, limit, sortBy, bySize));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<SalesAnalyticsResponse.CategorySalesData>> getCategoryMix(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        log.debug("GET /api/admin/analytics/categories - branchId={}, startDate={}, endDate={}",
+                branchId, startDate, endDate);
+        return ResponseEntity.ok(analyticsService.getCategoryMix(branchId, startDate, endDate));
+    }
+
+    @GetMapping("/heatmap")
+    public ResponseEntity<List<SalesAnalyticsResponse.HourlySalesData>> getHourlyHeatmap(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        log.debug("GET /api/admin/analytics/heatmap - branchId={}, startDate={}, endDate={}",
+                branchId, startDate, endDate);
+        return ResponseEntity.ok(analyticsService.getHourlyHeatmap(branchId, startDate, endDate));
+    }
+}
@@ -28,6 +28,9 @@ public class FileServeController {
             if (filePath == null || filePath.isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
+            if (StorageService.isPrivatePath(filePath)) {
+                return ResponseEntity.notFound().build();
+            }
 
             Optional<Resource> resourceOpt = storageService.loadAsResource(filePath);
             if (resourceOpt.isEmpty()) {
@@ -6,6 +6,7 @@ import com.fastfood.order.application.service.FranchiseInquiryService;
 import com.fastfood.order.domain.entity.FranchiseInquiry;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Lazy
 @RequestMapping("/api/franchise-inquiries")
 @RequiredArgsConstructor
 public class FranchiseInquiryController {
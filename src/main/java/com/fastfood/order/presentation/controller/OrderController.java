@@ -1,8 +1,12 @@
 package com.fastfood.order.presentation.controller;
 
+import com.fastfood.order.application.dto.OrderBatchRequest;
+import com.fastfood.order.application.dto.OrderBatchResponse;
 import com.fastfood.order.application.dto.OrderRequest;
 import com.fastfood.order.application.dto.OrderResponse;
 import com.fastfood.order.application.dto.OrderStatusUpdateRequest;
+import com.fastfood.order.application.service.OrderArchiveService;
+import com.fastfood.order.application.service.OrderExportService;
 import com.fastfood.order.application.service.OrderService;
 import com.fastfood.order.presentation.helper.ControllerHelper;
 import jakarta.validation.Valid;
@@ -11,10 +15,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -28,6 +36,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderArchiveService orderArchiveService;
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> getAllOrders(Authentication authentication) {
@@ -40,14 +50,25 @@ public class OrderController {
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
             @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication) {
         log.info("POST /api/orders - Creating order for customer: {}", request.getCustomerName());
         Long userId = ControllerHelper.getUserIdFromAuthentication(authentication);
-        OrderResponse response = orderService.createOrder(request, userId);
+        OrderResponse response = orderService.createOrder(request, userId, idempotencyKey);
         log.info("POST /api/orders - Order created: {}", response.getOrderNumber());
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponse> createOrderBatch(
+            @Valid @RequestBody OrderBatchRequest request,
+            Authentication authentication) {
+        log.info("POST /api/orders/batch - Syncing {} orders", request.getOrders().size());
+        Long userId = ControllerHelper.getUserIdFromAuthentication(authentication);
+        OrderBatchResponse response = orderService.createOrderBatch(request, userId);
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{orderId}/status")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @PathVariable Long orderId,
@@ -67,13 +88,44 @@ public class OrderController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "1") Long branchId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             Pageable pageable,
             Authentication authentication) {
         log.debug("GET /api/orders/search - Filters: orderNumber={}, customerName={}, branchId={}", 
                 orderNumber, customerName, branchId);
-        Page<OrderResponse> orders = orderService.searchOrders(
-                orderNumber, customerName, customerPhone, startDate, endDate, branchId, pageable);
+        Page<OrderResponse> orders = includeArchived
+                ? orderArchiveService.searchOrders(
+                        orderNumber, customerName, customerPhone, startDate, endDate, branchId, pageable)
+                : orderService.searchOrders(
+                        orderNumber, customerName, customerPhone, startDate, endDate, branchId, pageable);
         return ResponseEntity.ok(orders);
     }
+
+    /**
+     * Streams orders with items and add-ons as CSV or NDJSON, gzip-encoded when the client accepts it.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/orders/export - {} from {} to {}, branchId={}", format, startDate, endDate, branchId);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = orderExportService.streamOrders(branchId, startDate, endDate, format, gzip);
+
+        boolean csv = format == OrderExportService.Format.CSV;
+        String filename = "orders-" + startDate + "-" + endDate + (csv ? ".csv" : ".ndjson");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
 
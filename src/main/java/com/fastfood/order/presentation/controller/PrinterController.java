@@ -0,0 +1,37 @@
+package com.fastfood.order.presentation.controller;
+
+import com.fastfood.order.application.service.ReceiptPrintService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Receipt and kitchen printer status (Admin only)
+ */
+@Slf4j
+@RestController
+@Lazy
+@RequestMapping("/api/admin/printers")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PrinterController {
+
+    private final ReceiptPrintService receiptPrintService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getPrinterStatus() {
+        log.debug("GET /api/admin/printers");
+        return ResponseEntity.ok(receiptPrintService.getPrinterStatus());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refreshPrinters() {
+        log.info("POST /api/admin/printers/refresh - Rediscovering printers");
+        return ResponseEntity.ok(receiptPrintService.refreshPrinters());
+    }
+}
@@ -0,0 +1,38 @@
+package com.fastfood.order.presentation.controller;
+
+import com.fastfood.order.infrastructure.scheduling.ClusterJobScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cluster job list and execution history (Admin only)
+ */
+@Slf4j
+@RestController
+@Lazy
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ScheduledJobController {
+
+    private final ClusterJobScheduler clusterJobScheduler;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getJobs(@RequestParam(required = false) String job,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        log.debug("GET /api/admin/jobs - job: {}, limit: {}", job, limit);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jobs", clusterJobScheduler.jobNames());
+        List<Map<String, Object>> runs = clusterJobScheduler.recentRuns(job, Math.max(1, Math.min(limit, 500)));
+        response.put("runs", runs);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,16 +1,20 @@
 package com.fastfood.order.presentation.controller;
 
 import com.fastfood.order.application.dto.*;
+import com.fastfood.order.application.service.PurchasePlanningService;
 import com.fastfood.order.application.service.StockManagementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,12 +23,14 @@ import java.util.Map;
  */
 @Slf4j
 @RestController
+@Lazy
 @RequestMapping("/api/stock")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
 public class StockManagementController {
 
     private final StockManagementService stockManagementService;
+    private final PurchasePlanningService purchasePlanningService;
 
     @GetMapping("/items")
     public ResponseEntity<List<StockItemResponse>> getAllStockItems() {
@@ -104,6 +110,45 @@ public class StockManagementController {
         return ResponseEntity.ok(stockManagementService.setStockQuantity(id, quantity, notes));
     }
 
+    @GetMapping("/items/{id}/ledger")
+    public ResponseEntity<StockLedgerResponse> getStockLedger(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("GET /api/stock/items/{}/ledger?from={}&to={}", id, from, to);
+        return ResponseEntity.ok(stockManagementService.getStockLedger(id, from, to));
+    }
+
+    @GetMapping("/items/{id}/forecast")
+    public ResponseEntity<StockForecastResponse> getStockForecast(@PathVariable Long id) {
+        log.debug("GET /api/stock/items/{}/forecast", id);
+        return ResponseEntity.ok(stockManagementService.getStockForecast(id));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<List<StockForecastResponse>> getStockForecasts() {
+        log.debug("GET /api/stock/forecast");
+        return ResponseEntity.ok(stockManagementService.getStockForecasts());
+    }
+
+    @GetMapping("/purchase-plan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurchasePlanResponse> getPurchasePlan(
+            @RequestParam(defaultValue = "7") int horizonDays,
+            @RequestParam(defaultValue = "28") int lookbackDays,
+            @RequestParam(required = false) Long branchId) {
+        log.debug("GET /api/stock/purchase-plan?horizonDays={}&lookbackDays={}&branchId={}", horizonDays, lookbackDays, branchId);
+        return ResponseEntity.ok(purchasePlanningService.planFromHistory(horizonDays, lookbackDays, branchId));
+    }
+
+    @PostMapping("/purchase-plan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurchasePlanResponse> planPurchases(@Valid @RequestBody PurchasePlanRequest request) {
+        log.info("POST /api/stock/purchase-plan - {} branches, horizon {} days",
+                request.getBranches().size(), request.getHorizonDays());
+        return ResponseEntity.ok(purchasePlanningService.planFromSales(request));
+    }
+
     @GetMapping("/items/{id}/consumptions")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StockConsumptionConfigResponse> getStockConsumptions(@PathVariable Long id) {
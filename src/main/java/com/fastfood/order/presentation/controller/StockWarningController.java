@@ -5,6 +5,7 @@ import com.fastfood.order.application.service.StockWarningService;
 import com.fastfood.order.application.service.StockWarningConfigService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -16,6 +17,7 @@ import java.util.Map;
 
 @Slf4j
 @RestController
+@Lazy
 @RequestMapping("/api/stock/warnings")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,24 @@
+-- Catalog of archived order segments: compressed NDJSON files (one OrderResponse per line) in storage,
+-- each with a sidecar sparse index. Archived orders are deleted from the hot tables.
+
+CREATE TABLE IF NOT EXISTS order_archive_segments (
+    id               BIGSERIAL PRIMARY KEY,
+    shop_id          BIGINT       NOT NULL,
+    period_month     DATE         NOT NULL,
+    segment_path     VARCHAR(500) NOT NULL UNIQUE,
+    index_path       VARCHAR(500) NOT NULL,
+    order_count      INTEGER      NOT NULL,
+    first_order_id   BIGINT       NOT NULL,
+    last_order_id    BIGINT       NOT NULL,
+    min_order_date   TIMESTAMP    NOT NULL,
+    max_order_date   TIMESTAMP    NOT NULL,
+    compressed_bytes BIGINT       NOT NULL,
+    created_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_order_archive_segments_shop FOREIGN KEY (shop_id) REFERENCES shops(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_archive_segments_shop_dates
+    ON order_archive_segments (shop_id, max_order_date DESC, min_order_date);
+
+COMMENT ON TABLE order_archive_segments IS
+    'Immutable archive segments of completed/cancelled orders, one calendar month per segment; see OrderArchiveService.';
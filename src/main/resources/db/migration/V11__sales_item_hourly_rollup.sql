@@ -0,0 +1,55 @@
+-- Hourly item-level sales rollup: one row per shop, branch, hour, item (or combo) and size.
+-- Maintained by SalesRollupService in the order transaction; cancellations subtract their lines again.
+
+CREATE TABLE IF NOT EXISTS sales_item_hourly (
+    shop_id        BIGINT         NOT NULL,
+    branch_id      BIGINT         NOT NULL,
+    bucket_hour    TIMESTAMP      NOT NULL,
+    item_type      VARCHAR(10)    NOT NULL,
+    item_id        BIGINT         NOT NULL,
+    size_code      VARCHAR(10)    NOT NULL DEFAULT '',
+    category_id    BIGINT,
+    item_name      VARCHAR(255)   NOT NULL,
+    quantity       BIGINT         NOT NULL DEFAULT 0,
+    revenue        DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    add_on_revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    order_count    BIGINT         NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_sales_item_hourly PRIMARY KEY (shop_id, branch_id, bucket_hour, item_type, item_id, size_code),
+    CONSTRAINT chk_sales_item_hourly_type CHECK (item_type IN ('ITEM', 'COMBO'))
+);
+
+-- Shop-wide ranges; branch-filtered ranges use the primary key
+CREATE INDEX IF NOT EXISTS idx_sales_item_hourly_shop_hour
+    ON sales_item_hourly (shop_id, bucket_hour);
+
+COMMENT ON TABLE sales_item_hourly IS
+    'Hourly per item/size/branch sales of non-cancelled orders. revenue is the line total including add-ons, before order discounts.';
+
+-- Backfill from the orders already on hand
+INSERT INTO sales_item_hourly (shop_id, branch_id, bucket_hour, item_type, item_id, size_code, category_id,
+                               item_name, quantity, revenue, add_on_revenue, order_count)
+SELECT o.shop_id,
+       o.branch_id,
+       date_trunc('hour', o.order_date),
+       CASE WHEN i.combo_id IS NOT NULL THEN 'COMBO' ELSE 'ITEM' END,
+       COALESCE(i.combo_id, i.menu_item_id, 0),
+       COALESCE(i.size_code, ''),
+       MAX(m.category_id),
+       MAX(i.item_name_en),
+       SUM(i.quantity),
+       SUM(i.total_price),
+       SUM(COALESCE(a.add_on_total, 0) * i.quantity),
+       COUNT(DISTINCT i.order_id)
+FROM orders o
+JOIN order_items i ON i.order_id = o.id AND i.order_date = o.order_date
+LEFT JOIN menu_items m ON m.id = i.menu_item_id
+LEFT JOIN LATERAL (
+    SELECT SUM(ao.price * ao.quantity) AS add_on_total
+    FROM order_item_add_ons ao
+    WHERE ao.order_item_id = i.id AND ao.order_date = i.order_date
+) a ON true
+WHERE o.shop_id IS NOT NULL
+  AND o.order_status <> 'CANCELLED'
+GROUP BY 1, 2, 3, 4, 5, 6
+ON CONFLICT DO NOTHING;
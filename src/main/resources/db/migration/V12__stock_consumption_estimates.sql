@@ -0,0 +1,12 @@
+-- Persisted state of the per-stock-item consumption estimators (StockForecastService), so a restart
+-- resumes from the last flush instead of replaying the SALE ledger
+
+CREATE TABLE IF NOT EXISTS stock_consumption_estimates (
+    stock_item_id BIGINT    PRIMARY KEY,
+    state         JSONB     NOT NULL,
+    updated_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_stock_consumption_estimates_item FOREIGN KEY (stock_item_id) REFERENCES stock_items(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE stock_consumption_estimates IS
+    'Exponentially weighted SALE consumption by hour of day and day of week, one row per stock item.';
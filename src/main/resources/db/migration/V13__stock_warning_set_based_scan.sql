@@ -0,0 +1,24 @@
+-- Set-based low-stock scan (StockWarningService.checkAndCreateStockWarnings)
+
+-- Only the few items at or below their threshold are in the index, so the per-shop scan reads
+-- those rows instead of every stock item
+CREATE INDEX IF NOT EXISTS idx_stock_items_low_stock
+    ON stock_items (shop_id, id)
+    WHERE is_active = true AND current_quantity <= min_threshold;
+
+-- At most one open warning per item, which the scan's INSERT ... ON CONFLICT relies on.
+-- Older duplicates are closed first, keeping the newest open warning of each item.
+UPDATE stock_warnings w
+SET is_acknowledged = true,
+    acknowledged_at = CURRENT_TIMESTAMP,
+    acknowledged_by = 'system'
+WHERE w.is_acknowledged = false
+  AND EXISTS (SELECT 1
+              FROM stock_warnings n
+              WHERE n.stock_item_id = w.stock_item_id
+                AND n.is_acknowledged = false
+                AND (n.created_at, n.id) > (w.created_at, w.id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_stock_warnings_open_item
+    ON stock_warnings (stock_item_id)
+    WHERE is_acknowledged = false;
@@ -0,0 +1,21 @@
+-- Execution history of the cluster jobs (ClusterJobScheduler). The unique key is how a node claims
+-- a slot: whichever node inserts the row first runs the job, the others skip it.
+-- Times are TIMESTAMPTZ so nodes in different time zones still agree on the slot.
+
+CREATE TABLE IF NOT EXISTS scheduled_job_runs (
+    id          BIGSERIAL    PRIMARY KEY,
+    job_name    VARCHAR(100) NOT NULL,
+    slot_at     TIMESTAMPTZ  NOT NULL,
+    node_id     VARCHAR(255) NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    started_at  TIMESTAMPTZ  NOT NULL,
+    finished_at TIMESTAMPTZ,
+    duration_ms BIGINT,
+    error       TEXT,
+    CONSTRAINT uk_scheduled_job_runs_slot UNIQUE (job_name, slot_at),
+    CONSTRAINT chk_scheduled_job_runs_status CHECK (status IN ('RUNNING', 'SUCCEEDED', 'FAILED', 'ABANDONED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_runs_started ON scheduled_job_runs (started_at DESC);
+
+COMMENT ON TABLE scheduled_job_runs IS 'One row per cluster job slot: the node that ran it, outcome and duration.';
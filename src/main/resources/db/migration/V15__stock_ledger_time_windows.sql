@@ -0,0 +1,29 @@
+-- Stock snapshots now cover transactions by created_at window instead of an id watermark.
+-- Ids are taken before commit, so the old "id > last_transaction_id AND created_at <= cutoff" rule
+-- skipped rows for good: lower ids created after the cutoff, and transactions still in flight.
+-- Rebuild every later snapshot from each item's opening snapshot under the new rule, so the
+-- quantities no longer miss those rows.
+
+UPDATE stock_snapshots s
+SET quantity = o.quantity + COALESCE((
+        SELECT SUM(t.delta) FROM stock_transactions t
+        WHERE t.stock_item_id = s.stock_item_id
+          AND t.created_at > o.snapshot_at AND t.created_at <= s.snapshot_at), 0),
+    consumed_total = o.consumed_total + COALESCE((
+        SELECT SUM(t.quantity) FROM stock_transactions t
+        WHERE t.stock_item_id = s.stock_item_id AND t.transaction_type = 'SALE'
+          AND t.created_at > o.snapshot_at AND t.created_at <= s.snapshot_at), 0),
+    last_transaction_id = GREATEST(o.last_transaction_id, COALESCE((
+        SELECT MAX(t.id) FROM stock_transactions t
+        WHERE t.stock_item_id = s.stock_item_id
+          AND t.created_at > o.snapshot_at AND t.created_at <= s.snapshot_at), 0))
+FROM (
+    SELECT DISTINCT ON (stock_item_id) id, stock_item_id, snapshot_at, quantity, consumed_total, last_transaction_id
+    FROM stock_snapshots
+    ORDER BY stock_item_id, snapshot_at ASC, id ASC
+) o
+WHERE s.stock_item_id = o.stock_item_id
+  AND s.id <> o.id;
+
+COMMENT ON TABLE stock_snapshots IS
+    'Ledger checkpoints: quantity and cumulative SALE consumption of a stock item including every transaction created up to snapshot_at. last_transaction_id is informational.';
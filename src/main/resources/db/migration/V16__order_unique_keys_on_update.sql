@@ -0,0 +1,52 @@
+-- Keep order_numbers and order_client_uuids in step when an order's number, client uuid, shop or
+-- date is updated. An UPDATE that moves the row to another monthly partition already fires the
+-- AFTER DELETE and AFTER INSERT triggers; this covers updates that stay in the same partition.
+
+CREATE OR REPLACE FUNCTION orders_unique_keys()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO order_numbers (order_number, order_id, order_date)
+        VALUES (NEW.order_number, NEW.id, NEW.order_date);
+        IF NEW.client_uuid IS NOT NULL THEN
+            INSERT INTO order_client_uuids (shop_id, client_uuid, order_id, order_date)
+            VALUES (NEW.shop_id, NEW.client_uuid, NEW.id, NEW.order_date);
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    IF TG_OP = 'UPDATE' THEN
+        IF NEW.order_number IS DISTINCT FROM OLD.order_number OR NEW.order_date IS DISTINCT FROM OLD.order_date THEN
+            DELETE FROM order_numbers WHERE order_number = OLD.order_number AND order_id = OLD.id;
+            -- Raises unique_violation when the new number is taken, rolling the update back
+            INSERT INTO order_numbers (order_number, order_id, order_date)
+            VALUES (NEW.order_number, NEW.id, NEW.order_date);
+        END IF;
+        IF NEW.client_uuid IS DISTINCT FROM OLD.client_uuid OR NEW.shop_id IS DISTINCT FROM OLD.shop_id
+                OR NEW.order_date IS DISTINCT FROM OLD.order_date THEN
+            IF OLD.client_uuid IS NOT NULL THEN
+                DELETE FROM order_client_uuids
+                WHERE shop_id = OLD.shop_id AND client_uuid = OLD.client_uuid AND order_id = OLD.id;
+            END IF;
+            IF NEW.client_uuid IS NOT NULL THEN
+                INSERT INTO order_client_uuids (shop_id, client_uuid, order_id, order_date)
+                VALUES (NEW.shop_id, NEW.client_uuid, NEW.id, NEW.order_date);
+            END IF;
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    DELETE FROM order_numbers WHERE order_number = OLD.order_number AND order_id = OLD.id;
+    IF OLD.client_uuid IS NOT NULL THEN
+        DELETE FROM order_client_uuids WHERE shop_id = OLD.shop_id AND client_uuid = OLD.client_uuid AND order_id = OLD.id;
+    END IF;
+    RETURN OLD;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_orders_unique_keys ON orders;
+
+CREATE TRIGGER trg_orders_unique_keys
+    AFTER INSERT OR DELETE OR UPDATE OF order_number, client_uuid, shop_id, order_date ON orders
+    FOR EACH ROW EXECUTE FUNCTION orders_unique_keys();
@@ -0,0 +1,13 @@
+-- One estimator row per stock item and node. Each node only sees its own sales, so the cluster-wide
+-- forecast is the sum of the rows; overwriting a single shared row kept one node's partial state.
+-- Existing rows become the shared seed row (node_id ''), which every node reads as history.
+
+ALTER TABLE stock_consumption_estimates ADD COLUMN IF NOT EXISTS node_id VARCHAR(255) NOT NULL DEFAULT '';
+
+ALTER TABLE stock_consumption_estimates DROP CONSTRAINT IF EXISTS stock_consumption_estimates_pkey;
+ALTER TABLE stock_consumption_estimates ADD CONSTRAINT stock_consumption_estimates_pkey PRIMARY KEY (stock_item_id, node_id);
+
+CREATE INDEX IF NOT EXISTS idx_stock_consumption_estimates_updated ON stock_consumption_estimates (updated_at);
+
+COMMENT ON TABLE stock_consumption_estimates IS
+    'Exponentially weighted SALE consumption by hour of day and day of week, per stock item and node; the forecast sums the nodes. node_id '''' holds the seed from the SALE ledger.';
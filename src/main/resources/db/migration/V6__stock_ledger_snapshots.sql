@@ -0,0 +1,49 @@
+-- Event-sourced stock ledger: stock_transactions carry a signed delta, stock_snapshots fold them periodically
+-- quantity(T) = latest snapshot at or before T + SUM(delta) of the transactions after it
+
+ALTER TABLE stock_transactions
+    ADD COLUMN IF NOT EXISTS delta DECIMAL(12, 4);
+
+-- Existing rows: delta is what the row change actually applied (SALE clamps at zero)
+UPDATE stock_transactions
+SET delta = new_quantity - previous_quantity
+WHERE delta IS NULL;
+
+ALTER TABLE stock_transactions ALTER COLUMN delta SET NOT NULL;
+
+-- Appended deltas do not know the row quantity around them
+ALTER TABLE stock_transactions ALTER COLUMN previous_quantity DROP NOT NULL;
+ALTER TABLE stock_transactions ALTER COLUMN new_quantity DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_item_id
+    ON stock_transactions (stock_item_id, id);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_item_created
+    ON stock_transactions (stock_item_id, created_at);
+
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    id                  BIGSERIAL PRIMARY KEY,
+    stock_item_id       BIGINT         NOT NULL,
+    snapshot_at         TIMESTAMP      NOT NULL,
+    quantity            DECIMAL(14, 4) NOT NULL,
+    consumed_total      DECIMAL(16, 4) NOT NULL DEFAULT 0,
+    last_transaction_id BIGINT         NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_stock_snapshots_item FOREIGN KEY (stock_item_id) REFERENCES stock_items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_snapshots_item_at
+    ON stock_snapshots (stock_item_id, snapshot_at DESC);
+
+COMMENT ON TABLE stock_snapshots IS
+    'Ledger checkpoints: quantity and cumulative SALE consumption of a stock item including every transaction up to last_transaction_id.';
+
+-- Opening snapshot from the current row, so the ledger starts from what is on hand today
+INSERT INTO stock_snapshots (stock_item_id, snapshot_at, quantity, consumed_total, last_transaction_id)
+SELECT i.id,
+       CURRENT_TIMESTAMP,
+       i.current_quantity,
+       COALESCE((SELECT SUM(t.quantity) FROM stock_transactions t
+                 WHERE t.stock_item_id = i.id AND t.transaction_type = 'SALE'), 0),
+       COALESCE((SELECT MAX(t.id) FROM stock_transactions t WHERE t.stock_item_id = i.id), 0)
+FROM stock_items i
+WHERE NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.stock_item_id = i.id);
@@ -0,0 +1,9 @@
+-- Client-assigned order ids from POS terminals, so offline batches can be re-sent safely
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS client_uuid UUID;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_shop_client_uuid
+    ON orders (shop_id, client_uuid)
+    WHERE client_uuid IS NOT NULL;
+
+COMMENT ON COLUMN orders.client_uuid IS 'Order id generated by the POS terminal; unique per shop';
@@ -0,0 +1,18 @@
+-- Idempotency-Key header of POST /api/orders: one row per key and shop, holding the original response
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              BIGSERIAL PRIMARY KEY,
+    shop_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    order_id        BIGINT,
+    response_body   TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_idempotency_keys_shop_key UNIQUE (shop_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at
+    ON idempotency_keys (created_at);
+
+COMMENT ON TABLE idempotency_keys IS
+    'Client retry keys of order creation; response_body is the serialized OrderResponse returned to the first request.';
@@ -0,0 +1,212 @@
+-- Monthly range partitioning of the order and stock history tables
+--   orders, order_items, order_item_add_ons  -> order_date
+--   stock_transactions                       -> created_at
+-- Order lines carry the order's order_date so all three order tables prune on the same key and the
+-- foreign keys between them stay intact. Rows outside the created months land in a DEFAULT partition.
+-- Existing rows are copied in this migration; on large databases run it in a maintenance window.
+
+-- 1. Denormalise the partition key onto order lines
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_date TIMESTAMP;
+UPDATE order_items i SET order_date = o.order_date FROM orders o WHERE o.id = i.order_id AND i.order_date IS NULL;
+ALTER TABLE order_items ALTER COLUMN order_date SET NOT NULL;
+
+ALTER TABLE order_item_add_ons ADD COLUMN IF NOT EXISTS order_date TIMESTAMP;
+UPDATE order_item_add_ons a SET order_date = i.order_date FROM order_items i WHERE i.id = a.order_item_id AND a.order_date IS NULL;
+ALTER TABLE order_item_add_ons ALTER COLUMN order_date SET NOT NULL;
+
+-- 2. Partition maintenance: creates the monthly partitions of [from_month, to_month] that do not exist yet.
+-- A month whose rows already sit in the DEFAULT partition is skipped (PostgreSQL would reject it).
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent_table TEXT, from_month DATE, to_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    key_column TEXT;
+    month_start DATE := date_trunc('month', from_month)::DATE;
+    partition_name TEXT;
+    has_default_rows BOOLEAN;
+    created INTEGER := 0;
+BEGIN
+    SELECT a.attname INTO key_column
+    FROM pg_partitioned_table p
+    JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+    WHERE p.partrelid = parent_table::regclass;
+
+    WHILE month_start <= to_month LOOP
+        partition_name := parent_table || '_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= $1 AND %I < $2)',
+                           parent_table || '_default', key_column, key_column)
+                INTO has_default_rows
+                USING month_start, (month_start + INTERVAL '1 month')::DATE;
+            IF has_default_rows THEN
+                RAISE NOTICE 'Skipping partition %: rows for this month are in the default partition', partition_name;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, parent_table, month_start, (month_start + INTERVAL '1 month')::DATE);
+                created := created + 1;
+            END IF;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- 3. Swap each table for a partitioned copy with the same columns, defaults, checks and sequence
+CREATE OR REPLACE FUNCTION pg_temp.partition_by_month(table_name TEXT, key_column TEXT)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    legacy_name TEXT := table_name || '_legacy';
+    pk_name TEXT;
+    id_sequence TEXT;
+    first_month DATE;
+BEGIN
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', table_name, legacy_name);
+    SELECT conname INTO pk_name FROM pg_constraint
+    WHERE conrelid = legacy_name::regclass AND contype = 'p';
+    IF pk_name IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I', legacy_name, pk_name, legacy_name || '_pkey');
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING IDENTITY '
+                   'INCLUDING GENERATED INCLUDING COMMENTS) PARTITION BY RANGE (%I)',
+                   table_name, legacy_name, key_column);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, %I)', table_name, table_name || '_pkey', key_column);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', table_name || '_default', table_name);
+
+    -- Keep the serial sequence alive when the legacy table is dropped
+    id_sequence := pg_get_serial_sequence(legacy_name, 'id');
+    IF id_sequence IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM pg_attribute WHERE attrelid = legacy_name::regclass
+                       AND attname = 'id' AND attidentity <> '') THEN
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY %I.id', id_sequence, table_name);
+    END IF;
+
+    EXECUTE format('SELECT date_trunc(''month'', MIN(%I))::DATE FROM %I', key_column, legacy_name) INTO first_month;
+    PERFORM create_monthly_partitions(table_name,
+                                      COALESCE(first_month, date_trunc('month', CURRENT_DATE)::DATE),
+                                      (CURRENT_DATE + INTERVAL '3 months')::DATE);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', table_name, legacy_name);
+    EXECUTE format('SELECT setval(pg_get_serial_sequence(%L, ''id''), COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)',
+                   table_name, table_name);
+END $$;
+
+-- Foreign keys to the other (unpartitioned) tables, re-created under their old names afterwards
+CREATE TEMP TABLE legacy_foreign_keys ON COMMIT DROP AS
+SELECT c.conrelid::regclass::TEXT AS table_name, c.conname, pg_get_constraintdef(c.oid) AS definition
+FROM pg_constraint c
+WHERE c.contype = 'f'
+  AND c.conrelid IN ('orders'::regclass, 'order_items'::regclass,
+                     'order_item_add_ons'::regclass, 'stock_transactions'::regclass)
+  AND c.confrelid NOT IN ('orders'::regclass, 'order_items'::regclass,
+                          'order_item_add_ons'::regclass, 'stock_transactions'::regclass);
+
+SELECT pg_temp.partition_by_month('orders', 'order_date');
+SELECT pg_temp.partition_by_month('order_items', 'order_date');
+SELECT pg_temp.partition_by_month('order_item_add_ons', 'order_date');
+SELECT pg_temp.partition_by_month('stock_transactions', 'created_at');
+
+DROP TABLE order_item_add_ons_legacy, order_items_legacy, orders_legacy, stock_transactions_legacy CASCADE;
+
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT * FROM legacy_foreign_keys LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s',
+                       replace(fk.table_name, '_legacy', ''), fk.conname, fk.definition);
+    END LOOP;
+END $$;
+
+-- Order lines reference their parent within the same partition key
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, order_date)
+        REFERENCES orders (id, order_date) ON DELETE CASCADE;
+ALTER TABLE order_item_add_ons
+    ADD CONSTRAINT fk_order_item_add_ons_order_item FOREIGN KEY (order_item_id, order_date)
+        REFERENCES order_items (id, order_date) ON DELETE CASCADE;
+
+-- 4. Indexes (created on the parent, inherited by every partition)
+CREATE INDEX IF NOT EXISTS idx_orders_shop_id ON orders (shop_id);
+CREATE INDEX IF NOT EXISTS idx_orders_shop_status ON orders (shop_id, order_status);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_phone ON orders (customer_phone);
+CREATE INDEX IF NOT EXISTS idx_orders_order_number ON orders (order_number);
+CREATE INDEX IF NOT EXISTS idx_orders_branch ON orders (branch_id);
+CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders (order_date);
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (order_status);
+CREATE INDEX IF NOT EXISTS idx_orders_payment_status ON orders (payment_status);
+CREATE INDEX IF NOT EXISTS idx_orders_created_by ON orders (created_by);
+CREATE INDEX IF NOT EXISTS idx_orders_date_status ON orders (order_date, order_status);
+CREATE INDEX IF NOT EXISTS idx_orders_branch_date ON orders (branch_id, order_date);
+CREATE INDEX IF NOT EXISTS idx_orders_shop_client_uuid ON orders (shop_id, client_uuid) WHERE client_uuid IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_menu_item ON order_items (menu_item_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_combo ON order_items (combo_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_order_menu ON order_items (order_id, menu_item_id);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_add_ons_order_item ON order_item_add_ons (order_item_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_add_ons_addon ON order_item_add_ons (add_on_id);
+
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_stock_item ON stock_transactions (stock_item_id);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_type ON stock_transactions (transaction_type);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_reference ON stock_transactions (reference_type, reference_id);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_date ON stock_transactions (created_at);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_item_id ON stock_transactions (stock_item_id, id);
+CREATE INDEX IF NOT EXISTS idx_stock_transactions_item_created ON stock_transactions (stock_item_id, created_at);
+
+-- 5. Global uniqueness. A unique index on a partitioned table must contain the partition key, which
+-- would let the same order number or client uuid repeat across months; small lookup tables
+-- maintained by trigger keep them unique and map them to the order's partition.
+CREATE TABLE IF NOT EXISTS order_numbers (
+    order_number VARCHAR(50) PRIMARY KEY,
+    order_id     BIGINT    NOT NULL,
+    order_date   TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_client_uuids (
+    shop_id     BIGINT    NOT NULL,
+    client_uuid UUID      NOT NULL,
+    order_id    BIGINT    NOT NULL,
+    order_date  TIMESTAMP NOT NULL,
+    PRIMARY KEY (shop_id, client_uuid)
+);
+
+INSERT INTO order_numbers (order_number, order_id, order_date)
+SELECT order_number, id, order_date FROM orders
+ON CONFLICT DO NOTHING;
+
+INSERT INTO order_client_uuids (shop_id, client_uuid, order_id, order_date)
+SELECT shop_id, client_uuid, id, order_date FROM orders WHERE client_uuid IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION orders_unique_keys()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO order_numbers (order_number, order_id, order_date)
+        VALUES (NEW.order_number, NEW.id, NEW.order_date);
+        IF NEW.client_uuid IS NOT NULL THEN
+            INSERT INTO order_client_uuids (shop_id, client_uuid, order_id, order_date)
+            VALUES (NEW.shop_id, NEW.client_uuid, NEW.id, NEW.order_date);
+        END IF;
+        RETURN NEW;
+    END IF;
+    DELETE FROM order_numbers WHERE order_number = OLD.order_number AND order_id = OLD.id;
+    IF OLD.client_uuid IS NOT NULL THEN
+        DELETE FROM order_client_uuids WHERE shop_id = OLD.shop_id AND client_uuid = OLD.client_uuid AND order_id = OLD.id;
+    END IF;
+    RETURN OLD;
+END $$;
+
+CREATE TRIGGER trg_orders_unique_keys
+    AFTER INSERT OR DELETE ON orders
+    FOR EACH ROW EXECUTE FUNCTION orders_unique_keys();
+
+COMMENT ON TABLE order_numbers IS 'Enforces unique order numbers across the monthly partitions of orders.';
+COMMENT ON TABLE order_client_uuids IS 'Enforces unique POS client uuids per shop across the monthly partitions of orders.';
@@ -0,0 +1,144 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.dto.MenuItemResponse;
+import com.fastfood.order.domain.entity.AddOn;
+import com.fastfood.order.domain.entity.MenuCategory;
+import com.fastfood.order.domain.entity.MenuItem;
+import com.fastfood.order.domain.entity.MenuItemAddOn;
+import com.fastfood.order.domain.entity.MenuItemSize;
+import com.fastfood.order.infrastructure.config.CatalogCache;
+import com.fastfood.order.infrastructure.repository.AddOnRepository;
+import com.fastfood.order.infrastructure.repository.MenuCategoryRepository;
+import com.fastfood.order.infrastructure.repository.MenuItemAddOnRepository;
+import com.fastfood.order.infrastructure.repository.MenuItemRepository;
+import com.fastfood.order.infrastructure.repository.MenuItemSizeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * The catalog reads must cost a fixed number of repository queries (each one SQL statement, the
+ * associations they use being JOIN FETCHed) whatever the size of the menu.
+ */
+class MenuItemServiceQueryCountTest {
+
+    private static final long SHOP_ID = 1L;
+    private static final long CATEGORY_ID = 7L;
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuCategoryRepository categoryRepository = mock(MenuCategoryRepository.class);
+    private final MenuItemSizeRepository sizeRepository = mock(MenuItemSizeRepository.class);
+    private final MenuItemAddOnRepository menuItemAddOnRepository = mock(MenuItemAddOnRepository.class);
+    private final AddOnRepository addOnRepository = mock(AddOnRepository.class);
+    private final ShopContextService shopContextService = mock(ShopContextService.class);
+    private final CatalogCache catalogCache = mock(CatalogCache.class);
+
+    private MenuItemService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(shopContextService.requireCurrentShopId()).thenReturn(SHOP_ID);
+        // Always a miss, so every call builds from the repositories
+        when(catalogCache.get(anyString(), anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(2)).get());
+        service = new MenuItemService(menuItemRepository, categoryRepository, sizeRepository,
+                menuItemAddOnRepository, addOnRepository, shopContextService, catalogCache);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25, 300})
+    void getAllMenuItemsRunsThreeQueries(int menuSize) {
+        Menu menu = menu(menuSize);
+        when(menuItemRepository.findCatalogByShopId(SHOP_ID)).thenReturn(menu.items);
+        when(sizeRepository.findByMenuItemShopIdOrderByDisplayOrderAsc(SHOP_ID)).thenReturn(menu.sizes);
+        when(menuItemAddOnRepository.findWithAddOnByShopId(SHOP_ID)).thenReturn(menu.addOnLinks);
+
+        List<MenuItemResponse> responses = service.getAllMenuItems();
+
+        assertThat(responses).hasSize(menuSize);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getSizes()).hasSize(2);
+            assertThat(response.getAvailableAddOns()).hasSize(1);
+        });
+        assertThat(queryCount()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25, 300})
+    void getMenuItemsByCategoryRunsThreeQueries(int menuSize) {
+        Menu menu = menu(menuSize);
+        when(menuItemRepository.findCatalogByShopIdAndCategoryId(SHOP_ID, CATEGORY_ID)).thenReturn(menu.items);
+        when(sizeRepository.findByMenuItemIdInOrderByDisplayOrderAsc(anyList())).thenReturn(menu.sizes);
+        when(menuItemAddOnRepository.findWithAddOnByMenuItemIdIn(anyList())).thenReturn(menu.addOnLinks);
+
+        List<MenuItemResponse> responses = service.getMenuItemsByCategory(CATEGORY_ID);
+
+        assertThat(responses).hasSize(menuSize);
+        assertThat(responses.get(menuSize - 1).getSizes()).hasSize(2);
+        assertThat(queryCount()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 25, 300})
+    void getMenuItemByIdRunsThreeQueries(int menuSize) {
+        Menu menu = menu(menuSize);
+        MenuItem item = menu.items.get(0);
+        when(menuItemRepository.findCatalogById(item.getId())).thenReturn(Optional.of(item));
+        when(sizeRepository.findByMenuItemIdInOrderByDisplayOrderAsc(eq(List.of(item.getId()))))
+                .thenReturn(menu.sizes.subList(0, 2));
+        when(menuItemAddOnRepository.findWithAddOnByMenuItemIdIn(eq(List.of(item.getId()))))
+                .thenReturn(menu.addOnLinks.subList(0, 1));
+
+        MenuItemResponse response = service.getMenuItemById(item.getId());
+
+        assertThat(response.getCategoryName()).isEqualTo("Burgers");
+        assertThat(response.getSizes()).hasSize(2);
+        assertThat(response.getAvailableAddOns()).hasSize(1);
+        assertThat(queryCount()).isEqualTo(3);
+    }
+
+    /** Repository calls made so far; a per-item query would grow with the menu */
+    private long queryCount() {
+        return Stream.of(menuItemRepository, categoryRepository, sizeRepository, menuItemAddOnRepository, addOnRepository)
+                .mapToLong(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+
+    private static Menu menu(int size) {
+        MenuCategory category = MenuCategory.builder().id(CATEGORY_ID).nameEn("Burgers").build();
+        AddOn cheese = AddOn.builder().id(50L).nameEn("Cheese").price(new BigDecimal("50")).build();
+        Menu menu = new Menu();
+        for (long id = 1; id <= size; id++) {
+            MenuItem item = MenuItem.builder().id(id).category(category).nameEn("Item " + id)
+                    .basePrice(new BigDecimal("500")).build();
+            menu.items.add(item);
+            menu.sizes.add(MenuItemSize.builder().id(id * 10).menuItem(item).sizeCode("M").build());
+            menu.sizes.add(MenuItemSize.builder().id(id * 10 + 1).menuItem(item).sizeCode("L").build());
+            menu.addOnLinks.add(MenuItemAddOn.builder().id(id).menuItem(item).addOn(cheese).build());
+        }
+        return menu;
+    }
+
+    private static final class Menu {
+        private final List<MenuItem> items = new ArrayList<>();
+        private final List<MenuItemSize> sizes = new ArrayList<>();
+        private final List<MenuItemAddOn> addOnLinks = new ArrayList<>();
+    }
+}
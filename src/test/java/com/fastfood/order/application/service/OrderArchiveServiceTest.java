@@ -0,0 +1,103 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.dto.OrderResponse;
+import com.fastfood.order.application.service.OrderArchiveService.ArchiveQuery;
+import com.fastfood.order.application.service.OrderArchiveService.BlockIndex;
+import com.fastfood.order.application.service.OrderArchiveService.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderArchiveServiceTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+    @Test
+    void bloomFilterKeepsEveryAddedKeyAcrossEncoding() {
+        BloomFilter bloom = new BloomFilter();
+        for (int i = 0; i < 256; i++) {
+            bloom.add("n:ord-" + i);
+        }
+
+        BloomFilter decoded = BloomFilter.fromBase64(bloom.toBase64());
+
+        for (int i = 0; i < 256; i++) {
+            assertThat(decoded.mightContain("n:ord-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void bloomFilterRejectsMostAbsentKeys() {
+        BloomFilter bloom = new BloomFilter();
+        for (int i = 0; i < 256; i++) {
+            bloom.add("n:ord-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bloom.mightContain("n:other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // Well under 1% expected for 256 keys in 4096 bits with three probes
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    void mayMatchSkipsBlocksOutsideTheDateRange() {
+        BlockIndex block = block("ORD-100", "ORD-200", "0300");
+
+        assertThat(query(null, null, JAN_31.plusDays(1), null).mayMatch(block)).isFalse();
+        assertThat(query(null, null, null, JAN_1.minusDays(1)).mayMatch(block)).isFalse();
+        assertThat(query(null, null, JAN_1.plusDays(10), JAN_1.plusDays(12)).mayMatch(block)).isTrue();
+    }
+
+    @Test
+    void mayMatchUsesTheOrderNumberRangeAndBloom() {
+        BlockIndex block = block("ORD-100", "ORD-200", "0300", "ORD-150");
+
+        assertThat(query("ord-150", null, null, null).mayMatch(block)).isTrue();
+        assertThat(query("ORD-099", null, null, null).mayMatch(block)).isFalse();
+        assertThat(query("ORD-201", null, null, null).mayMatch(block)).isFalse();
+    }
+
+    @Test
+    void mayMatchChecksThePhoneInTheBloom() {
+        BlockIndex block = block("ORD-100", "ORD-200", "0300", "ORD-150");
+
+        assertThat(query(null, " 0300 ", null, null).mayMatch(block)).isTrue();
+        assertThat(query(null, "0399", null, null).mayMatch(block)).isFalse();
+    }
+
+    @Test
+    void matchesFiltersTheDecodedOrders() {
+        OrderResponse order = OrderResponse.builder()
+                .orderNumber("ORD-150")
+                .customerName("Ali Raza")
+                .customerPhone("0300")
+                .branchId(2L)
+                .orderDate(JAN_1.plusDays(3))
+                .build();
+
+        assertThat(new ArchiveQuery("ord-150", "raza", "0300", JAN_1, JAN_31, 2L).matches(order)).isTrue();
+        assertThat(new ArchiveQuery(null, "khan", null, null, null, null).matches(order)).isFalse();
+        assertThat(new ArchiveQuery(null, null, null, null, null, 3L).matches(order)).isFalse();
+        assertThat(new ArchiveQuery(null, null, null, JAN_1.plusDays(4), null, null).matches(order)).isFalse();
+    }
+
+    private static ArchiveQuery query(String orderNumber, String phone, LocalDateTime from, LocalDateTime to) {
+        return new ArchiveQuery(orderNumber, null, phone, from, to, null);
+    }
+
+    private static BlockIndex block(String minNumber, String maxNumber, String phone, String... numbers) {
+        BloomFilter bloom = new BloomFilter();
+        for (String number : numbers) {
+            bloom.add("n:" + number.toLowerCase());
+        }
+        bloom.add("p:" + phone);
+        return new BlockIndex(0, 100, numbers.length, JAN_1, JAN_31, minNumber, maxNumber, bloom.toBase64());
+    }
+}
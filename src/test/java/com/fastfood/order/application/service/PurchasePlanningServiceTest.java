@@ -0,0 +1,82 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.service.PurchasePlanningService.RecipeMatrix;
+import com.fastfood.order.application.service.PurchasePlanningService.SalesVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PurchasePlanningServiceTest {
+
+    /**
+     * Stock items: bun (0), patty (1), cheese (2). Rows: burger any size, burger L (double patty),
+     * fries (no stock item of these), combo 9 (burger + cheese).
+     * <pre>
+     *   row 0 I|1|    1.0  1.0   -
+     *   row 1 I|1|L   1.0  2.0   -
+     *   row 2 I|2|     -    -    -
+     *   row 3 C|9    1.0  1.0  0.5
+     * </pre>
+     */
+    private final RecipeMatrix matrix = new RecipeMatrix(
+            Map.of("I|1|", 0, "I|1|L", 1, "I|2|", 2, "C|9", 3),
+            Map.of(10L, 0, 11L, 1, 12L, 2),
+            new int[]{0, 2, 4, 4, 7},
+            new int[]{0, 1, 0, 1, 0, 1, 2},
+            new double[]{1.0, 1.0, 1.0, 2.0, 1.0, 1.0, 0.5},
+            new long[]{10L, 11L, 12L},
+            new String[]{"Bun", "Patty", "Cheese"},
+            new String[]{"pcs", "pcs", "kg"});
+
+    @Test
+    void multiplySumsEachSoldRowIntoItsStockItems() {
+        SalesVector.Builder sales = new SalesVector.Builder(1L);
+        sales.add(0, 10);
+        sales.add(1, 4);
+        sales.add(3, 2);
+
+        double[] required = matrix.multiply(sales.build());
+
+        assertThat(required[0]).isCloseTo(16, within(1e-9));
+        assertThat(required[1]).isCloseTo(20, within(1e-9));
+        assertThat(required[2]).isCloseTo(1, within(1e-9));
+    }
+
+    @Test
+    void multiplyOfRowsWithoutRecipesIsZero() {
+        SalesVector.Builder sales = new SalesVector.Builder(1L);
+        sales.add(2, 100);
+
+        assertThat(matrix.multiply(sales.build())).containsExactly(0, 0, 0);
+        assertThat(matrix.multiply(new SalesVector.Builder(1L).build())).containsExactly(0, 0, 0);
+    }
+
+    @Test
+    void itemRowPrefersTheExactSizeAndFallsBackToAnySize() {
+        assertThat(matrix.itemRow(1L, "l")).isEqualTo(1);
+        assertThat(matrix.itemRow(1L, "M")).isEqualTo(0);
+        assertThat(matrix.itemRow(1L, null)).isEqualTo(0);
+        assertThat(matrix.itemRow(3L, "L")).isEqualTo(-1);
+        assertThat(matrix.comboRow(9L)).isEqualTo(3);
+        assertThat(matrix.comboRow(8L)).isEqualTo(-1);
+        assertThat(matrix.column(12L)).isEqualTo(2);
+        assertThat(matrix.column(99L)).isEqualTo(-1);
+    }
+
+    @Test
+    void salesVectorBuilderGrowsPastItsInitialCapacity() {
+        SalesVector.Builder builder = new SalesVector.Builder(5L);
+        for (int i = 0; i < 100; i++) {
+            builder.add(i % 4, 1);
+        }
+
+        SalesVector sales = builder.build();
+
+        assertThat(sales.branchId()).isEqualTo(5L);
+        assertThat(sales.rows()).hasSize(100);
+        assertThat(matrix.multiply(sales)[0]).isCloseTo(75, within(1e-9));
+    }
+}
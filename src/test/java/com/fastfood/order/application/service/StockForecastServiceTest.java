@@ -0,0 +1,109 @@
+package com.fastfood.order.application.service;
+
+import com.fastfood.order.application.service.StockForecastService.Estimator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StockForecastServiceTest {
+
+    private static final double HOUR_ALPHA = 0.2;
+    private static final double DAY_ALPHA = 0.3;
+    /** A Monday */
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Test
+    void projectWithoutSalesHasNoForecast() {
+        Estimator.Projection projection = new Estimator().project(START, 10, HOUR_ALPHA, DAY_ALPHA, 365);
+
+        assertThat(projection.dailyConsumption()).isZero();
+        assertThat(projection.stockOutAt()).isNull();
+        assertThat(projection.observedDays()).isZero();
+    }
+
+    @Test
+    void projectSteadyConsumption() {
+        Estimator estimator = new Estimator();
+        feed(estimator, 14, hour -> 1.0);
+        LocalDateTime now = START.plusDays(14);
+
+        Estimator.Projection projection = estimator.project(now, 48, HOUR_ALPHA, DAY_ALPHA, 365);
+
+        assertThat(projection.dailyConsumption()).isCloseTo(24, within(0.01));
+        assertThat(projection.observedDays()).isEqualTo(14);
+        assertThat(Duration.between(now, projection.stockOutAt()).toMinutes()).isCloseTo(48 * 60, within(5L));
+    }
+
+    @Test
+    void projectFollowsTheHourOfDayProfile() {
+        Estimator estimator = new Estimator();
+        // Sales only from 12:00 to 13:00, 24 units a day
+        feed(estimator, 14, hour -> hour == 12 ? 24.0 : 0.0);
+        LocalDateTime now = START.plusDays(14);
+
+        Estimator.Projection projection = estimator.project(now, 12, HOUR_ALPHA, DAY_ALPHA, 365);
+
+        // Half of the lunch hour's expected 24 units
+        assertThat(projection.stockOutAt()).isEqualTo(now.withHour(12).withMinute(30));
+    }
+
+    @Test
+    void projectBeyondTheHorizonHasNoStockOut() {
+        Estimator estimator = new Estimator();
+        feed(estimator, 7, hour -> 1.0);
+
+        Estimator.Projection projection = estimator.project(START.plusDays(7), 24 * 400, HOUR_ALPHA, DAY_ALPHA, 365);
+
+        assertThat(projection.dailyConsumption()).isCloseTo(24, within(0.01));
+        assertThat(projection.stockOutAt()).isNull();
+    }
+
+    @Test
+    void sumOfNodesMatchesOneNodeSeeingAllSales() {
+        Estimator all = new Estimator();
+        Estimator nodeA = new Estimator();
+        Estimator nodeB = new Estimator();
+        feed(all, 14, hour -> 3.0);
+        feed(nodeA, 14, hour -> 1.0);
+        feed(nodeB, 14, hour -> 2.0);
+        LocalDateTime now = START.plusDays(14);
+
+        Estimator.Projection combined = Estimator.sum(List.of(nodeA, nodeB), now, HOUR_ALPHA, DAY_ALPHA)
+                .project(now, 100, HOUR_ALPHA, DAY_ALPHA, 365);
+        Estimator.Projection single = all.project(now, 100, HOUR_ALPHA, DAY_ALPHA, 365);
+
+        assertThat(combined.dailyConsumption()).isCloseTo(single.dailyConsumption(), within(1e-9));
+        assertThat(combined.stockOutAt()).isEqualTo(single.stockOutAt());
+    }
+
+    @Test
+    void stateRoundTripKeepsTheForecast() {
+        Estimator estimator = new Estimator();
+        feed(estimator, 10, hour -> hour % 3);
+        LocalDateTime now = START.plusDays(10);
+
+        Estimator restored = Estimator.fromState(estimator.toState());
+
+        assertThat(restored.project(now, 50, HOUR_ALPHA, DAY_ALPHA, 365))
+                .isEqualTo(estimator.project(now, 50, HOUR_ALPHA, DAY_ALPHA, 365));
+    }
+
+    private static void feed(Estimator estimator, int days, HourlySales sales) {
+        for (int h = 0; h < days * 24; h++) {
+            double units = sales.units(h % 24);
+            if (units > 0) {
+                estimator.record(START.plusHours(h).plusMinutes(30), units, HOUR_ALPHA, DAY_ALPHA);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface HourlySales {
+        double units(int hourOfDay);
+    }
+}
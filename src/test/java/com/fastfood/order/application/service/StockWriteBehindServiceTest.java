@@ -0,0 +1,196 @@
+package com.fastfood.order.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockWriteBehindServiceTest {
+
+    @TempDir
+    Path walDirectory;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StockLedgerService stockLedgerService = mock(StockLedgerService.class);
+    private StockWriteBehindService service;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(stockLedgerService.ledgerTimestamp(anyLong())).thenReturn(LocalDateTime.now());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[0]);
+        service = startService(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.shutdown();
+    }
+
+    @Test
+    void saleIsOnDiskBeforeCommitAndCountsAfterIt() throws IOException {
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> {
+            service.recordSale(1L, 100L, new BigDecimal("2.5"), "2x Burger");
+            service.recordSale(2L, 100L, BigDecimal.ONE, "2x Burger");
+        });
+        assertThat(walLines()).isEmpty();
+
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        assertThat(walLines()).hasSize(2);
+        assertThat(service.pendingDelta(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(service.pendingDelta(1L)).isEqualByComparingTo("-2.5");
+        assertThat(service.pendingDelta(2L)).isEqualByComparingTo("-1");
+    }
+
+    @Test
+    void flushWritesCommittedSalesAndDeletesTheSegment() throws IOException {
+        commitSale(1L, 100L, "2.5");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        service.flush();
+
+        verify(jdbcTemplate).batchUpdate(sql("VALUES (?, 'SALE'"), anyList());
+        verify(jdbcTemplate).batchUpdate(sql("UPDATE stock_items"), anyList());
+        assertThat(service.pendingDelta(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(walLines()).isEmpty();
+    }
+
+    @Test
+    void rolledBackSalesAreNeverWritten() {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> service.recordSale(1L, 100L, BigDecimal.ONE, "Burger"));
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        service.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+        assertThat(service.pendingDelta(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void flushWaitsForTransactionsBetweenAppendAndCommit() {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> service.recordSale(1L, 100L, BigDecimal.ONE, "Burger"));
+        synchronizations.forEach(s -> s.beforeCommit(false));
+
+        service.flush();
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        service.flush();
+        verify(jdbcTemplate).batchUpdate(sql("VALUES (?, 'SALE'"), anyList());
+    }
+
+    @Test
+    void retryAfterAFailedFlushUsesTheGuardedInsert() {
+        commitSale(1L, 100L, "1");
+        when(jdbcTemplate.batchUpdate(sql("VALUES (?, 'SALE'"), anyList()))
+                .thenThrow(new RuntimeException("connection reset"));
+
+        service.flush();
+        when(jdbcTemplate.batchUpdate(sql("WHERE EXISTS"), anyList()))
+                .thenReturn(new int[]{0});
+        service.flush();
+
+        verify(jdbcTemplate).batchUpdate(sql("WHERE EXISTS"), anyList());
+        // The first attempt may have committed; nothing was inserted now, so the row is not charged again
+        verify(jdbcTemplate).batchUpdate(sql("UPDATE stock_items"),
+                argThat((List<Object[]> rows) -> rows.isEmpty()));
+        assertThat(service.pendingDelta(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void segmentsLeftByACrashAreReplayedWithTheGuardedInsert() {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> service.recordSale(1L, 100L, BigDecimal.ONE, "Burger"));
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        // Crash: no afterCompletion, no flush
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        service = startService(transactionManager);
+        when(jdbcTemplate.batchUpdate(sql("WHERE EXISTS"), anyList()))
+                .thenReturn(new int[]{1});
+
+        service.flush();
+
+        verify(jdbcTemplate).batchUpdate(sql("WHERE EXISTS"), anyList());
+    }
+
+    private StockWriteBehindService startService(PlatformTransactionManager transactionManager) {
+        StockWriteBehindService started = new StockWriteBehindService(jdbcTemplate, transactionManager,
+                new ObjectMapper(), stockLedgerService);
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "walDirectory", walDirectory.toString());
+        ReflectionTestUtils.setField(started, "fsync", true);
+        ReflectionTestUtils.setField(started, "appendTimeoutMs", 5000L);
+        started.openWriteAheadLog();
+        return started;
+    }
+
+    private void commitSale(Long stockItemId, Long orderId, String quantity) {
+        List<TransactionSynchronization> synchronizations = inTransaction(
+                () -> service.recordSale(stockItemId, orderId, new BigDecimal(quantity), "sale"));
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static String sql(String fragment) {
+        return argThat(sql -> sql != null && sql.contains(fragment));
+    }
+
+    /** Runs the work with synchronization active and returns what it registered, without completing */
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private List<String> walLines() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.flatMap(path -> {
+                try {
+                    return Files.readAllLines(path).stream();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }).filter(line -> !line.isBlank()).toList();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.fastfood.order.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheConfigTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final CountingReloader reloader = new CountingReloader();
+
+    @AfterEach
+    void shutdown() {
+        cacheConfig.shutdownReloadExecutor();
+    }
+
+    @Test
+    void entriesAreWeighedBySerializedSize() throws Exception {
+        Cache<Object, Object> cache = nativeCache(CacheConfig.MENU_ITEMS);
+        List<Map<String, String>> menu = List.of(Map.of("name", "Zinger Burger"), Map.of("name", "Fries"));
+
+        cache.put("all-1", menu);
+        cache.cleanUp();
+
+        long weight = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(weight).isEqualTo(objectMapper.writeValueAsBytes(menu).length);
+    }
+
+    @Test
+    void unserializableValuesGetTheFallbackWeight() {
+        Cache<Object, Object> cache = nativeCache(CacheConfig.SETTINGS);
+
+        cache.put("shop-1", new Object());
+        cache.cleanUp();
+
+        assertThat(cache.policy().eviction().orElseThrow().weightedSize().orElseThrow()).isEqualTo(4096);
+    }
+
+    @Test
+    void missesAndRefreshesGoThroughTheCacheReloader() throws Exception {
+        LoadingCache<Object, Object> cache = (LoadingCache<Object, Object>) nativeCache(CacheConfig.MENU_ITEMS);
+
+        assertThat(cache.get("all-1")).isEqualTo("all-1#1");
+        assertThat(cache.refresh("all-1").get(5, TimeUnit.SECONDS)).isEqualTo("all-1#2");
+
+        // Caffeine installs the refreshed value in a callback that may run just after the future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"all-1#2".equals(cache.getIfPresent("all-1")) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(cache.getIfPresent("all-1")).isEqualTo("all-1#2");
+        assertThat(reloader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void cachesWithoutAReloaderLoadNothing() {
+        LoadingCache<Object, Object> cache = (LoadingCache<Object, Object>) nativeCache(CacheConfig.COMBOS);
+
+        assertThat(cache.get("all-1")).isNull();
+        assertThat(reloader.calls.get()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        ObjectProvider<CacheReloader> reloaders = mock(ObjectProvider.class);
+        when(reloaders.orderedStream()).thenAnswer(invocation -> Stream.of(reloader));
+        CacheManager cacheManager = cacheConfig.cacheManager(objectMapper, reloaders);
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+
+    private static final class CountingReloader implements CacheReloader {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String cacheName() {
+            return CacheConfig.MENU_ITEMS;
+        }
+
+        @Override
+        public Object reload(Object key) {
+            return key + "#" + calls.incrementAndGet();
+        }
+    }
+}
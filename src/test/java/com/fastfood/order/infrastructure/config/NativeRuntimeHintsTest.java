@@ -0,0 +1,38 @@
+package com.fastfood.order.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersRecordsTheServicesWriteAsJson() {
+        for (String className : new String[]{
+                "com.fastfood.order.application.service.StockForecastService$Estimator$State",
+                "com.fastfood.order.application.service.OrderArchiveService$SegmentIndex",
+                "com.fastfood.order.application.service.OrderArchiveService$BlockIndex",
+                "com.fastfood.order.application.service.StockWarningConfigService$StockWarningConfig",
+                "com.fastfood.order.application.service.StockWriteBehindService$WalEntry"}) {
+            Class<?> type = ClassUtils.resolveClassName(className, getClass().getClassLoader());
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(className).accepts(hints);
+        }
+    }
+
+    @Test
+    void registersDtosAndEntities() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(com.fastfood.order.application.dto.OrderResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(com.fastfood.order.domain.entity.Order.class)).accepts(hints);
+    }
+}
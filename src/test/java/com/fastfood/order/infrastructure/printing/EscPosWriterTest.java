@@ -0,0 +1,87 @@
+package com.fastfood.order.infrastructure.printing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EscPosWriterTest {
+
+    @Test
+    void writesCommandsAndText() {
+        EscPosWriter writer = new EscPosWriter(10)
+                .initialize()
+                .align(EscPosWriter.Align.CENTER)
+                .bold(true)
+                .line("Hi")
+                .bold(false)
+                .cut();
+
+        assertThat(writer.toByteArray()).containsExactly(
+                0x1B, '@',
+                0x1B, 'a', 1,
+                0x1B, 'E', 1,
+                'H', 'i', 0x0A,
+                0x1B, 'E', 0,
+                0x1D, 'V', 66, 0);
+    }
+
+    @Test
+    void columnsRightAlignAndCutTheLeftText() {
+        EscPosWriter writer = new EscPosWriter(12);
+
+        writer.columns("Burger", "500").columns("Chicken Tikka Roll", "1200");
+
+        assertThat(ascii(writer)).isEqualTo("Burger   500\nChicken 1200\n");
+    }
+
+    @Test
+    void ruleFillsTheLineAndNonAsciiPrintsAsQuestionMarks() {
+        EscPosWriter writer = new EscPosWriter(5);
+
+        writer.rule('-').line("Zarda زردہ");
+
+        assertThat(ascii(writer)).isEqualTo("-----\nZarda ????\n");
+    }
+
+    @Test
+    void resetReusesTheGrownBuffer() {
+        EscPosWriter writer = new EscPosWriter(42);
+        for (int i = 0; i < 500; i++) {
+            writer.rule('=');
+        }
+        byte[] grown = writer.buffer();
+        assertThat(writer.size()).isEqualTo(500 * 43);
+
+        writer.reset().line("next job");
+
+        assertThat(writer.buffer()).isSameAs(grown);
+        assertThat(ascii(writer)).isEqualTo("next job\n");
+    }
+
+    @Test
+    void filePrinterAppendsEachJob(@TempDir Path directory) throws Exception {
+        Path output = directory.resolve("spool/counter.bin");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.printing.counter.printer", "file:" + output);
+        PrinterDevice printer = new PrinterRegistry(environment).resolve(PrinterRole.COUNTER).orElseThrow();
+        EscPosWriter writer = new EscPosWriter(42);
+
+        printer.send(writer.line("first").buffer(), writer.size());
+        printer.send(writer.reset().line("second").cut().buffer(), writer.size());
+
+        assertThat(printer.name()).isEqualTo("file:" + output);
+        byte[] written = Files.readAllBytes(output);
+        assertThat(new String(written, 0, 13, StandardCharsets.US_ASCII)).isEqualTo("first\nsecond\n");
+        assertThat(written).hasSize(13 + 4);
+    }
+
+    private static String ascii(EscPosWriter writer) {
+        return new String(writer.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fastfood.order.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobScheduleTest {
+
+    @Test
+    void intervalSlotsAreAlignedToTheEpoch() {
+        JobSchedule schedule = JobSchedule.every(Duration.ofMinutes(15));
+
+        assertThat(schedule.nextSlot(Instant.parse("2025-03-03T10:07:12Z"))).isEqualTo(Instant.parse("2025-03-03T10:15:00Z"));
+        assertThat(schedule.nextSlot(Instant.parse("2025-03-03T10:14:59.999Z"))).isEqualTo(Instant.parse("2025-03-03T10:15:00Z"));
+    }
+
+    @Test
+    void nextSlotIsStrictlyAfterASlot() {
+        JobSchedule schedule = JobSchedule.every(Duration.ofHours(1));
+        Instant slot = Instant.parse("2025-03-03T10:00:00Z");
+
+        assertThat(schedule.nextSlot(slot)).isEqualTo(Instant.parse("2025-03-03T11:00:00Z"));
+    }
+
+    @Test
+    void nodesStartedAtDifferentTimesAgreeOnTheSlots() {
+        JobSchedule schedule = JobSchedule.every(Duration.ofSeconds(90));
+        Instant nodeA = schedule.nextSlot(Instant.parse("2025-03-03T10:00:01Z"));
+        Instant nodeB = schedule.nextSlot(Instant.parse("2025-03-03T10:00:44Z"));
+
+        assertThat(nodeA).isEqualTo(nodeB);
+        assertThat(nodeA.toEpochMilli() % Duration.ofSeconds(90).toMillis()).isZero();
+    }
+
+    @Test
+    void cronSlotsFollowTheServerZone() {
+        JobSchedule schedule = JobSchedule.cron("0 15 2 * * *");
+        ZoneId zone = ZoneId.systemDefault();
+        Instant after = LocalDateTime.of(2025, 3, 3, 12, 0).atZone(zone).toInstant();
+
+        Instant next = schedule.nextSlot(after);
+
+        assertThat(next).isEqualTo(LocalDateTime.of(2025, 3, 4, 2, 15).atZone(zone).toInstant());
+        assertThat(schedule.nextSlot(next)).isEqualTo(LocalDateTime.of(2025, 3, 5, 2, 15).atZone(zone).toInstant());
+    }
+
+    @Test
+    void periodOfACronIsTheGapBetweenItsNextTwoSlots() {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant after = LocalDateTime.of(2025, 3, 3, 12, 7).atZone(zone).toInstant();
+
+        assertThat(JobSchedule.cron("0 */10 * * * *").period(after)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(JobSchedule.every(Duration.ofMinutes(3)).period(after)).isEqualTo(Duration.ofMinutes(3));
+    }
+
+    @Test
+    void rejectsNonPositiveIntervals() {
+        assertThatThrownBy(() -> JobSchedule.every(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JobSchedule.every(Duration.ofSeconds(-5))).isInstanceOf(IllegalArgumentException.class);
+    }
+}